@@ -0,0 +1,86 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.InvalidDepositAmountException;
+import bank.InvalidWithdrawalAmountException;
+import bank.SavingsAccount;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-threaded cost of the account operations. Every thread works on its own accounts,
+ * so running with {@code -t N} measures scaling without contention; see
+ * {@link ContendedAccountBenchmark} for threads sharing one account.
+ *
+ * Interest rates are tiny so balances stay finite over billions of invocations, and
+ * account events are discarded so console output does not distort the inactive case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class AccountBenchmark {
+   private SavingsAccount active;
+   private SavingsAccount inactive;
+
+   @Setup(Level.Iteration)
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      active = new SavingsAccount(5000.0, 1e-9, 1.0);
+      inactive = new SavingsAccount(10.0, 1e-9, 1.0);
+   }
+
+   @Benchmark
+   public double deposit() throws InvalidDepositAmountException {
+      active.deposit(1.0);
+      return active.getBalance();
+   }
+
+   @Benchmark
+   public double withdrawActive() throws InvalidDepositAmountException, InvalidWithdrawalAmountException {
+      active.withdraw(1.0);
+      if (active.getBalance() < 100) {
+         active.deposit(5000.0);
+      }
+      return active.getBalance();
+   }
+
+   @Benchmark
+   public double withdrawInactive() throws InvalidWithdrawalAmountException {
+      inactive.withdraw(1.0);
+      return inactive.getBalance();
+   }
+
+   @Benchmark
+   public double calcInterest() {
+      active.calcInterest();
+      return active.getBalance();
+   }
+
+   @Benchmark
+   public double monthlyProcess() {
+      active.monthlyProcess();
+      return active.getBalance();
+   }
+}
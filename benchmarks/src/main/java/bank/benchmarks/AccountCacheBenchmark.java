@@ -0,0 +1,134 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountCache;
+import bank.AccountEvents;
+import bank.AccountFile;
+import bank.ConcurrentLedger;
+import bank.Money;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The AccountCacheBenchmark class measures an {@link AccountCache}. It writes an account
+ * file, then compares the time to open it behind a cache with the time to load every
+ * account into memory. It then runs deposits, withdrawals and balance reads from several
+ * threads with caches of different sizes and prints the throughput, hit rate, evictions
+ * and write-backs of each.
+ *
+ * The accounts used are skewed the way real books are: the account is the file size
+ * times the fourth power of a uniform random number, so the 1% of accounts with the
+ * lowest IDs get about 32% of the operations and the lowest 10% get about 56%.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.AccountCacheBenchmark [accounts] [threads] [seconds per run]
+ */
+public class AccountCacheBenchmark {
+   private static final double[] CACHE_FRACTIONS = {0.01, 0.05, 0.20};
+
+   /**
+    * Runs the benchmark.
+    *
+    * @param args Optional account count, thread count and seconds per run.
+    * @throws Exception If the file cannot be written or a worker fails.
+    */
+   public static void main(String[] args) throws Exception {
+      int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+      int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+      double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 3.0;
+      AccountEvents.setSink(AccountEvents.DISCARD);
+
+      Path directory = Files.createTempDirectory("account-cache");
+      Path path = directory.resolve("accounts.acf");
+      try {
+         try (AccountFile file = AccountFile.create(path)) {
+            for (int id = 0; id < accounts; id++) {
+               file.add(id, Money.toCents(5000.0), 0, 0, 0.0, 0, true);
+            }
+         }
+         System.out.printf("%,d accounts, %,d MB file\n", accounts, Files.size(path) >> 20);
+
+         long begin = System.nanoTime();
+         try (AccountCache cache = AccountCache.open(path, 1000)) {
+            System.out.printf("%-32s %,10.1f ms (%,d accounts)\n", "open behind a cache", (System.nanoTime() - begin) / 1e6,
+                  cache.getAccountCount());
+         }
+         begin = System.nanoTime();
+         ConcurrentLedger everything = loadAll(path);
+         System.out.printf("%-32s %,10.1f ms (%,d accounts)\n", "load every account", (System.nanoTime() - begin) / 1e6, everything.size());
+         everything = null;
+
+         System.out.printf("\n%d threads, %.1f s per run\n", threads, seconds);
+         System.out.printf("%12s %14s %10s %12s %12s %12s\n", "cache", "ops/s", "hit rate", "evictions", "write-backs", "close ms");
+         for (double fraction : CACHE_FRACTIONS) {
+            run(path, (int) (accounts * fraction), accounts, threads, seconds);
+         }
+      } finally {
+         Files.deleteIfExists(path);
+         Files.delete(directory);
+      }
+   }
+
+   private static void run(Path path, int capacity, int accounts, int threads, double seconds) throws Exception {
+      AccountCache cache = AccountCache.open(path, capacity);
+      LongAdder operations = new LongAdder();
+      long deadline = System.nanoTime() + (long) (seconds * 1e9);
+      Thread[] workers = new Thread[threads];
+      for (int t = 0; t < threads; t++) {
+         long seed = t;
+         workers[t] = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(seed);
+            try {
+               while (System.nanoTime() < deadline) {
+                  for (int i = 0; i < 1024; i++) {
+                     double u = random.nextDouble();
+                     long id = (long) (accounts * (u * u * u * u));
+                     int kind = random.nextInt(10);
+                     if (kind < 4) {
+                        cache.deposit(id, 1.0);
+                     } else if (kind < 8) {
+                        cache.withdraw(id, 1.0);
+                     } else {
+                        cache.getBalance(id);
+                     }
+                  }
+                  operations.add(1024);
+               }
+            } catch (Exception e) {
+               throw new RuntimeException(e);
+            }
+         });
+         workers[t].start();
+      }
+      long begin = System.nanoTime();
+      for (Thread worker : workers) {
+         worker.join();
+      }
+      double elapsed = (System.nanoTime() - begin) / 1e9;
+      long closing = System.nanoTime();
+      cache.close();
+      double closeMillis = (System.nanoTime() - closing) / 1e6;
+      System.out.printf("%,12d %,14.0f %9.1f%% %,12d %,12d %,12.1f\n", capacity, operations.sum() / elapsed,
+            cache.getHitRate() * 100, cache.getEvictions(), cache.getWriteBacks(), closeMillis);
+   }
+
+   // What a program without the cache does: read every record into an account object.
+   private static ConcurrentLedger loadAll(Path path) throws Exception {
+      try (AccountFile file = AccountFile.open(path)) {
+         ConcurrentLedger ledger = new ConcurrentLedger(file.size());
+         for (int slot = 0; slot < file.size(); slot++) {
+            ledger.open(file.accountId(slot), Money.toDollars(file.balance(slot)), file.annualInterestRate(slot),
+                  Money.toDollars(file.monthlyServiceCharges(slot)));
+         }
+         return ledger;
+      }
+   }
+}
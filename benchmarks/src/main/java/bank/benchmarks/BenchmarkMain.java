@@ -0,0 +1,41 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The BenchmarkMain class is the entry point of benchmarks.jar. It runs JMH with the given
+ * arguments and, unless a result format is given, writes the results as JSON to
+ * jmh-result-VERSION.json so runs of different versions can be compared side by side.
+ *
+ * Usage:
+ * java -jar benchmarks/target/benchmarks.jar [JMH options] [benchmark regex]
+ * For example {@code -t 8 AccountBenchmark} runs the single-account benchmarks on 8 threads.
+ */
+public class BenchmarkMain {
+
+   /**
+    * Runs JMH.
+    *
+    * @param args JMH command line options.
+    * @throws Exception If JMH fails.
+    */
+   public static void main(String[] args) throws Exception {
+      List<String> options = new ArrayList<>(Arrays.asList(args));
+      if (!options.contains("-rf") && !options.contains("-h") && !options.contains("-l")) {
+         String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+         options.add(0, "-rf");
+         options.add(1, "json");
+         options.add(2, "-rff");
+         options.add(3, "jmh-result-" + (version == null ? "dev" : version) + ".json");
+      }
+      org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+   }
+}
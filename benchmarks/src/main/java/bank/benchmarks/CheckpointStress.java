@@ -0,0 +1,156 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.CheckpointedLedger;
+import bank.InvalidWithdrawalAmountException;
+import bank.JournalConfig;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The CheckpointStress class writes checkpoints of a {@link CheckpointedLedger} over and
+ * over while many threads change its accounts, and checks that no change is lost or
+ * wrongly reported as failed. Every thread owns its own accounts and keeps the balances
+ * it expects, depositing and withdrawing with group commit, so it waits for each change
+ * to be durable across the checkpoints' journal rolls. It checks that:
+ *
+ * 1. No operation fails: a change committed while a checkpoint closes the segment it was
+ *    appended to is still written out and reported as done.
+ * 2. After the ledger is closed and opened again, every balance is the one its thread
+ *    expects.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.CheckpointStress [threads] [seconds]
+ * The program exits with status 1 if a check fails.
+ */
+public class CheckpointStress {
+   private static final int ACCOUNTS_PER_THREAD = 1_000;
+
+   /**
+    * Runs the checks.
+    *
+    * @param args Optional thread count and seconds to run.
+    * @throws Exception If the ledger cannot be opened or closed.
+    */
+   public static void main(String[] args) throws Exception {
+      int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+      double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 5.0;
+      AccountEvents.setSink(AccountEvents.DISCARD);
+
+      Path directory = Files.createTempDirectory("checkpoint-stress");
+      try {
+         CheckpointedLedger ledger = CheckpointedLedger.open(directory, JournalConfig.group(64, 200), 4);
+         double[][] expected = new double[threads][ACCOUNTS_PER_THREAD];
+         for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < ACCOUNTS_PER_THREAD; i++) {
+               ledger.open(accountId(threads, t, i), 1000.0, 0.0, 0.0);
+               expected[t][i] = 1000.0;
+            }
+         }
+
+         AtomicBoolean running = new AtomicBoolean(true);
+         AtomicLong operations = new AtomicLong();
+         AtomicLong failures = new AtomicLong();
+         CountDownLatch start = new CountDownLatch(1);
+         Thread[] workers = new Thread[threads];
+         for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+               SplittableRandom random = new SplittableRandom(thread);
+               try {
+                  start.await();
+               } catch (InterruptedException e) {
+                  return;
+               }
+               while (running.get()) {
+                  int i = random.nextInt(ACCOUNTS_PER_THREAD);
+                  long id = accountId(threads, thread, i);
+                  double amount = 1 + random.nextInt(50);
+                  try {
+                     if (random.nextBoolean()) {
+                        ledger.deposit(id, amount);
+                        expected[thread][i] += amount;
+                     } else {
+                        ledger.withdraw(id, amount);
+                        expected[thread][i] -= amount;
+                     }
+                     operations.incrementAndGet();
+                  } catch (InvalidWithdrawalAmountException e) {
+                     // Not enough money; refused without a change.
+                  } catch (Exception e) {
+                     if (failures.getAndIncrement() == 0) {
+                        System.out.println("first failure: " + e);
+                     }
+                  }
+               }
+            });
+            workers[t].start();
+         }
+
+         start.countDown();
+         long checkpoints = 0;
+         long deadline = System.nanoTime() + (long) (seconds * 1e9);
+         while (System.nanoTime() < deadline) {
+            ledger.checkpoint();
+            checkpoints++;
+         }
+         running.set(false);
+         for (Thread worker : workers) {
+            worker.join();
+         }
+         ledger.close();
+
+         boolean ok = failures.get() == 0;
+         System.out.printf("No failed operations (%d threads, %d checkpoints): %,d done, %d failed -> %s\n",
+               threads, checkpoints, operations.get(), failures.get(), ok ? "OK" : "FAILED");
+
+         CheckpointedLedger reopened = CheckpointedLedger.open(directory, JournalConfig.sync(), 4);
+         int wrong = 0;
+         for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < ACCOUNTS_PER_THREAD; i++) {
+               if (reopened.getBalance(accountId(threads, t, i)) != expected[t][i]) {
+                  wrong++;
+               }
+            }
+         }
+         reopened.close();
+         boolean recovered = wrong == 0;
+         System.out.printf("Balances after reopening: %d of %d wrong -> %s\n",
+               wrong, threads * ACCOUNTS_PER_THREAD, recovered ? "OK" : "FAILED");
+         ok &= recovered;
+
+         System.out.println(ok ? "All checks passed." : "Some checks FAILED.");
+         if (!ok) {
+            System.exit(1);
+         }
+      } finally {
+         delete(directory);
+      }
+   }
+
+   private static long accountId(int threads, int thread, int index) {
+      return (long) index * threads + thread;
+   }
+
+   private static void delete(Path directory) throws IOException {
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+         for (Path file : files) {
+            Files.delete(file);
+         }
+      }
+      Files.delete(directory);
+   }
+}
@@ -0,0 +1,100 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.ConcurrentSavingsAccount;
+import bank.SavingsAccount;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ConcurrentAccountBenchmark class compares the throughput of the lock-free
+ * {@link ConcurrentSavingsAccount} with a plain {@link SavingsAccount} guarded by
+ * {@code synchronized}. All threads share one account and each loop does one deposit
+ * and one withdrawal, so this is the worst case for contention.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.ConcurrentAccountBenchmark [seconds per run]
+ * Runs 1, 2, 4, 8, 16, 32 and 64 threads and prints operations per second.
+ */
+public class ConcurrentAccountBenchmark {
+   private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+   /**
+    * Runs the comparison for every thread count.
+    *
+    * @param args Optional number of seconds per measured run.
+    * @throws Exception If a worker thread fails.
+    */
+   public static void main(String[] args) throws Exception {
+      double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+      long nanos = (long) (seconds * 1_000_000_000L);
+   
+      System.out.printf("%8s %18s %18s %8s\n", "threads", "synchronized op/s", "lock-free op/s", "ratio");
+      for (int threads : THREAD_COUNTS) {
+         SavingsAccount locked = new SavingsAccount(5000.0, 0.05);
+         ConcurrentSavingsAccount lockFree = new ConcurrentSavingsAccount(5000.0, 0.05);
+      
+         // Warm up both paths once before measuring.
+         run(threads, nanos / 4, () -> synchronizedOps(locked));
+         run(threads, nanos / 4, () -> lockFreeOps(lockFree));
+      
+         double synchronizedRate = run(threads, nanos, () -> synchronizedOps(locked));
+         double lockFreeRate = run(threads, nanos, () -> lockFreeOps(lockFree));
+         System.out.printf("%8d %,18.0f %,18.0f %8.2f\n", threads, synchronizedRate, lockFreeRate, lockFreeRate / synchronizedRate);
+      }
+   }
+
+   private static void synchronizedOps(SavingsAccount account) throws Exception {
+      synchronized (account) {
+         account.deposit(1.0);
+      }
+      synchronized (account) {
+         account.withdraw(1.0);
+      }
+   }
+
+   private static void lockFreeOps(ConcurrentSavingsAccount account) throws Exception {
+      account.deposit(1.0);
+      account.withdraw(1.0);
+   }
+
+   private static double run(int threads, long nanos, Op op) throws Exception {
+      LongAdder operations = new LongAdder();
+      CountDownLatch start = new CountDownLatch(1);
+      Thread[] workers = new Thread[threads];
+      long[] deadline = new long[1];
+      for (int t = 0; t < threads; t++) {
+         workers[t] = new Thread(() -> {
+            try {
+               start.await();
+               long count = 0;
+               while ((count & 255) != 0 || System.nanoTime() < deadline[0]) {
+                  op.run();
+                  count += 2;
+               }
+               operations.add(count);
+            } catch (Exception e) {
+               throw new RuntimeException(e);
+            }
+         });
+         workers[t].start();
+      }
+      long begin = System.nanoTime();
+      deadline[0] = begin + nanos;
+      start.countDown();
+      for (Thread worker : workers) {
+         worker.join();
+      }
+      return operations.sum() / ((System.nanoTime() - begin) / 1e9);
+   }
+
+   private interface Op {
+      void run() throws Exception;
+   }
+}
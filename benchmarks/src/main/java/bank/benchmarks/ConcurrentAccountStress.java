@@ -0,0 +1,120 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.ConcurrentSavingsAccount;
+import bank.InvalidWithdrawalAmountException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ConcurrentAccountStress class hammers one {@link ConcurrentSavingsAccount} from
+ * many threads and checks that no update is lost. It runs two checks:
+ *
+ * 1. Every thread deposits and then withdraws $1.00 many times. At the end the balance
+ *    must equal the initial balance and the counters must equal the number of calls.
+ * 2. Every thread withdraws $1.00 from a $100.00 account until it is refused. Exactly
+ *    76 withdrawals may succeed: the one that takes the balance from $25 to $24 makes
+ *    the account inactive, and no withdrawal may ever overdraw it.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.ConcurrentAccountStress [threads] [iterations per thread]
+ * The program exits with status 1 if a check fails.
+ */
+public class ConcurrentAccountStress {
+
+   /**
+    * Runs both checks.
+    *
+    * @param args Optional thread count and iterations per thread.
+    * @throws Exception If a worker thread fails unexpectedly.
+    */
+   public static void main(String[] args) throws Exception {
+      int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+      int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+   
+      boolean ok = checkNoLostUpdates(threads, iterations);
+      ok &= checkNoOverdraft(threads);
+      System.out.println(ok ? "All checks passed." : "Some checks FAILED.");
+      if (!ok) {
+         System.exit(1);
+      }
+   }
+
+   private static boolean checkNoLostUpdates(int threads, int iterations) throws Exception {
+      ConcurrentSavingsAccount account = new ConcurrentSavingsAccount(1000.0, 0.05);
+      runAll(threads, () -> {
+         for (int i = 0; i < iterations; i++) {
+            account.deposit(1.0);
+            account.withdraw(1.0);
+         }
+      });
+   
+      long expected = (long) threads * iterations;
+      boolean ok = account.getBalance() == 1000.0
+            && account.getNumOfDeposits() == expected
+            && account.getNumOfWithdrawals() == expected;
+      System.out.printf("No lost updates (%d threads x %d): balance $%.2f, deposits %d, withdrawals %d (expected %d) -> %s\n",
+            threads, iterations, account.getBalance(), account.getNumOfDeposits(), account.getNumOfWithdrawals(),
+            expected, ok ? "OK" : "FAILED");
+      return ok;
+   }
+
+   private static boolean checkNoOverdraft(int threads) throws Exception {
+      ConcurrentSavingsAccount account = new ConcurrentSavingsAccount(100.0, 0.05);
+      AtomicInteger succeeded = new AtomicInteger();
+      runAll(threads, () -> {
+         while (account.isStatus()) {
+            int before = account.getNumOfWithdrawals();
+            try {
+               account.withdraw(1.0);
+               if (account.getNumOfWithdrawals() != before) {
+                  succeeded.incrementAndGet();
+               }
+            } catch (InvalidWithdrawalAmountException e) {
+               return;
+            }
+         }
+      });
+   
+      boolean ok = account.getNumOfWithdrawals() == 76 && account.getBalance() == 24.0 && !account.isStatus();
+      System.out.printf("No overdraft (%d threads): withdrawals %d (expected 76), balance $%.2f, active %s -> %s\n",
+            threads, account.getNumOfWithdrawals(), account.getBalance(), account.isStatus(), ok ? "OK" : "FAILED");
+      return ok;
+   }
+
+   private static void runAll(int threads, Task task) throws Exception {
+      CountDownLatch start = new CountDownLatch(1);
+      Thread[] workers = new Thread[threads];
+      Exception[] failure = new Exception[1];
+      for (int t = 0; t < threads; t++) {
+         workers[t] = new Thread(() -> {
+            try {
+               start.await();
+               task.run();
+            } catch (Exception e) {
+               synchronized (failure) {
+                  failure[0] = e;
+               }
+            }
+         });
+         workers[t].start();
+      }
+      start.countDown();
+      for (Thread worker : workers) {
+         worker.join();
+      }
+      if (failure[0] != null) {
+         throw failure[0];
+      }
+   }
+
+   private interface Task {
+      void run() throws Exception;
+   }
+}
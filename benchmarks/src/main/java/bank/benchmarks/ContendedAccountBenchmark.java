@@ -0,0 +1,68 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.ConcurrentSavingsAccount;
+import bank.InvalidDepositAmountException;
+import bank.InvalidWithdrawalAmountException;
+import bank.SavingsAccount;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * All threads share one account. {@link SavingsAccount} is guarded with
+ * {@code synchronized}; {@link ConcurrentSavingsAccount} is used as is. Each invocation
+ * is one deposit followed by one withdrawal, so the balance stays level.
+ * The default is 8 threads; override it with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ContendedAccountBenchmark {
+   private SavingsAccount locked;
+   private ConcurrentSavingsAccount lockFree;
+
+   @Setup(Level.Iteration)
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      locked = new SavingsAccount(5000.0, 0.05);
+      lockFree = new ConcurrentSavingsAccount(5000.0, 0.05);
+   }
+
+   @Benchmark
+   public void synchronizedDepositWithdraw() throws InvalidDepositAmountException, InvalidWithdrawalAmountException {
+      synchronized (locked) {
+         locked.deposit(1.0);
+      }
+      synchronized (locked) {
+         locked.withdraw(1.0);
+      }
+   }
+
+   @Benchmark
+   public void lockFreeDepositWithdraw() throws InvalidDepositAmountException, InvalidWithdrawalAmountException {
+      lockFree.deposit(1.0);
+      lockFree.withdraw(1.0);
+   }
+}
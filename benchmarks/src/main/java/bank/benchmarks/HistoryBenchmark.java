@@ -0,0 +1,100 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.TransactionHistory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * The HistoryBenchmark class shows that statement queries on a {@link TransactionHistory}
+ * cost the same whether the history is small or large. For each history size it appends
+ * entries for random accounts one millisecond apart, then times random statements (one
+ * account, a time window of 1% of the history) and a streamed export of the whole
+ * history of {@value #EXPORTED_ACCOUNTS} accounts to one file.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.HistoryBenchmark [max entries] [accounts] [directory]
+ * The history is created in a new directory under the given one (default: the temp directory) and deleted afterwards.
+ */
+public class HistoryBenchmark {
+   private static final int QUERIES = 20_000;
+   private static final int EXPORTED_ACCOUNTS = 1_000;
+
+   /**
+    * Runs the benchmark for history sizes growing tenfold up to the maximum.
+    *
+    * @param args Optional maximum entry count, account count and directory.
+    * @throws Exception If the history cannot be written.
+    */
+   public static void main(String[] args) throws Exception {
+      long maxEntries = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000;
+      int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+      Path parent = Path.of(args.length > 2 ? args[2] : System.getProperty("java.io.tmpdir"));
+
+      System.out.printf("%,d accounts, %,d statements per size\n", accounts, QUERIES);
+      System.out.printf("%14s %10s %12s %14s %12s %14s\n", "entries", "segments", "append/s", "statement us", "rows/query", "export rows/s");
+      for (long entries = Math.max(1, maxEntries / 100); entries <= maxEntries; entries *= 10) {
+         Path directory = Files.createTempDirectory(parent, "history-bench");
+         try {
+            run(directory, entries, accounts);
+         } finally {
+            delete(directory);
+         }
+      }
+   }
+
+   private static void run(Path directory, long entries, int accounts) throws IOException {
+      SplittableRandom random = new SplittableRandom(42);
+      try (TransactionHistory history = TransactionHistory.open(directory, 1 << 20)) {
+         long begin = System.nanoTime();
+         for (long t = 0; t < entries; t++) {
+            byte type = (t & 1) == 0 ? TransactionHistory.DEPOSIT : TransactionHistory.WITHDRAWAL;
+            history.append(t, random.nextInt(accounts), type, 1 + random.nextInt(500));
+         }
+         history.seal();
+         double appendSeconds = (System.nanoTime() - begin) / 1e9;
+
+         long window = Math.max(1, entries / 100);
+         long[] rows = new long[1];
+         begin = System.nanoTime();
+         for (int q = 0; q < QUERIES; q++) {
+            long from = random.nextLong(Math.max(1, entries - window));
+            rows[0] += history.statement(random.nextInt(accounts), from, from + window, (timestamp, type, amount) -> { });
+         }
+         double queryMicros = (System.nanoTime() - begin) / 1e3 / QUERIES;
+
+         begin = System.nanoTime();
+         long exported = 0;
+         Path export = directory.resolve("statements.csv");
+         try (Writer out = new BufferedWriter(Files.newBufferedWriter(export), 1 << 16)) {
+            for (int account = 0; account < EXPORTED_ACCOUNTS; account++) {
+               exported += history.exportStatement(account, 0, Long.MAX_VALUE, out);
+            }
+         }
+         double exportSeconds = (System.nanoTime() - begin) / 1e9;
+
+         System.out.printf("%,14d %10d %,12.0f %14.2f %12.1f %,14.0f\n", entries, history.segmentCount(), entries / appendSeconds,
+               queryMicros, rows[0] / (double) QUERIES, exported / exportSeconds);
+      }
+   }
+
+   private static void delete(Path root) throws IOException {
+      try (Stream<Path> files = Files.walk(root)) {
+         for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+            Files.delete(file);
+         }
+      }
+   }
+}
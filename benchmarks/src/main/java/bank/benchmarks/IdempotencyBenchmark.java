@@ -0,0 +1,118 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.ConcurrentLedger;
+import bank.IdempotencyCache;
+import bank.IdempotentLedger;
+import bank.TransactionStatus;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The IdempotencyBenchmark class measures the cost of an {@link IdempotencyCache}. It
+ * prints the retained heap per tracked key, next to a {@link ConcurrentHashMap} of boxed
+ * keys for comparison, and then the throughput of deposits through an
+ * {@link IdempotentLedger} while a share of the submissions are retries of recent keys.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.IdempotencyBenchmark [keys] [threads] [seconds per run]
+ */
+public class IdempotencyBenchmark {
+   private static final int ACCOUNTS = 10_000;
+   private static final double[] RETRY_RATES = {0.0, 0.1, 0.5};
+
+   /**
+    * Runs the footprint and throughput measurements.
+    *
+    * @param args Optional key count, thread count and seconds per run.
+    * @throws Exception If a worker fails.
+    */
+   public static void main(String[] args) throws Exception {
+      int keys = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+      int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+      double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 3.0;
+      AccountEvents.setSink(AccountEvents.DISCARD);
+
+      footprint(keys);
+
+      System.out.printf("\n%d threads, cache of %,d keys, %.1f s per run\n", threads, keys, seconds);
+      System.out.printf("%10s %14s %12s %12s\n", "retries", "submits/s", "hits", "evictions");
+      for (double retryRate : RETRY_RATES) {
+         throughput(keys, threads, seconds, retryRate);
+      }
+   }
+
+   private static void footprint(int keys) throws Exception {
+      long baseline = usedHeap();
+      IdempotencyCache cache = new IdempotencyCache(keys, 1, TimeUnit.HOURS);
+      for (long key = 0; key < keys; key++) {
+         cache.execute(key * 0x9E3779B97F4A7C15L, () -> TransactionStatus.OK);
+      }
+      long used = usedHeap() - baseline;
+      System.out.printf("%-28s %,12d keys %8.1f bytes/key\n", "IdempotencyCache", cache.size(), used / (double) cache.size());
+      cache = null;
+
+      baseline = usedHeap();
+      ConcurrentHashMap<Long, TransactionStatus> map = new ConcurrentHashMap<>(keys);
+      for (long key = 0; key < keys; key++) {
+         map.put(key * 0x9E3779B97F4A7C15L, TransactionStatus.OK);
+      }
+      used = usedHeap() - baseline;
+      System.out.printf("%-28s %,12d keys %8.1f bytes/key (no time-to-live)\n", "ConcurrentHashMap<Long, ...>", map.size(), used / (double) map.size());
+   }
+
+   private static void throughput(int keys, int threads, double seconds, double retryRate) throws Exception {
+      ConcurrentLedger ledger = new ConcurrentLedger(ACCOUNTS);
+      for (int i = 0; i < ACCOUNTS; i++) {
+         ledger.open(i, 5000.0, 0.0, 0.0);
+      }
+      IdempotentLedger idempotent = new IdempotentLedger(ledger, new IdempotencyCache(keys, 1, TimeUnit.MINUTES));
+      LongAdder submits = new LongAdder();
+      long deadline = System.nanoTime() + (long) (seconds * 1e9);
+      Thread[] workers = new Thread[threads];
+      for (int t = 0; t < threads; t++) {
+         long seed = t;
+         workers[t] = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(seed);
+            long next = seed << 40;
+            try {
+               while (System.nanoTime() < deadline) {
+                  for (int i = 0; i < 1024; i++) {
+                     // A retry repeats one of this thread's last 1,000 keys.
+                     long key = random.nextDouble() < retryRate && next > (seed << 40) + 1000 ? next - 1 - random.nextInt(1000) : next++;
+                     idempotent.deposit(key, key % ACCOUNTS, 1.0);
+                  }
+                  submits.add(1024);
+               }
+            } catch (Exception e) {
+               throw new RuntimeException(e);
+            }
+         });
+         workers[t].start();
+      }
+      long begin = System.nanoTime();
+      for (Thread worker : workers) {
+         worker.join();
+      }
+      double elapsed = (System.nanoTime() - begin) / 1e9;
+      IdempotencyCache cache = idempotent.cache();
+      System.out.printf("%9.0f%% %,14.0f %,12d %,12d\n", retryRate * 100, submits.sum() / elapsed, cache.hits(), cache.evictions());
+   }
+
+   private static long usedHeap() {
+      Runtime runtime = Runtime.getRuntime();
+      for (int i = 0; i < 3; i++) {
+         System.gc();
+      }
+      return runtime.totalMemory() - runtime.freeMemory();
+   }
+}
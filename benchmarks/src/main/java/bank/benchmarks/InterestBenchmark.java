@@ -0,0 +1,104 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.InterestKernel;
+import bank.InvalidDepositAmountException;
+import bank.Metrics;
+import bank.SavingsAccount;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One month of interest, and twelve months of month-end processing, over every account:
+ * calling the account objects one by one against {@link InterestKernel} on primitive
+ * arrays. Rates are tiny so balances stay finite over many invocations. Account events
+ * are discarded and metrics are off, so only the arithmetic and memory traffic are
+ * measured. The 10M case needs a few GB of heap, which the fork is given.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Threads(1)
+@State(Scope.Benchmark)
+public class InterestBenchmark {
+   private static final int MONTHS = 12;
+
+   @Param({"1000000", "10000000"})
+   public int accounts;
+
+   private SavingsAccount[] objects;
+   private double[] balances;
+   private double[] rates;
+   private double[] charges;
+   private boolean[] status;
+
+   @Setup(Level.Trial)
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      Metrics.setEnabled(false);
+      SplittableRandom random = new SplittableRandom(42);
+      objects = new SavingsAccount[accounts];
+      balances = new double[accounts];
+      rates = new double[accounts];
+      charges = new double[accounts];
+      status = new boolean[accounts];
+      for (int i = 0; i < accounts; i++) {
+         balances[i] = 100 + random.nextInt(9900);
+         rates[i] = random.nextDouble() * 1e-9;
+         objects[i] = new SavingsAccount(balances[i], rates[i]);
+         status[i] = true;
+      }
+   }
+
+   @Benchmark
+   public SavingsAccount[] perObjectCalcInterest() {
+      for (SavingsAccount account : objects) {
+         account.calcInterest();
+      }
+      return objects;
+   }
+
+   @Benchmark
+   public double[] kernelAccrue() {
+      InterestKernel.accrue(balances, rates, 0, accounts);
+      return balances;
+   }
+
+   @Benchmark
+   public SavingsAccount[] perObjectTwelveMonths() {
+      for (SavingsAccount account : objects) {
+         for (int month = 0; month < MONTHS; month++) {
+            account.monthlyProcess();
+         }
+      }
+      return objects;
+   }
+
+   @Benchmark
+   public double[] kernelTwelveMonths() {
+      InterestKernel.monthlyProcess(balances, rates, charges, status, MONTHS, 0, accounts);
+      return balances;
+   }
+}
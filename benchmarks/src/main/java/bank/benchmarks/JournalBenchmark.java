@@ -0,0 +1,87 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.JournalConfig;
+import bank.TransactionJournal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The JournalBenchmark class measures how group commit trades latency for throughput.
+ * Many threads append DEPOSIT records and commit them; for each batch size the program
+ * prints operations per second, forces (fsyncs) per second and the average number of
+ * records that shared one force. The last row uses asynchronous commits.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.JournalBenchmark [directory] [threads] [seconds per run]
+ * The journal files are created in the directory (default: the temp directory) and deleted afterwards.
+ */
+public class JournalBenchmark {
+   private static final int[] BATCH_SIZES = {1, 8, 64, 256, 1024};
+   private static final long MAX_DELAY_MICROS = 2000;
+
+   /**
+    * Runs the benchmark for every batch size.
+    *
+    * @param args Optional directory, thread count and seconds per run.
+    * @throws Exception If the journal cannot be written.
+    */
+   public static void main(String[] args) throws Exception {
+      Path directory = Path.of(args.length > 0 ? args[0] : System.getProperty("java.io.tmpdir"));
+      int threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+      double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 3.0;
+   
+      System.out.printf("%d threads, %.1f s per run, max delay %d us\n", threads, seconds, MAX_DELAY_MICROS);
+      System.out.printf("%-22s %14s %12s %12s\n", "mode", "ops/s", "fsyncs/s", "ops/fsync");
+      for (int batch : BATCH_SIZES) {
+         run(directory, "group batch=" + batch, JournalConfig.group(batch, MAX_DELAY_MICROS), threads, seconds);
+      }
+      run(directory, "async", JournalConfig.async(MAX_DELAY_MICROS), threads, seconds);
+   }
+
+   private static void run(Path directory, String name, JournalConfig config, int threads, double seconds) throws Exception {
+      Path file = Files.createTempFile(directory, "journal-bench", ".log");
+      Files.delete(file);
+      LongAdder operations = new LongAdder();
+      try (TransactionJournal journal = new TransactionJournal(file, config)) {
+         CountDownLatch start = new CountDownLatch(1);
+         long deadline = System.nanoTime() + (long) (seconds * 1e9);
+         Thread[] workers = new Thread[threads];
+         for (int t = 0; t < threads; t++) {
+            long accountId = t;
+            workers[t] = new Thread(() -> {
+               try {
+                  start.await();
+                  while (System.nanoTime() < deadline) {
+                     journal.commit(journal.append(TransactionJournal.DEPOSIT, accountId, 1.0));
+                     operations.increment();
+                  }
+               } catch (Exception e) {
+                  throw new RuntimeException(e);
+               }
+            });
+            workers[t].start();
+         }
+         long begin = System.nanoTime();
+         long forcesBefore = journal.forceCount();
+         start.countDown();
+         for (Thread worker : workers) {
+            worker.join();
+         }
+         double elapsed = (System.nanoTime() - begin) / 1e9;
+         long forces = journal.forceCount() - forcesBefore;
+         System.out.printf("%-22s %,14.0f %,12.0f %12.1f\n", name, operations.sum() / elapsed, forces / elapsed,
+               forces == 0 ? 0.0 : operations.sum() / (double) forces);
+      } finally {
+         Files.deleteIfExists(file);
+      }
+   }
+}
@@ -0,0 +1,67 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.InvalidDepositAmountException;
+import bank.Ledger;
+
+/**
+ * The LedgerFootprintBenchmark class measures how much heap a {@link Ledger} uses
+ * per account. For each size it fills a new ledger, forces garbage collection and
+ * prints the retained heap in total and per account.
+ *
+ * Usage:
+ * java -Xmx8g -cp benchmarks/target/benchmarks.jar bank.benchmarks.LedgerFootprintBenchmark [size ...]
+ * The default sizes are 1,000,000, 10,000,000 and 50,000,000 accounts. The 50M run
+ * needs a heap of about 6 GB.
+ */
+public class LedgerFootprintBenchmark {
+   private static final long[] DEFAULT_SIZES = {1_000_000L, 10_000_000L, 50_000_000L};
+
+   /**
+    * Runs the benchmark for every size given on the command line.
+    *
+    * @param args The ledger sizes to measure.
+    * @throws InvalidDepositAmountException Never, the initial balance is valid.
+    */
+   public static void main(String[] args) throws InvalidDepositAmountException {
+      long[] sizes = DEFAULT_SIZES;
+      if (args.length > 0) {
+         sizes = new long[args.length];
+         for (int i = 0; i < args.length; i++) {
+            sizes[i] = Long.parseLong(args[i].replace("_", ""));
+         }
+      }
+   
+      System.out.printf("%12s %14s %12s %12s\n", "accounts", "heap bytes", "bytes/acct", "fill ms");
+      for (long size : sizes) {
+         long baseline = usedHeap();
+         long start = System.nanoTime();
+         Ledger ledger = fill((int) size);
+         long fillMillis = (System.nanoTime() - start) / 1_000_000;
+         long used = usedHeap() - baseline;
+         System.out.printf("%,12d %,14d %12.1f %,12d\n", ledger.size(), used, used / (double) ledger.size(), fillMillis);
+         ledger = null;
+      }
+   }
+
+   private static Ledger fill(int size) throws InvalidDepositAmountException {
+      Ledger ledger = new Ledger(size);
+      for (long id = 1; id <= size; id++) {
+         ledger.open(id, 100.0, 0.02, 1.0);
+      }
+      return ledger;
+   }
+
+   private static long usedHeap() {
+      Runtime runtime = Runtime.getRuntime();
+      for (int i = 0; i < 3; i++) {
+         System.gc();
+      }
+      return runtime.totalMemory() - runtime.freeMemory();
+   }
+}
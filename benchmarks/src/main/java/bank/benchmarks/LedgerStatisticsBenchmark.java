@@ -0,0 +1,113 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.AccountNotFoundException;
+import bank.AccountSnapshot;
+import bank.ConcurrentLedger;
+import bank.InvalidDepositAmountException;
+import bank.LedgerStatistics;
+import bank.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Questions about a whole {@link ConcurrentLedger}, answered by a pass over every
+ * account ({@code scan*}) and by its {@link LedgerStatistics} ({@code statistics*}):
+ * the total balance, the number of inactive accounts, and their IDs. One account in
+ * 100 is inactive. The scans grow with the number of accounts; the statistics answer
+ * the first two in constant time and the third in time proportional to the answer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LedgerStatisticsBenchmark {
+   @Param({"10000", "1000000"})
+   int accounts;
+
+   private ConcurrentLedger ledger;
+   private long[] ids;
+
+   @Setup(Level.Trial)
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      Metrics.setEnabled(false);
+      ledger = new ConcurrentLedger(accounts);
+      for (int i = 0; i < accounts; i++) {
+         ledger.open(i, i % 100 == 0 ? 10.0 : 5000.0, 0.05, 0);
+      }
+      ids = ledger.ids();
+   }
+
+   @Benchmark
+   public double scanTotalBalance() throws AccountNotFoundException {
+      double total = 0;
+      for (long id : ids) {
+         total += ledger.getBalance(id);
+      }
+      return total;
+   }
+
+   @Benchmark
+   public double statisticsTotalBalance() {
+      return ledger.statistics().totalBalance();
+   }
+
+   @Benchmark
+   public int scanInactiveCount() throws AccountNotFoundException {
+      int count = 0;
+      for (long id : ids) {
+         if (!ledger.snapshot(id).isStatus()) {
+            count++;
+         }
+      }
+      return count;
+   }
+
+   @Benchmark
+   public int statisticsInactiveCount() {
+      return ledger.statistics().inactiveCount();
+   }
+
+   @Benchmark
+   public long[] scanInactiveAccounts() throws AccountNotFoundException {
+      long[] inactive = new long[16];
+      int count = 0;
+      for (long id : ids) {
+         AccountSnapshot snapshot = ledger.snapshot(id);
+         if (!snapshot.isStatus()) {
+            if (count == inactive.length) {
+               inactive = Arrays.copyOf(inactive, count * 2);
+            }
+            inactive[count++] = id;
+         }
+      }
+      return Arrays.copyOf(inactive, count);
+   }
+
+   @Benchmark
+   public long[] statisticsInactiveAccounts() {
+      return ledger.statistics().inactiveAccounts();
+   }
+}
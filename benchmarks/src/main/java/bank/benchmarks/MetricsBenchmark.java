@@ -0,0 +1,81 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.InvalidDepositAmountException;
+import bank.Metrics;
+import bank.SavingsAccount;
+import bank.TransactionStatus;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of recording {@link Metrics} on the account hot paths: the same operations
+ * with recording off, on with the default sampling (one operation in 64 timed), and on
+ * with every operation timed. The difference from the {@code off} row is the
+ * instrumentation overhead; the {@code all} row shows what reading the clock costs. Run with {@code -t N} to check that the striped
+ * histograms and counters do not contend.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+   @Param({"off", "sampled", "all"})
+   public String mode;
+
+   private SavingsAccount account;
+
+   @Setup(Level.Iteration)
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      Metrics.setEnabled(!mode.equals("off"));
+      Metrics.setSampleEvery(mode.equals("all") ? 1 : 64);
+      account = new SavingsAccount(5000.0, 1e-9, 0);
+   }
+
+   @TearDown(Level.Iteration)
+   public void tearDown() {
+      Metrics.setEnabled(true);
+      Metrics.setSampleEvery(64);
+   }
+
+   @Benchmark
+   public TransactionStatus depositWithdraw() {
+      account.tryDeposit(1.0);
+      return account.tryWithdraw(1.0);
+   }
+
+   @Benchmark
+   public TransactionStatus rejectedWithdraw() {
+      return account.tryWithdraw(20000.0);
+   }
+
+   @Benchmark
+   public double monthlyProcess() {
+      account.monthlyProcess();
+      return account.getBalance();
+   }
+}
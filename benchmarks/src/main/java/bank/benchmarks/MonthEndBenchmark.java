@@ -0,0 +1,83 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.InvalidDepositAmountException;
+import bank.InvalidWithdrawalAmountException;
+import bank.Ledger;
+import bank.MonthEndBatch;
+import bank.MonthEndReport;
+import bank.SavingsAccount;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The MonthEndBenchmark class times {@link MonthEndBatch} on a ledger of random accounts,
+ * first serially and then on fork-join pools of growing size. Every run starts from an
+ * identical ledger and its report is compared with the serial one.
+ *
+ * Usage:
+ * java -Xmx4g -cp benchmarks/target/benchmarks.jar bank.benchmarks.MonthEndBenchmark [accounts]
+ * The default is 5,000,000 accounts.
+ */
+public class MonthEndBenchmark {
+
+   /**
+    * Runs the benchmark.
+    *
+    * @param args Optional number of accounts.
+    * @throws Exception If an account cannot be created.
+    */
+   public static void main(String[] args) throws Exception {
+      int size = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 5_000_000;
+      int cores = Runtime.getRuntime().availableProcessors();
+   
+      // Warm up the JIT on a smaller ledger before timing anything.
+      new MonthEndBatch().runSerial(fill(Math.min(size, 200_000)));
+      new MonthEndBatch().run(fill(Math.min(size, 200_000)));
+   
+      Ledger serialLedger = fill(size);
+      System.gc();
+      long start = System.nanoTime();
+      MonthEndReport serial = new MonthEndBatch().runSerial(serialLedger);
+      double serialMillis = millisSince(start);
+      serialLedger = null;
+      System.out.printf("%8s %10s %8s %s\n", "threads", "ms", "speedup", "same as serial");
+      System.out.printf("%8s %10.1f %8.2f %s\n", "serial", serialMillis, 1.0, "-");
+   
+      for (int threads = 1; threads <= cores; threads *= 2) {
+         Ledger ledger = fill(size);
+         ForkJoinPool pool = new ForkJoinPool(threads);
+         System.gc();
+         start = System.nanoTime();
+         MonthEndReport report = new MonthEndBatch(pool).run(ledger);
+         double millis = millisSince(start);
+         pool.shutdown();
+         System.out.printf("%8d %10.1f %8.2f %s\n", threads, millis, serialMillis / millis, report.equals(serial));
+      }
+      System.out.println();
+      System.out.println(serial);
+   }
+
+   private static Ledger fill(int size) throws InvalidDepositAmountException, InvalidWithdrawalAmountException {
+      Random random = new Random(42);
+      Ledger ledger = new Ledger(size);
+      for (long id = 1; id <= size; id++) {
+         SavingsAccount account = ledger.open(id, 30 + random.nextInt(5000), 0.01 + random.nextInt(5) / 100.0, random.nextInt(3));
+         int withdrawals = random.nextInt(8);
+         for (int w = 0; w < withdrawals && account.getBalance() > 27; w++) {
+            account.withdraw(1.0);
+         }
+      }
+      return ledger;
+   }
+
+   private static double millisSince(long start) {
+      return (System.nanoTime() - start) / 1e6;
+   }
+}
@@ -0,0 +1,141 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountServer;
+import bank.Application;
+import bank.PartitionRouter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The PartitionBenchmark class measures a {@link PartitionRouter} as partitions are
+ * added. It starts one partition server as a separate process, opens the accounts
+ * through a router, and measures the throughput. Then it adds partitions one at a time,
+ * each a new process, while the load keeps running: it prints the throughput during the
+ * move and after it, how many accounts moved, and finally how many accounts each
+ * partition holds. Errors must stay at zero; an account lost or reached in the middle of
+ * a move would show up as one.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.PartitionBenchmark [partitions] [connections] [seconds] [accounts]
+ * The defaults are 4 partitions, 1,000 connections, 5 seconds and 100,000 accounts.
+ * Throughput only grows with partitions when the machine has cores to give them.
+ */
+public class PartitionBenchmark {
+   private static final Pattern SERVING = Pattern.compile("Serving .* on (\\S+):(\\d+) ");
+
+   /**
+    * Runs the benchmark.
+    *
+    * @param args Optional partition count, connection count, seconds and account count.
+    * @throws Exception If a partition cannot be started or reached.
+    */
+   public static void main(String[] args) throws Exception {
+      int maxPartitions = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+      int connections = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+      double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+      int accounts = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+
+      Path directory = Files.createTempDirectory("partitions");
+      List<Process> processes = new ArrayList<>();
+      try {
+         InetSocketAddress first = startPartition(directory, processes);
+         PartitionRouter router = new PartitionRouter(List.of(first));
+         try (AccountServer server = new AccountServer(router, new InetSocketAddress("127.0.0.1", 0))) {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getPort());
+            ServerLoadGenerator.openAccounts(address, accounts);
+            System.out.printf("%,d accounts, %,d connections, %.0f s per run\n", accounts, connections, seconds);
+            System.out.printf("%-22s %s %10s %10s\n", "", ServerLoadGenerator.HEADER, "moved", "move ms");
+            System.out.printf("%-22s %s\n", "1 partition", measure(address, connections, seconds, accounts));
+            for (int n = 2; n <= maxPartitions; n++) {
+               InetSocketAddress added = startPartition(directory, processes);
+               ServerLoadGenerator generator = new ServerLoadGenerator(address, accounts);
+               generator.start(connections);
+               Thread.sleep(1000);
+               generator.record();
+               long begin = System.nanoTime();
+               int moved = router.addPartition(added);
+               long millis = (System.nanoTime() - begin) / 1_000_000;
+               System.out.printf("%-22s %s %,10d %,10d\n", "adding partition " + n, generator.stop(), moved, millis);
+               System.out.printf("%-22s %s\n", n + " partitions", measure(address, connections, seconds, accounts));
+            }
+            int total = 0;
+            for (InetSocketAddress partition : router.partitions()) {
+               int count = countAccounts(partition);
+               total += count;
+               System.out.printf("%s:%d holds %,d accounts\n", partition.getHostString(), partition.getPort(), count);
+            }
+            System.out.printf("%,d accounts in all\n", total);
+            router.close();
+         }
+      } finally {
+         for (Process process : processes) {
+            process.destroy();
+            process.waitFor();
+         }
+         try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+               Files.delete(file);
+            }
+         }
+         Files.delete(directory);
+      }
+   }
+
+   private static String measure(InetSocketAddress address, int connections, double seconds, int accounts) throws Exception {
+      ServerLoadGenerator generator = new ServerLoadGenerator(address, accounts);
+      generator.start(connections);
+      Thread.sleep(2000);
+      generator.record();
+      Thread.sleep((long) (seconds * 1000));
+      return generator.stop();
+   }
+
+   // Starts a partition server in a new process and waits until it listens.
+   private static InetSocketAddress startPartition(Path directory, List<Process> processes) throws IOException {
+      String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+      Path file = directory.resolve("partition-" + processes.size() + ".dat");
+      Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            Application.class.getName(), "--serve", "0", "127.0.0.1", file.toString())
+            .redirectErrorStream(true)
+            .start();
+      processes.add(process);
+      BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+      String line;
+      while ((line = out.readLine()) != null) {
+         Matcher matcher = SERVING.matcher(line);
+         if (matcher.find()) {
+            return new InetSocketAddress(matcher.group(1), Integer.parseInt(matcher.group(2)));
+         }
+      }
+      throw new IOException("the partition server did not start.");
+   }
+
+   private static int countAccounts(InetSocketAddress partition) throws IOException {
+      try (Socket socket = new Socket(partition.getAddress(), partition.getPort())) {
+         Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+         out.write("IDS\n");
+         out.flush();
+         String reply = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+         return reply.split(" ").length - 1;
+      }
+   }
+}
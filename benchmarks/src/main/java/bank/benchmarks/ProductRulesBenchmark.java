@@ -0,0 +1,105 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.AccountStore;
+import bank.AccountView;
+import bank.InvalidDepositAmountException;
+import bank.Money;
+import bank.ProductCatalog;
+
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One month of an {@link AccountStore} whose accounts are spread at random over 1, 4 or
+ * 16 products, all applied by the same code in {@link AccountView}. Each account gets
+ * three deposits and six withdrawals and then its monthly process; the score is the time
+ * per account. The products differ in every rule, including the number of withdrawal
+ * fee tiers, so the time should barely grow with the number of products.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductRulesBenchmark {
+   private static final int ACCOUNTS = 1 << 16;
+
+   @Param({"1", "4", "16"})
+   int products;
+
+   private ProductCatalog catalog;
+   private AccountStore store;
+   private AccountView view;
+
+   @Setup(Level.Trial)
+   public void setUpCatalog() {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      Properties settings = new Properties();
+      StringBuilder names = new StringBuilder();
+      for (int p = 0; p < products; p++) {
+         String name = "product" + p;
+         names.append(p == 0 ? "" : ",").append(name);
+         settings.setProperty(name + ".maxAmount", Integer.toString(1000 + 1000 * p));
+         settings.setProperty(name + ".minBalance", Integer.toString(5 * p));
+         settings.setProperty(name + ".monthlyFee", Double.toString(0.25 * (p % 4)));
+         settings.setProperty(name + ".freeWithdrawals", Integer.toString(2 + p % 4));
+         settings.setProperty(name + ".withdrawalFee", Double.toString(0.10 * (1 + p % 3)));
+         for (int tier = 1; tier <= p % 3; tier++) {
+            settings.setProperty(name + ".withdrawalFee." + (2 + p % 4 + 2 * tier), Double.toString(0.25 * tier));
+         }
+      }
+      settings.setProperty("products", names.toString());
+      catalog = ProductCatalog.fromProperties(settings);
+   }
+
+   // A new store every iteration, so fees never drain the balances far.
+   @Setup(Level.Iteration)
+   public void setUpStore() throws InvalidDepositAmountException {
+      SplittableRandom random = new SplittableRandom(42);
+      store = new AccountStore(catalog, ACCOUNTS);
+      for (int i = 0; i < ACCOUNTS; i++) {
+         store.add(random.nextInt(products), Money.toCents(900.0), 0.01, 0);
+      }
+      view = new AccountView(store);
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(ACCOUNTS)
+   public long month() {
+      long total = 0;
+      for (int slot = 0; slot < ACCOUNTS; slot++) {
+         view.moveTo(slot);
+         for (int i = 0; i < 3; i++) {
+            view.tryDeposit(2000);
+         }
+         for (int i = 0; i < 6; i++) {
+            view.tryWithdraw(1000);
+         }
+         view.monthlyProcess();
+         total += view.getBalance();
+      }
+      return total;
+   }
+}
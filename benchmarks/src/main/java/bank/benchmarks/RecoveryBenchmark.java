@@ -0,0 +1,115 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.CheckpointedLedger;
+import bank.JournalConfig;
+import bank.SavingsAccount;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The RecoveryBenchmark class measures how long a restart takes. The same state (N
+ * accounts followed by a tail of deposits and withdrawals) is recovered three ways:
+ * reading every account back with Java serialization, as Application.readObj does for
+ * one account; replaying the whole journal; and loading a checkpoint and replaying only
+ * the tail written after it.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.RecoveryBenchmark [accounts] [tail operations] [directory]
+ * The files are created in a new directory under the given one (default: the temp directory) and deleted afterwards.
+ */
+public class RecoveryBenchmark {
+   /**
+    * Runs the three recoveries and prints their times.
+    *
+    * @param args Optional account count, tail operation count and directory.
+    * @throws Exception If the files cannot be written or read.
+    */
+   public static void main(String[] args) throws Exception {
+      int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+      int tail = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+      Path parent = Path.of(args.length > 2 ? args[2] : System.getProperty("java.io.tmpdir"));
+      Path root = Files.createTempDirectory(parent, "recovery-bench");
+      try {
+         System.out.printf("%,d accounts, %,d operations after the last checkpoint\n", accounts, tail);
+         System.out.printf("%-26s %12s %12s\n", "recovery", "ms", "accounts");
+         serialized(root.resolve("accounts.ser"), accounts);
+         journaled(root.resolve("journal-only"), accounts, tail, false);
+         journaled(root.resolve("checkpointed"), accounts, tail, true);
+      } finally {
+         delete(root);
+      }
+   }
+
+   private static void serialized(Path file, int accounts) throws Exception {
+      try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+         out.writeInt(accounts);
+         for (int i = 0; i < accounts; i++) {
+            out.writeObject(new SavingsAccount(100 + i % 1000, 0.05, 1.0));
+         }
+      }
+      System.gc();
+      long begin = System.nanoTime();
+      int read;
+      try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+         read = in.readInt();
+         SavingsAccount[] loaded = new SavingsAccount[read];
+         for (int i = 0; i < read; i++) {
+            loaded[i] = (SavingsAccount) in.readObject();
+         }
+      }
+      report("readObj (serialization)", begin, read);
+   }
+
+   private static void journaled(Path directory, int accounts, int tail, boolean checkpoint) throws Exception {
+      JournalConfig config = JournalConfig.async(10_000);
+      try (CheckpointedLedger ledger = CheckpointedLedger.open(directory, config, 8)) {
+         for (int i = 0; i < accounts; i++) {
+            ledger.open(i, 100 + i % 1000, 0.05, 1.0);
+         }
+         if (checkpoint) {
+            ledger.checkpoint();
+         }
+         Random random = new Random(42);
+         for (int i = 0; i < tail; i++) {
+            long id = random.nextInt(accounts);
+            if ((i & 1) == 0) {
+               ledger.deposit(id, 10);
+            } else {
+               ledger.withdraw(id, 5);
+            }
+         }
+      }
+      System.gc();
+      long begin = System.nanoTime();
+      try (CheckpointedLedger ledger = CheckpointedLedger.open(directory, config, 8)) {
+         report(checkpoint ? "checkpoint + tail replay" : "full journal replay", begin, ledger.size());
+      }
+   }
+
+   private static void report(String name, long begin, int accounts) {
+      System.out.printf("%-26s %12.1f %,12d\n", name, (System.nanoTime() - begin) / 1e6, accounts);
+   }
+
+   private static void delete(Path root) throws IOException {
+      try (Stream<Path> files = Files.walk(root)) {
+         for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+            Files.delete(file);
+         }
+      }
+   }
+}
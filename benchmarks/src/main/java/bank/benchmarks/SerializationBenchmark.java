@@ -0,0 +1,78 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountSerialization;
+import bank.InvalidDepositAmountException;
+import bank.SavingsAccount;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The writeObj/readObj round trip of {@code Application}: serialize one account and read
+ * it back, once in memory and once through a real file as the application does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+   private SavingsAccount account;
+   private Path file;
+
+   @Setup
+   public void setUp() throws InvalidDepositAmountException, IOException {
+      account = new SavingsAccount(498.57, 0.05, 2.0);
+      file = Files.createTempFile("savingsAccount", ".dat");
+   }
+
+   @TearDown
+   public void tearDown() throws IOException {
+      Files.deleteIfExists(file);
+   }
+
+   @Benchmark
+   public SavingsAccount roundTripInMemory() throws IOException, ClassNotFoundException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      AccountSerialization.write(account, bytes);
+      return AccountSerialization.read(new ByteArrayInputStream(bytes.toByteArray()));
+   }
+
+   @Benchmark
+   public SavingsAccount roundTripFile() throws IOException, ClassNotFoundException {
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file.toFile()))) {
+         AccountSerialization.write(account, out);
+      }
+      try (InputStream in = new BufferedInputStream(new FileInputStream(file.toFile()))) {
+         return AccountSerialization.read(in);
+      }
+   }
+}
@@ -0,0 +1,300 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.AccountServer;
+import bank.ConcurrentLedger;
+import bank.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ServerLoadGenerator class measures an {@link AccountServer}. It opens the accounts,
+ * connects many clients, and has each client send one request at a time and the next as
+ * soon as the reply arrives. After a warm-up it prints the throughput and the p50, p99
+ * and p99.9 latency of the replies.
+ *
+ * The clients are non-blocking channels shared by a few selector threads, so the
+ * generator itself needs no thread per connection. The requests are 40% deposits, 40%
+ * withdrawals, 19% balance reads and 1% month-end processing, on accounts chosen at
+ * random.
+ *
+ * Usage:
+ * java -jar core/target/savings-core.jar --serve 7070
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.ServerLoadGenerator [port] [connections] [seconds] [accounts] [host]
+ * The defaults are port 7070, 10,000 connections, 10 seconds and 10,000 accounts. Port 0
+ * starts a server in this process instead; at 10,000 connections that needs twice as
+ * many file descriptors.
+ */
+public class ServerLoadGenerator {
+   private static final double WARMUP_SECONDS = 3.0;
+   static final String HEADER = String.format("%14s %10s %10s %10s %10s %8s", "requests/s", "p50 us", "p99 us", "p99.9 us", "max us", "errors");
+
+   private final InetSocketAddress address;
+   private final int accounts;
+   private final LatencyHistogram latency = new LatencyHistogram();
+   private final LongAdder replies = new LongAdder();
+   private final LongAdder errors = new LongAdder();
+   private final List<Worker> workers = new ArrayList<>();
+   private final List<Thread> runners = new ArrayList<>();
+   private volatile boolean recording;
+   private volatile boolean running = true;
+   private long recordingSince;
+
+   /**
+    * Constructs a generator for a server whose accounts are numbered 0 to accounts - 1.
+    *
+    * @param address  The address of the server.
+    * @param accounts The number of accounts to use.
+    */
+   ServerLoadGenerator(InetSocketAddress address, int accounts) {
+      this.address = address;
+      this.accounts = accounts;
+   }
+
+   /**
+    * Runs the load and prints the results.
+    *
+    * @param args Optional port, connection count, seconds, account count and host.
+    * @throws Exception If the server cannot be reached.
+    */
+   public static void main(String[] args) throws Exception {
+      int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+      int connections = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+      double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+      int accounts = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+      String host = args.length > 4 ? args[4] : "127.0.0.1";
+
+      AccountServer server = null;
+      if (port == 0) {
+         AccountEvents.setSink(AccountEvents.DISCARD);
+         server = new AccountServer(new ConcurrentLedger(accounts), new InetSocketAddress(host, 0));
+         port = server.getPort();
+         System.out.printf("started a server on port %d with %s threads\n", port, server.usesVirtualThreads() ? "virtual" : "platform");
+      }
+      InetSocketAddress address = new InetSocketAddress(host, port);
+      openAccounts(address, accounts);
+
+      ServerLoadGenerator generator = new ServerLoadGenerator(address, accounts);
+      generator.start(connections);
+      System.out.printf("%,d connections, %,d accounts, %d client threads\n", connections, accounts, generator.workers.size());
+      Thread.sleep((long) (WARMUP_SECONDS * 1000));
+      generator.record();
+      Thread.sleep((long) (seconds * 1000));
+      System.out.println(HEADER);
+      System.out.println(generator.stop());
+      if (server != null) {
+         server.close();
+      }
+   }
+
+   /**
+    * Connects the clients and starts sending requests, without recording them yet.
+    *
+    * @param connections The number of connections.
+    * @throws IOException If the server cannot be reached.
+    */
+   void start(int connections) throws IOException {
+      int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+      for (int t = 0; t < threads; t++) {
+         workers.add(new Worker(t));
+      }
+      for (int i = 0; i < connections; i++) {
+         SocketChannel channel = SocketChannel.open(address);
+         channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+         channel.configureBlocking(false);
+         workers.get(i % threads).channels.add(channel);
+      }
+      for (Worker worker : workers) {
+         Thread runner = new Thread(worker::run, "load-" + runners.size());
+         runners.add(runner);
+         runner.start();
+      }
+   }
+
+   /**
+    * Starts recording replies, forgetting any recorded before.
+    */
+   void record() {
+      recording = false;
+      latency.reset();
+      replies.reset();
+      errors.reset();
+      recordingSince = System.nanoTime();
+      recording = true;
+   }
+
+   /**
+    * Stops the clients and returns the throughput and latency recorded.
+    *
+    * @return The results, formatted as a row under {@link #HEADER}.
+    * @throws IOException          If a connection cannot be closed.
+    * @throws InterruptedException If interrupted while waiting for the clients.
+    */
+   String stop() throws IOException, InterruptedException {
+      recording = false;
+      double elapsed = (System.nanoTime() - recordingSince) / 1e9;
+      running = false;
+      for (Thread runner : runners) {
+         runner.join();
+      }
+      for (Worker worker : workers) {
+         worker.close();
+      }
+      return String.format("%,14.0f %10.1f %10.1f %10.1f %10.1f %,8d", replies.sum() / elapsed,
+            latency.valueAtPercentile(50) / 1e3, latency.valueAtPercentile(99) / 1e3,
+            latency.valueAtPercentile(99.9) / 1e3, latency.max() / 1e3, errors.sum());
+   }
+
+   // Opens the accounts over one connection, a batch of requests at a time.
+   static void openAccounts(InetSocketAddress address, int accounts) throws IOException {
+      try (SocketChannel channel = SocketChannel.open(address)) {
+         ByteBuffer in = ByteBuffer.allocate(1 << 16);
+         for (int first = 0; first < accounts; first += 1000) {
+            int last = Math.min(accounts, first + 1000);
+            StringBuilder requests = new StringBuilder();
+            for (int id = first; id < last; id++) {
+               requests.append("OPEN ").append(id).append(" 5000 0 0\n");
+            }
+            ByteBuffer out = ByteBuffer.wrap(requests.toString().getBytes(StandardCharsets.US_ASCII));
+            while (out.hasRemaining()) {
+               channel.write(out);
+            }
+            int replies = 0;
+            while (replies < last - first) {
+               if (channel.read(in) < 0) {
+                  throw new IOException("the server closed the connection.");
+               }
+               in.flip();
+               while (in.hasRemaining()) {
+                  if (in.get() == '\n') {
+                     replies++;
+                  }
+               }
+               in.clear();
+            }
+         }
+         channel.write(ByteBuffer.wrap("QUIT\n".getBytes(StandardCharsets.US_ASCII)));
+      }
+   }
+
+   /**
+    * A selector thread and the connections it drives.
+    */
+   private final class Worker {
+      final List<SocketChannel> channels = new ArrayList<>();
+      final SplittableRandom random;
+      Selector selector;
+
+      Worker(int seed) {
+         this.random = new SplittableRandom(seed);
+      }
+
+      void run() {
+         try {
+            selector = Selector.open();
+            for (SocketChannel channel : channels) {
+               Client client = new Client(channel);
+               channel.register(selector, SelectionKey.OP_READ, client);
+               client.send(nextRequest());
+            }
+            while (running) {
+               selector.select(100);
+               for (SelectionKey key : selector.selectedKeys()) {
+                  Client client = (Client) key.attachment();
+                  int read = client.channel.read(client.in);
+                  if (read < 0) {
+                     throw new IOException("the server closed a connection.");
+                  }
+                  if (!client.replyComplete()) {
+                     continue;
+                  }
+                  long now = System.nanoTime();
+                  if (recording) {
+                     latency.record(now - client.sentAt);
+                     replies.increment();
+                     if (client.in.get(0) == 'E') {
+                        errors.increment();
+                     }
+                  }
+                  client.in.clear();
+                  if (running) {
+                     client.send(nextRequest());
+                  }
+               }
+               selector.selectedKeys().clear();
+            }
+         } catch (IOException e) {
+            throw new RuntimeException(e);
+         }
+      }
+
+      byte[] nextRequest() {
+         int id = random.nextInt(accounts);
+         double kind = random.nextDouble();
+         String request;
+         if (kind < 0.4) {
+            request = "DEPOSIT " + id + " 1\n";
+         } else if (kind < 0.8) {
+            request = "WITHDRAW " + id + " 1\n";
+         } else if (kind < 0.99) {
+            request = "BALANCE " + id + "\n";
+         } else {
+            request = "MONTHEND " + id + "\n";
+         }
+         return request.getBytes(StandardCharsets.US_ASCII);
+      }
+
+      void close() throws IOException {
+         for (SocketChannel channel : channels) {
+            channel.close();
+         }
+         if (selector != null) {
+            selector.close();
+         }
+      }
+   }
+
+   /**
+    * One connection and its request in flight.
+    */
+   private static final class Client {
+      final SocketChannel channel;
+      final ByteBuffer in = ByteBuffer.allocate(256);
+      long sentAt;
+
+      Client(SocketChannel channel) {
+         this.channel = channel;
+      }
+
+      void send(byte[] request) throws IOException {
+         ByteBuffer out = ByteBuffer.wrap(request);
+         sentAt = System.nanoTime();
+         // A request is far smaller than the socket buffer, so this does not spin in practice.
+         while (out.hasRemaining()) {
+            channel.write(out);
+         }
+      }
+
+      // A reply is one line, and only one request is ever in flight.
+      boolean replyComplete() {
+         return in.position() > 0 && in.get(in.position() - 1) == '\n';
+      }
+   }
+}
@@ -0,0 +1,144 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.AccountNotFoundException;
+import bank.AccountSnapshot;
+import bank.ConcurrentLedger;
+import bank.ConcurrentSavingsAccount;
+import bank.InvalidDepositAmountException;
+import bank.Metrics;
+import bank.SavingsAccount;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Consistent reads of a few hot accounts while one thread keeps changing them. Each
+ * group pairs readers with a writer that alternates deposits and withdrawals:
+ * <ul>
+ * <li>{@code atomic}: {@link ConcurrentSavingsAccount#snapshot()}, one volatile read of
+ * an immutable state.</li>
+ * <li>{@code optimistic}: {@link ConcurrentLedger#snapshot(long)}, a stamped read that
+ * is repeated under the read lock only if it overlapped a write.</li>
+ * <li>{@code locked}: a {@link SavingsAccount} read and written under its monitor.</li>
+ * </ul>
+ * The default is three readers per writer; vary it with {@code -tg N,1}. Readers of the
+ * first two groups should scale with N; readers of the third queue behind each other.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SnapshotReadBenchmark {
+   private static final int ACCOUNTS = 16;
+
+   private ConcurrentSavingsAccount[] atomic;
+   private ConcurrentLedger ledger;
+   private SavingsAccount[] locked;
+
+   @Setup(Level.Trial)
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      Metrics.setEnabled(false);
+      atomic = new ConcurrentSavingsAccount[ACCOUNTS];
+      ledger = new ConcurrentLedger(ACCOUNTS);
+      locked = new SavingsAccount[ACCOUNTS];
+      for (int i = 0; i < ACCOUNTS; i++) {
+         atomic[i] = new ConcurrentSavingsAccount(5000.0, 0.05);
+         ledger.open(i, 5000.0, 0.05, 0);
+         locked[i] = new SavingsAccount(5000.0, 0.05);
+      }
+   }
+
+   /**
+    * The next account and direction of one thread.
+    */
+   @State(Scope.Thread)
+   public static class Cursor {
+      int next;
+
+      int account() {
+         return next++ & (ACCOUNTS - 1);
+      }
+
+      // Alternates deposits and withdrawals so balances stay level.
+      double amount() {
+         return (next & ACCOUNTS) == 0 ? 1.0 : -1.0;
+      }
+   }
+
+   @Benchmark
+   @Group("atomic")
+   @GroupThreads(3)
+   public AccountSnapshot atomicRead(Cursor cursor) {
+      return atomic[cursor.account()].snapshot();
+   }
+
+   @Benchmark
+   @Group("atomic")
+   @GroupThreads(1)
+   public Object atomicWrite(Cursor cursor) {
+      double amount = cursor.amount();
+      ConcurrentSavingsAccount account = atomic[cursor.account()];
+      return amount > 0 ? account.tryDeposit(amount) : account.tryWithdraw(-amount);
+   }
+
+   @Benchmark
+   @Group("optimistic")
+   @GroupThreads(3)
+   public AccountSnapshot optimisticRead(Cursor cursor) throws AccountNotFoundException {
+      return ledger.snapshot(cursor.account());
+   }
+
+   @Benchmark
+   @Group("optimistic")
+   @GroupThreads(1)
+   public Object optimisticWrite(Cursor cursor) throws AccountNotFoundException {
+      double amount = cursor.amount();
+      int id = cursor.account();
+      return amount > 0 ? ledger.deposit(id, amount) : ledger.withdraw(id, -amount);
+   }
+
+   @Benchmark
+   @Group("locked")
+   @GroupThreads(3)
+   public void lockedRead(Cursor cursor, Blackhole blackhole) {
+      SavingsAccount account = locked[cursor.account()];
+      synchronized (account) {
+         blackhole.consume(account.getBalance());
+         blackhole.consume(account.isStatus());
+      }
+   }
+
+   @Benchmark
+   @Group("locked")
+   @GroupThreads(1)
+   public Object lockedWrite(Cursor cursor) {
+      double amount = cursor.amount();
+      SavingsAccount account = locked[cursor.account()];
+      synchronized (account) {
+         return amount > 0 ? account.tryDeposit(amount) : account.tryWithdraw(-amount);
+      }
+   }
+}
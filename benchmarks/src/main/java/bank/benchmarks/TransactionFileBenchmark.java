@@ -0,0 +1,73 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.Ledger;
+import bank.TransactionFileProcessor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * The TransactionFileBenchmark class writes a random transaction file and times how fast
+ * {@link TransactionFileProcessor} streams it through a ledger on one core. About 5% of
+ * the generated transactions are invalid on purpose, so the reject path is exercised too.
+ *
+ * Usage:
+ * java -cp benchmarks/target/benchmarks.jar bank.benchmarks.TransactionFileBenchmark [transactions] [accounts]
+ * The defaults are 10,000,000 transactions over 100,000 accounts.
+ */
+public class TransactionFileBenchmark {
+
+   /**
+    * Generates the file, processes it three times and prints the throughput of each run.
+    *
+    * @param args Optional number of transactions and accounts.
+    * @throws IOException If the file cannot be written or read.
+    */
+   public static void main(String[] args) throws IOException {
+      long transactions = args.length > 0 ? Long.parseLong(args[0].replace("_", "")) : 10_000_000L;
+      int accounts = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 100_000;
+   
+      Path file = Files.createTempFile("transactions", ".csv");
+      try {
+         generate(file, transactions, accounts);
+         System.out.printf("%,d transactions, %,d accounts, %,d bytes\n", transactions, accounts, Files.size(file));
+         for (int run = 1; run <= 3; run++) {
+            Ledger ledger = new Ledger(accounts);
+            TransactionFileProcessor processor = new TransactionFileProcessor(ledger, OutputStream.nullOutputStream());
+            long start = System.nanoTime();
+            processor.process(file);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("run %d: %.3f s, %,.0f tx/s, applied %,d, rejected %,d\n", run, seconds,
+                  (processor.getApplied() + processor.getRejected()) / seconds, processor.getApplied(), processor.getRejected());
+         }
+      } finally {
+         Files.deleteIfExists(file);
+      }
+   }
+
+   private static void generate(Path file, long transactions, int accounts) throws IOException {
+      Random random = new Random(7);
+      try (BufferedWriter out = Files.newBufferedWriter(file)) {
+         out.write("account,op,amount,rate,charges\n");
+         for (int id = 1; id <= accounts; id++) {
+            out.write(id + ",O,5000.00,0.05,2.50\n");
+         }
+         for (long i = accounts; i < transactions; i++) {
+            long id = 1 + random.nextInt(accounts);
+            int cents = random.nextInt(20) == 0 ? 2_000_000 : 1 + random.nextInt(10_000);
+            char op = random.nextBoolean() ? 'D' : 'W';
+            out.write(id + "," + op + "," + (cents / 100) + "." + (cents % 100 < 10 ? "0" : "") + (cents % 100) + "\n");
+         }
+      }
+   }
+}
@@ -0,0 +1,106 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.AccountNotFoundException;
+import bank.ConcurrentLedger;
+import bank.InvalidDepositAmountException;
+import bank.Ledger;
+import bank.TransactionStatus;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Transfers between random accounts under a skewed workload: each side of a transfer is
+ * one of a few hot accounts with probability {@code hotFraction}, otherwise any account.
+ * {@link ConcurrentLedger} (ordered per-account locks) is compared with a {@link Ledger}
+ * behind one global lock. Transfers alternate direction so balances stay level.
+ * The default is 8 threads; override it with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+   private static final int ACCOUNTS = 100_000;
+   private static final int HOT_ACCOUNTS = 16;
+
+   @Param({"0.0", "0.5", "0.9"})
+   public double hotFraction;
+
+   private ConcurrentLedger concurrent;
+   private Ledger global;
+
+   @Setup(Level.Trial)
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      concurrent = new ConcurrentLedger(ACCOUNTS);
+      global = new Ledger(ACCOUNTS);
+      for (int i = 0; i < ACCOUNTS; i++) {
+         concurrent.open(i, 5000.0, 0.05, 0);
+         global.open(i, 5000.0, 0.05, 0);
+      }
+   }
+
+   /**
+    * Picks the accounts of each transfer for one thread.
+    */
+   @State(Scope.Thread)
+   public static class Picker {
+      private final SplittableRandom random = new SplittableRandom();
+      long from;
+      long to;
+
+      void next(double hotFraction) {
+         from = pick(hotFraction);
+         do {
+            to = pick(hotFraction);
+         } while (to == from);
+         if (random.nextBoolean()) {
+            long swap = from;
+            from = to;
+            to = swap;
+         }
+      }
+
+      private long pick(double hotFraction) {
+         return random.nextDouble() < hotFraction ? random.nextInt(HOT_ACCOUNTS) : random.nextInt(ACCOUNTS);
+      }
+   }
+
+   @Benchmark
+   public TransactionStatus orderedLocks(Picker picker) throws AccountNotFoundException {
+      picker.next(hotFraction);
+      return concurrent.transfer(picker.from, picker.to, 1.0);
+   }
+
+   @Benchmark
+   public TransactionStatus globalLock(Picker picker) throws AccountNotFoundException {
+      picker.next(hotFraction);
+      synchronized (global) {
+         return global.transfer(picker.from, picker.to, 1.0);
+      }
+   }
+}
@@ -0,0 +1,93 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank.benchmarks;
+
+import bank.AccountEvents;
+import bank.InvalidDepositAmountException;
+import bank.InvalidWithdrawalAmountException;
+import bank.SavingsAccount;
+import bank.TransactionStatus;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throwing {@code deposit}/{@code withdraw} methods with the non-throwing
+ * {@code tryDeposit}/{@code tryWithdraw} methods at several rejection rates. Each
+ * invocation replays the same pre-generated batch of alternating deposits and
+ * withdrawals; an amount of -1 is always rejected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+   private static final int BATCH = 1024;
+
+   @Param({"0.0", "0.01", "0.05", "0.2", "0.5"})
+   public double rejectionRate;
+
+   private double[] amounts;
+   private SavingsAccount account;
+
+   @Setup
+   public void setUp() throws InvalidDepositAmountException {
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      Random random = new Random(1);
+      amounts = new double[BATCH];
+      for (int i = 0; i < BATCH; i++) {
+         amounts[i] = random.nextDouble() < rejectionRate ? -1 : 1 + random.nextInt(100);
+      }
+      account = new SavingsAccount(5000, 1e-9);
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(BATCH)
+   public long exceptions() {
+      long rejected = 0;
+      for (int i = 0; i < BATCH; i++) {
+         try {
+            if ((i & 1) == 0) {
+               account.deposit(amounts[i]);
+            } else {
+               // Withdrawals take half the amount so the balance never drains.
+               account.withdraw(amounts[i] / 2);
+            }
+         } catch (InvalidDepositAmountException | InvalidWithdrawalAmountException e) {
+            rejected++;
+         }
+      }
+      return rejected;
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(BATCH)
+   public long statusCodes() {
+      long rejected = 0;
+      for (int i = 0; i < BATCH; i++) {
+         TransactionStatus result = (i & 1) == 0 ? account.tryDeposit(amounts[i]) : account.tryWithdraw(amounts[i] / 2);
+         if (result != TransactionStatus.OK) {
+            rejected++;
+         }
+      }
+      return rejected;
+   }
+}
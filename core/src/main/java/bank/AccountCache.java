@@ -0,0 +1,430 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The AccountCache class serves savings accounts from an {@link AccountFile} while
+ * keeping only a bounded working set of them in memory. Opening it reads nothing but the
+ * file header, however many accounts the file holds; an account becomes a
+ * `SavingsAccount` object the first time it is used, and the least recently used
+ * accounts are dropped when the cache is full. A changed account is written back to
+ * its record when it is dropped, by {@link #flush()}, and on {@link #close()}.
+ *
+ * An account is found in the file by binary search on its ID, so the records must be in
+ * ascending ID order, as {@link AccountFileMigration} writes them and {@link #open(long,
+ * double, double, double)} keeps them. The file stores amounts in cents, so a balance is
+ * rounded to the cent when it is written back. A record is checked against its checksum
+ * when it is read, and an account whose record is damaged is refused as if it did not
+ * exist, rather than served with wrong figures.
+ *
+ * The accounts are spread over stripes by a hash of their ID. Each stripe has its own
+ * lock, map and least-recently-used list, and an operation runs under the lock of its
+ * account's stripe, so operations on accounts of different stripes run in parallel.
+ * Eviction is least-recently-used within each stripe, which is close to global LRU when
+ * there are many more accounts than stripes.
+ */
+public class AccountCache implements AccountCacheMXBean, Closeable {
+   private static final int STRIPE_BITS = 6;
+   private static final int STRIPES = 1 << STRIPE_BITS;
+
+   private final AccountFile file;
+   private final String name;
+   private final int capacity;
+   private final Stripe[] stripes = new Stripe[STRIPES];
+   // Reads of the file share it; adding and writing back records take it alone.
+   private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+
+   private AccountCache(AccountFile file, String name, int capacity) {
+      this.file = file;
+      this.name = name;
+      this.capacity = capacity;
+      for (int i = 0; i < STRIPES; i++) {
+         // Spread the remainder too, so the stripes add up to the capacity.
+         stripes[i] = new Stripe(Math.max(1, capacity / STRIPES + (i < capacity % STRIPES ? 1 : 0)));
+      }
+   }
+
+   /**
+    * Opens an account file behind a cache.
+    *
+    * @param path     The account file.
+    * @param capacity The largest number of accounts to keep in memory.
+    * @return The cache.
+    * @throws IOException If the file cannot be opened.
+    */
+   public static AccountCache open(Path path, int capacity) throws IOException {
+      if (capacity < 1) {
+         throw new IllegalArgumentException("capacity should be > 0.");
+      }
+      return new AccountCache(AccountFile.open(path), path.getFileName().toString(), capacity);
+   }
+
+   /**
+    * Adds a new account to the file. Its ID must be larger than every ID in the file.
+    *
+    * @param accountId             The ID of the new account.
+    * @param balance               The initial balance of the account.
+    * @param annualInterestRate    The annual interest rate for the account.
+    * @param monthlyServiceCharges The monthly service charges for the account.
+    * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+    * @throws IOException If the file cannot grow.
+    */
+   public void open(long accountId, double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException, IOException {
+      SavingsAccount account = new SavingsAccount(balance, annualInterestRate, monthlyServiceCharges);
+      fileLock.writeLock().lock();
+      try {
+         int size = file.size();
+         if (size > 0 && file.accountId(size - 1) >= accountId) {
+            throw new IllegalArgumentException("account " + accountId + " is not above the last account in the file.");
+         }
+         file.add(accountId, Money.toCents(balance), 0, 0, annualInterestRate, Money.toCents(monthlyServiceCharges), account.isStatus());
+      } finally {
+         fileLock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Deposits the specified amount into an account.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be deposited.
+    * @return {@code OK}, or the reason the deposit was refused.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public TransactionStatus deposit(long accountId, double amount) throws AccountNotFoundException {
+      Stripe stripe = stripe(accountId);
+      synchronized (stripe) {
+         Node node = node(stripe, accountId);
+         TransactionStatus result = node.account.tryDeposit(amount);
+         node.dirty |= result == TransactionStatus.OK;
+         return result;
+      }
+   }
+
+   /**
+    * Withdraws the specified amount from an account.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be withdrawn.
+    * @return {@code OK}, or the reason the withdrawal was refused.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public TransactionStatus withdraw(long accountId, double amount) throws AccountNotFoundException {
+      Stripe stripe = stripe(accountId);
+      synchronized (stripe) {
+         Node node = node(stripe, accountId);
+         TransactionStatus result = node.account.tryWithdraw(amount);
+         node.dirty |= result == TransactionStatus.OK;
+         return result;
+      }
+   }
+
+   /**
+    * Runs the monthly process on one account.
+    *
+    * @param accountId The ID of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public void monthlyProcess(long accountId) throws AccountNotFoundException {
+      Stripe stripe = stripe(accountId);
+      synchronized (stripe) {
+         Node node = node(stripe, accountId);
+         node.account.monthlyProcess();
+         node.dirty = true;
+      }
+   }
+
+   /**
+    * Retrieves the balance of an account.
+    *
+    * @param accountId The ID of the account.
+    * @return The current balance of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public double getBalance(long accountId) throws AccountNotFoundException {
+      Stripe stripe = stripe(accountId);
+      synchronized (stripe) {
+         return node(stripe, accountId).account.getBalance();
+      }
+   }
+
+   /**
+    * Returns a consistent copy of an account.
+    *
+    * @param accountId The ID of the account.
+    * @return The copy.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public AccountSnapshot snapshot(long accountId) throws AccountNotFoundException {
+      Stripe stripe = stripe(accountId);
+      synchronized (stripe) {
+         return AccountSnapshot.of(node(stripe, accountId).account);
+      }
+   }
+
+   /**
+    * Writes every changed account back to the file and forces the file to disk. The
+    * accounts stay in memory.
+    */
+   public void flush() {
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            for (Node node = stripe.head.next; node != stripe.head; node = node.next) {
+               writeBack(stripe, node);
+            }
+         }
+      }
+      fileLock.writeLock().lock();
+      try {
+         file.force();
+      } finally {
+         fileLock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Writes every changed account back and closes the file.
+    *
+    * @throws IOException If the file cannot be closed.
+    */
+   @Override
+   public void close() throws IOException {
+      flush();
+      file.close();
+   }
+
+   /**
+    * Publishes the counters through JMX as {@code bank:type=AccountCache,name=<file name>}.
+    *
+    * @throws JMException If the bean cannot be registered.
+    */
+   public void registerMBean() throws JMException {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("bank:type=AccountCache,name=" + ObjectName.quote(name)));
+   }
+
+   @Override
+   public int getCapacity() {
+      return capacity;
+   }
+
+   @Override
+   public int getCachedCount() {
+      int count = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            count += stripe.map.size();
+         }
+      }
+      return count;
+   }
+
+   @Override
+   public int getAccountCount() {
+      fileLock.readLock().lock();
+      try {
+         return file.size();
+      } finally {
+         fileLock.readLock().unlock();
+      }
+   }
+
+   @Override
+   public long getHits() {
+      long hits = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            hits += stripe.hits;
+         }
+      }
+      return hits;
+   }
+
+   @Override
+   public long getMisses() {
+      long misses = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            misses += stripe.misses;
+         }
+      }
+      return misses;
+   }
+
+   @Override
+   public double getHitRate() {
+      long hits = getHits();
+      long lookups = hits + getMisses();
+      return lookups == 0 ? 0 : hits / (double) lookups;
+   }
+
+   @Override
+   public long getEvictions() {
+      long evictions = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            evictions += stripe.evictions;
+         }
+      }
+      return evictions;
+   }
+
+   @Override
+   public long getWriteBacks() {
+      long writeBacks = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            writeBacks += stripe.writeBacks;
+         }
+      }
+      return writeBacks;
+   }
+
+   // Returns the cached account, reading it from the file on a miss. Called with the stripe's lock held.
+   private Node node(Stripe stripe, long accountId) throws AccountNotFoundException {
+      Node node = stripe.map.get(accountId);
+      if (node != null) {
+         stripe.hits++;
+         stripe.moveToFront(node);
+         return node;
+      }
+      stripe.misses++;
+      node = load(accountId);
+      stripe.map.put(accountId, node);
+      stripe.addToFront(node);
+      if (stripe.map.size() > stripe.capacity) {
+         Node eldest = stripe.head.prev;
+         writeBack(stripe, eldest);
+         stripe.unlink(eldest);
+         stripe.map.remove(eldest.accountId);
+         stripe.evictions++;
+      }
+      return node;
+   }
+
+   private Node load(long accountId) throws AccountNotFoundException {
+      fileLock.readLock().lock();
+      try {
+         int slot = find(accountId);
+         if (slot < 0) {
+            throw new AccountNotFoundException("account " + accountId + " does not exist.");
+         }
+         if (!file.verify(slot)) {
+            throw new AccountNotFoundException("account " + accountId + " is damaged: checksum mismatch.");
+         }
+         SavingsAccount account = new SavingsAccount(Money.toDollars(file.balance(slot)), file.numOfDeposits(slot),
+               file.numOfWithdrawals(slot), file.annualInterestRate(slot), Money.toDollars(file.monthlyServiceCharges(slot)), file.status(slot));
+         return new Node(accountId, slot, account);
+      } finally {
+         fileLock.readLock().unlock();
+      }
+   }
+
+   // Binary search of the records, which are in ascending ID order. Returns the slot or -1.
+   private int find(long accountId) {
+      int low = 0;
+      int high = file.size() - 1;
+      while (low <= high) {
+         int middle = (low + high) >>> 1;
+         long id = file.accountId(middle);
+         if (id < accountId) {
+            low = middle + 1;
+         } else if (id > accountId) {
+            high = middle - 1;
+         } else {
+            return middle;
+         }
+      }
+      return -1;
+   }
+
+   // Called with the stripe's lock held.
+   private void writeBack(Stripe stripe, Node node) {
+      if (!node.dirty) {
+         return;
+      }
+      SavingsAccount account = node.account;
+      fileLock.writeLock().lock();
+      try {
+         file.update(node.slot, Money.toCents(account.getBalance()), account.getNumOfDeposits(), account.getNumOfWithdrawals(),
+               Money.toCents(account.getMonthlyServiceCharges()), account.isStatus());
+      } finally {
+         fileLock.writeLock().unlock();
+      }
+      node.dirty = false;
+      stripe.writeBacks++;
+   }
+
+   private Stripe stripe(long accountId) {
+      // The top bits, so the stripe does not fix the low bits the map uses for its slot.
+      return stripes[LongObjectHashMap.hash(accountId) >>> (32 - STRIPE_BITS)];
+   }
+
+   /**
+    * A cached account and its place in the least-recently-used list.
+    */
+   private static final class Node {
+      final long accountId;
+      final int slot;
+      final SavingsAccount account;
+      boolean dirty;
+      Node prev;
+      Node next;
+
+      Node(long accountId, int slot, SavingsAccount account) {
+         this.accountId = accountId;
+         this.slot = slot;
+         this.account = account;
+      }
+   }
+
+   /**
+    * The accounts of one stripe: a map by ID and a circular list from most to least
+    * recently used, around a sentinel. Guarded by its own lock.
+    */
+   private static final class Stripe {
+      final LongObjectHashMap<Node> map = new LongObjectHashMap<>();
+      final Node head = new Node(0, -1, null);
+      final int capacity;
+      long hits;
+      long misses;
+      long evictions;
+      long writeBacks;
+
+      Stripe(int capacity) {
+         this.capacity = capacity;
+         head.prev = head;
+         head.next = head;
+      }
+
+      void addToFront(Node node) {
+         node.prev = head;
+         node.next = head.next;
+         head.next.prev = node;
+         head.next = node;
+      }
+
+      void moveToFront(Node node) {
+         if (head.next != node) {
+            unlink(node);
+            addToFront(node);
+         }
+      }
+
+      void unlink(Node node) {
+         node.prev.next = node.next;
+         node.next.prev = node.prev;
+      }
+   }
+}
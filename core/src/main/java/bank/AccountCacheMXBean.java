@@ -0,0 +1,37 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The JMX view of an {@link AccountCache}, registered as
+ * {@code bank:type=AccountCache,name=<file name>}.
+ */
+public interface AccountCacheMXBean {
+   /** The largest number of accounts held in memory. */
+   int getCapacity();
+
+   /** The number of accounts held in memory now. */
+   int getCachedCount();
+
+   /** The number of accounts in the file. */
+   int getAccountCount();
+
+   /** The number of lookups answered from memory. */
+   long getHits();
+
+   /** The number of lookups that read the account from the file. */
+   long getMisses();
+
+   /** The share of lookups answered from memory, between 0 and 1. */
+   double getHitRate();
+
+   /** The number of accounts dropped from memory to make room. */
+   long getEvictions();
+
+   /** The number of changed accounts written back to the file. */
+   long getWriteBacks();
+}
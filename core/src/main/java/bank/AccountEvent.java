@@ -0,0 +1,100 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The AccountEvent class describes one thing that happened to an account. Event objects
+ * are preallocated by an {@link AsyncEventSink} and reused for every event that passes
+ * through the same slot, so a listener must copy any field it wants to keep after
+ * {@link AccountEventListener#onEvent(AccountEvent)} returns.
+ */
+public class AccountEvent {
+   private AccountEventType type;
+   private Object source;
+   private double amount;
+   private double balance;
+   private long sequence;
+
+   /**
+    * Overwrites every field of the event.
+    *
+    * @param type     The kind of event.
+    * @param source   The account the event is about.
+    * @param amount   The amount involved (fee, interest or refused withdrawal), or 0.
+    * @param balance  The balance after the event.
+    * @param sequence The position of the event in its sink.
+    */
+   void set(AccountEventType type, Object source, double amount, double balance, long sequence) {
+      this.type = type;
+      this.source = source;
+      this.amount = amount;
+      this.balance = balance;
+      this.sequence = sequence;
+   }
+
+   /**
+    * Releases the reference to the account so the slot does not keep it alive.
+    */
+   void clear() {
+      source = null;
+   }
+
+   /**
+    * Returns the kind of event.
+    *
+    * @return The event type.
+    */
+   public AccountEventType getType() {
+      return type;
+   }
+
+   /**
+    * Returns the account the event is about.
+    *
+    * @return The account object.
+    */
+   public Object getSource() {
+      return source;
+   }
+
+   /**
+    * Returns the amount involved in the event.
+    *
+    * @return The fee, interest or refused withdrawal amount, or 0.
+    */
+   public double getAmount() {
+      return amount;
+   }
+
+   /**
+    * Returns the balance after the event.
+    *
+    * @return The balance.
+    */
+   public double getBalance() {
+      return balance;
+   }
+
+   /**
+    * Returns the position of the event in its sink, starting at 0.
+    *
+    * @return The sequence number.
+    */
+   public long getSequence() {
+      return sequence;
+   }
+
+	/**
+	 * Returns a formatted string representation of the event.
+	 *
+	 * @return A string representation of the object.
+	 */
+   @Override
+   public String toString() {
+      return String.format("#%d %s amount $%.2f balance $%.2f", sequence, type, amount, balance);
+   }
+}
@@ -0,0 +1,15 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * Receives account events from an {@link AsyncEventSink}. Events are delivered in order
+ * on the sink's consumer thread. The event object is reused once this method returns.
+ */
+public interface AccountEventListener {
+   void onEvent(AccountEvent event);
+}
@@ -0,0 +1,15 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * Where accounts publish their events. Implementations are called on the transaction
+ * path, so they should return quickly and should not allocate.
+ */
+public interface AccountEventSink {
+   void publish(AccountEventType type, Object source, double amount, double balance);
+}
@@ -0,0 +1,21 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The kinds of events an account publishes through {@link AccountEvents}.
+ */
+public enum AccountEventType {
+   /** The balance is below the minimum and the account is inactive. */
+   ACCOUNT_INACTIVE,
+   /** A withdrawal was refused because the account is inactive. */
+   WITHDRAWAL_REFUSED,
+   /** Monthly service charges and withdrawal fees were taken from the balance. */
+   FEE_APPLIED,
+   /** Monthly interest was added to the balance. */
+   INTEREST_CREDITED
+}
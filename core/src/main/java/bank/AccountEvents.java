@@ -0,0 +1,98 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The AccountEvents class holds the {@link AccountEventSink} that every account publishes
+ * to. By default events are handled synchronously by {@link #CONSOLE}, which prints the
+ * same warnings the accounts have always printed. Bulk jobs should install an
+ * {@link AsyncEventSink} so that formatting and console writes happen off the
+ * transaction path.
+ */
+public final class AccountEvents {
+
+   /**
+    * Prints the inactive-account warning for ACCOUNT_INACTIVE and WITHDRAWAL_REFUSED
+    * events and ignores the rest. Accounts of an {@link AccountStore} follow their own
+    * product's minimum balance, which the event does not carry, so their warning names
+    * no amount.
+    */
+   public static final AccountEventListener CONSOLE = event -> {
+      AccountEventType type = event.getType();
+      if (type == AccountEventType.ACCOUNT_INACTIVE || type == AccountEventType.WITHDRAWAL_REFUSED) {
+         if (event.getSource() instanceof AccountStore) {
+            System.out.println("--Balance is less than the product's minimum. The account is inactive.");
+         } else {
+            System.out.println(String.format("--Balance is less than $%.0f. The account is inactive.", SavingsAccount.MIN_BALANCE));
+         }
+      }
+   };
+
+   /**
+    * A sink that hands every event straight to {@link #CONSOLE} on the calling thread.
+    */
+   public static final AccountEventSink CONSOLE_SINK = new AccountEventSink() {
+      private final AccountEvent scratch = new AccountEvent();
+   
+      @Override
+      public void publish(AccountEventType type, Object source, double amount, double balance) {
+         if (type == AccountEventType.ACCOUNT_INACTIVE || type == AccountEventType.WITHDRAWAL_REFUSED) {
+            synchronized (scratch) {
+               scratch.set(type, source, amount, balance, 0);
+               CONSOLE.onEvent(scratch);
+               scratch.clear();
+            }
+         }
+      }
+   };
+
+   /**
+    * A sink that ignores every event.
+    */
+   public static final AccountEventSink DISCARD = (type, source, amount, balance) -> { };
+
+   private static volatile AccountEventSink sink = CONSOLE_SINK;
+
+   private AccountEvents() {
+   }
+
+   /**
+    * Returns the sink accounts currently publish to.
+    *
+    * @return The current sink.
+    */
+   public static AccountEventSink sink() {
+      return sink;
+   }
+
+   /**
+    * Replaces the sink accounts publish to.
+    *
+    * @param newSink The new sink.
+    * @return The sink that was replaced.
+    */
+   public static AccountEventSink setSink(AccountEventSink newSink) {
+      if (newSink == null) {
+         throw new NullPointerException("sink should not be null.");
+      }
+      AccountEventSink previous = sink;
+      sink = newSink;
+      return previous;
+   }
+
+   /**
+    * Publishes an event to the current sink.
+    *
+    * @param type    The kind of event.
+    * @param source  The account the event is about.
+    * @param amount  The amount involved, or 0.
+    * @param balance The balance after the event.
+    */
+   static void publish(AccountEventType type, Object source, double amount, double balance) {
+      sink.publish(type, source, amount, balance);
+   }
+}
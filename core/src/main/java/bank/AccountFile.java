@@ -0,0 +1,346 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * The AccountFile class is a binary account file with fixed-width records, accessed
+ * through memory-mapped buffers. Because every record has the same size, the record of
+ * the account in slot {@code n} always starts at {@code HEADER_SIZE + n * RECORD_SIZE},
+ * so one account can be read or updated in place without reading anything else.
+ *
+ * File layout (all numbers big-endian):
+ * header (64 bytes): int magic "SACF", int version, int record size, int reserved,
+ *                    long record count, ..., int crc32 of bytes 0-59 at offset 60
+ * record (64 bytes): long accountId, long balance (cents), int deposits, int withdrawals,
+ *                    double annual interest rate, long monthly service charges (cents),
+ *                    byte status, ..., int crc32 of bytes 0-59 at offset 60
+ *
+ * The file is mapped in chunks of {@link #RECORDS_PER_CHUNK} records, so it can hold more
+ * than the 2 GB a single mapping allows. The file grows one chunk at a time; the record
+ * count in the header says how many records are in use. This class is not thread-safe.
+ */
+public class AccountFile implements Closeable {
+   public static final int HEADER_SIZE = 64;
+   public static final int RECORD_SIZE = 64;
+   static final int RECORDS_PER_CHUNK = 1 << 16;
+   static final int MAGIC = 0x53414346; // "SACF"
+   static final int VERSION = 1;
+
+   private static final long CHUNK_BYTES = (long) RECORDS_PER_CHUNK * RECORD_SIZE;
+   private static final int H_MAGIC = 0;
+   private static final int H_VERSION = 4;
+   private static final int H_RECORD_SIZE = 8;
+   private static final int H_COUNT = 16;
+   private static final int R_ID = 0;
+   private static final int R_BALANCE = 8;
+   private static final int R_DEPOSITS = 16;
+   private static final int R_WITHDRAWALS = 20;
+   private static final int R_RATE = 24;
+   private static final int R_CHARGES = 32;
+   private static final int R_STATUS = 40;
+   private static final int CHECKED_BYTES = 60;
+
+   private final FileChannel channel;
+   private final MappedByteBuffer header;
+   private final CRC32 crc = new CRC32();
+   private final byte[] scratch = new byte[CHECKED_BYTES];
+   private MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+   private int size;
+
+   private AccountFile(FileChannel channel) throws IOException {
+      this.channel = channel;
+      this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+   }
+
+   /**
+    * Creates a new, empty account file. Fails if the file already exists.
+    *
+    * @param path The file to create.
+    * @return The open account file.
+    * @throws IOException If the file cannot be created.
+    */
+   public static AccountFile create(Path path) throws IOException {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+         AccountFile file = new AccountFile(channel);
+         file.header.putInt(H_MAGIC, MAGIC);
+         file.header.putInt(H_VERSION, VERSION);
+         file.header.putInt(H_RECORD_SIZE, RECORD_SIZE);
+         file.writeCount();
+         return file;
+      } catch (IOException e) {
+         channel.close();
+         throw e;
+      }
+   }
+
+   /**
+    * Opens an existing account file after checking its header.
+    *
+    * @param path The file to open.
+    * @return The open account file.
+    * @throws IOException If the file cannot be read or its header is invalid.
+    */
+   public static AccountFile open(Path path) throws IOException {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+         if (channel.size() < HEADER_SIZE) {
+            throw new IOException("not an account file: " + path);
+         }
+         AccountFile file = new AccountFile(channel);
+         ByteBuffer h = file.header;
+         if (h.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException("not an account file: " + path);
+         }
+         if (h.getInt(H_VERSION) != VERSION) {
+            throw new IOException("unsupported account file version " + h.getInt(H_VERSION));
+         }
+         if (h.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException("unexpected record size " + h.getInt(H_RECORD_SIZE));
+         }
+         if (h.getInt(CHECKED_BYTES) != file.checksum(h, 0)) {
+            throw new IOException("account file header is corrupt: " + path);
+         }
+         long count = h.getLong(H_COUNT);
+         if (count < 0 || count > Integer.MAX_VALUE || HEADER_SIZE + count * RECORD_SIZE > channel.size()) {
+            throw new IOException("account file is truncated: " + path);
+         }
+         file.size = (int) count;
+         file.ensureCapacity(file.size);
+         return file;
+      } catch (IOException e) {
+         channel.close();
+         throw e;
+      }
+   }
+
+   /**
+    * Appends a new account record.
+    *
+    * @param accountId                  The ID of the account.
+    * @param balanceCents               The balance in cents.
+    * @param numOfDeposits              The number of deposits this month.
+    * @param numOfWithdrawals           The number of withdrawals this month.
+    * @param annualInterestRate         The annual interest rate.
+    * @param monthlyServiceChargesCents The monthly service charges in cents.
+    * @param status                     {@code true} if the account is active.
+    * @return The slot of the new record.
+    * @throws IOException If the file cannot grow.
+    */
+   public int add(long accountId, long balanceCents, int numOfDeposits, int numOfWithdrawals,
+         double annualInterestRate, long monthlyServiceChargesCents, boolean status) throws IOException {
+      if (size == Integer.MAX_VALUE) {
+         throw new IOException("account file is full");
+      }
+      ensureCapacity(size + 1);
+      int slot = size;
+      ByteBuffer chunk = chunk(slot);
+      int base = offset(slot);
+      chunk.putLong(base + R_ID, accountId);
+      write(chunk, base, balanceCents, numOfDeposits, numOfWithdrawals, monthlyServiceChargesCents, status, annualInterestRate);
+      size++;
+      writeCount();
+      return slot;
+   }
+
+   /**
+    * Rewrites the mutable fields of a record in place and updates its checksum.
+    *
+    * @param slot                       The slot of the record.
+    * @param balanceCents               The balance in cents.
+    * @param numOfDeposits              The number of deposits this month.
+    * @param numOfWithdrawals           The number of withdrawals this month.
+    * @param monthlyServiceChargesCents The monthly service charges in cents.
+    * @param status                     {@code true} if the account is active.
+    */
+   public void update(int slot, long balanceCents, int numOfDeposits, int numOfWithdrawals,
+         long monthlyServiceChargesCents, boolean status) {
+      checkSlot(slot);
+      ByteBuffer chunk = chunk(slot);
+      int base = offset(slot);
+      write(chunk, base, balanceCents, numOfDeposits, numOfWithdrawals, monthlyServiceChargesCents, status, chunk.getDouble(base + R_RATE));
+   }
+
+   private void write(ByteBuffer chunk, int base, long balanceCents, int numOfDeposits, int numOfWithdrawals,
+         long monthlyServiceChargesCents, boolean status, double annualInterestRate) {
+      chunk.putLong(base + R_BALANCE, balanceCents);
+      chunk.putInt(base + R_DEPOSITS, numOfDeposits);
+      chunk.putInt(base + R_WITHDRAWALS, numOfWithdrawals);
+      chunk.putDouble(base + R_RATE, annualInterestRate);
+      chunk.putLong(base + R_CHARGES, monthlyServiceChargesCents);
+      chunk.put(base + R_STATUS, status ? (byte) 1 : (byte) 0);
+      chunk.putInt(base + CHECKED_BYTES, checksum(chunk, base));
+   }
+
+   /**
+    * Returns the account ID stored in a slot.
+    *
+    * @param slot The slot of the record.
+    * @return The account ID.
+    */
+   public long accountId(int slot) {
+      checkSlot(slot);
+      return chunk(slot).getLong(offset(slot) + R_ID);
+   }
+
+   /**
+    * Returns the balance stored in a slot.
+    *
+    * @param slot The slot of the record.
+    * @return The balance in cents.
+    */
+   public long balance(int slot) {
+      checkSlot(slot);
+      return chunk(slot).getLong(offset(slot) + R_BALANCE);
+   }
+
+   /**
+    * Returns the number of deposits stored in a slot.
+    *
+    * @param slot The slot of the record.
+    * @return The number of deposits this month.
+    */
+   public int numOfDeposits(int slot) {
+      checkSlot(slot);
+      return chunk(slot).getInt(offset(slot) + R_DEPOSITS);
+   }
+
+   /**
+    * Returns the number of withdrawals stored in a slot.
+    *
+    * @param slot The slot of the record.
+    * @return The number of withdrawals this month.
+    */
+   public int numOfWithdrawals(int slot) {
+      checkSlot(slot);
+      return chunk(slot).getInt(offset(slot) + R_WITHDRAWALS);
+   }
+
+   /**
+    * Returns the annual interest rate stored in a slot.
+    *
+    * @param slot The slot of the record.
+    * @return The annual interest rate.
+    */
+   public double annualInterestRate(int slot) {
+      checkSlot(slot);
+      return chunk(slot).getDouble(offset(slot) + R_RATE);
+   }
+
+   /**
+    * Returns the monthly service charges stored in a slot.
+    *
+    * @param slot The slot of the record.
+    * @return The monthly service charges in cents.
+    */
+   public long monthlyServiceCharges(int slot) {
+      checkSlot(slot);
+      return chunk(slot).getLong(offset(slot) + R_CHARGES);
+   }
+
+   /**
+    * Returns the status stored in a slot.
+    *
+    * @param slot The slot of the record.
+    * @return {@code true} if the account is active.
+    */
+   public boolean status(int slot) {
+      checkSlot(slot);
+      return chunk(slot).get(offset(slot) + R_STATUS) != 0;
+   }
+
+   /**
+    * Checks the checksum of a record.
+    *
+    * @param slot The slot of the record.
+    * @return {@code true} if the record is intact.
+    */
+   public boolean verify(int slot) {
+      checkSlot(slot);
+      ByteBuffer chunk = chunk(slot);
+      int base = offset(slot);
+      return chunk.getInt(base + CHECKED_BYTES) == checksum(chunk, base);
+   }
+
+   /**
+    * Returns the number of records in the file.
+    *
+    * @return The number of records.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Forces every change to disk.
+    */
+   public void force() {
+      header.force();
+      for (MappedByteBuffer chunk : chunks) {
+         chunk.force();
+      }
+   }
+
+   /**
+    * Forces every change to disk and closes the file.
+    *
+    * @throws IOException If the file cannot be closed.
+    */
+   @Override
+   public void close() throws IOException {
+      force();
+      channel.close();
+   }
+
+   private void writeCount() {
+      header.putLong(H_COUNT, size);
+      header.putInt(CHECKED_BYTES, checksum(header, 0));
+   }
+
+   private int checksum(ByteBuffer buffer, int base) {
+      buffer.get(base, scratch, 0, CHECKED_BYTES);
+      crc.reset();
+      crc.update(scratch, 0, CHECKED_BYTES);
+      return (int) crc.getValue();
+   }
+
+   private void ensureCapacity(int records) throws IOException {
+      int needed = (int) ((records + (long) RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK);
+      if (needed <= chunks.length) {
+         return;
+      }
+      MappedByteBuffer[] grown = Arrays.copyOf(chunks, needed);
+      for (int c = chunks.length; c < needed; c++) {
+         grown[c] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + c * CHUNK_BYTES, CHUNK_BYTES);
+      }
+      chunks = grown;
+   }
+
+   private void checkSlot(int slot) {
+      if (slot < 0 || slot >= size) {
+         throw new IndexOutOfBoundsException("slot " + slot + " is outside the file.");
+      }
+   }
+
+   private ByteBuffer chunk(int slot) {
+      return chunks[slot / RECORDS_PER_CHUNK];
+   }
+
+   private static int offset(int slot) {
+      return (slot % RECORDS_PER_CHUNK) * RECORD_SIZE;
+   }
+}
@@ -0,0 +1,69 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The AccountFileMigration class is a one-shot tool that converts account files written
+ * by {@code Application.writeObj} (Java object serialization, one `SavingsAccount` per
+ * file) into a single {@link AccountFile}. Each input file becomes one record; account
+ * IDs are assigned in input order starting at 1, or at the value of {@code --first-id}.
+ *
+ * Usage:
+ * java -cp core/target/savings-core.jar bank.AccountFileMigration [--first-id N] output.acf input.dat [input.dat ...]
+ * With no arguments, savingsAccount.dat is converted into accounts.acf.
+ */
+public class AccountFileMigration {
+
+   /**
+    * Converts the input files.
+    *
+    * @param args The optional first ID, the output file and the input files.
+    */
+   public static void main(String[] args) {
+      long nextId = 1;
+      int first = 0;
+      if (args.length >= 2 && args[0].equals("--first-id")) {
+         nextId = Long.parseLong(args[1]);
+         first = 2;
+      }
+      Path output = Path.of(args.length > first ? args[first] : "accounts.acf");
+      String[] inputs = args.length > first + 1
+            ? java.util.Arrays.copyOfRange(args, first + 1, args.length)
+            : new String[] {"savingsAccount.dat"};
+   
+      if (Files.exists(output)) {
+         System.out.println("Error: " + output + " already exists.");
+         System.exit(1);
+      }
+      try (AccountFile file = AccountFile.create(output)) {
+         for (String input : inputs) {
+            SavingsAccount account = readObj(input);
+            file.add(nextId, Money.toCents(account.getBalance()), account.getNumOfDeposits(), account.getNumOfWithdrawals(),
+                  account.getAnnualInterestRate(), Money.toCents(account.getMonthlyServiceCharges()), account.isStatus());
+            System.out.printf("%s -> account %d, balance $%.2f\n", input, nextId, account.getBalance());
+            nextId++;
+         }
+         System.out.printf("Wrote %d account(s) to %s\n", file.size(), output);
+      } catch (IOException | ClassNotFoundException | ClassCastException e) {
+         System.out.println("Error: " + e.getMessage());
+         System.exit(1);
+      }
+   }
+
+   private static SavingsAccount readObj(String fileName) throws IOException, ClassNotFoundException {
+      try (InputStream inputStream = new BufferedInputStream(new FileInputStream(fileName))) {
+         return AccountSerialization.read(inputStream);
+      }
+   }
+}
@@ -0,0 +1,26 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The JMX view of the account-wide metrics, registered as {@code bank:type=AccountMetrics}.
+ */
+public interface AccountMetricsMXBean {
+   /** Whether metrics are being recorded. */
+   boolean isEnabled();
+
+   void setEnabled(boolean enabled);
+
+   /** The number of times an active account became inactive. */
+   long getDeactivations();
+
+   /** The number of times an inactive account became active again. */
+   long getReactivations();
+
+   /** Clears every counter and histogram. */
+   void reset();
+}
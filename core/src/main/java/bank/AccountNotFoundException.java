@@ -0,0 +1,18 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * Custom exception class for operations on an account ID that is not in the ledger.
+ */
+public class AccountNotFoundException extends Exception {
+   private static final long serialVersionUID = 1L;
+
+   public AccountNotFoundException(String message) {
+      super(message);
+   }
+}
@@ -0,0 +1,150 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.util.Arrays;
+
+/**
+ * The AccountProduct class describes one kind of savings account as data: the largest
+ * amount one deposit or withdrawal may move, the balance below which the account becomes
+ * inactive, a fee taken every month, and how many withdrawals a month are free and what
+ * the ones after them cost. The cost can rise in tiers: for example, $1.00 for each
+ * withdrawal after the 4th and $2.00 for each after the 10th. All amounts are in cents.
+ *
+ * Products are grouped in a {@link ProductCatalog}, usually loaded from a file, and
+ * every product is applied by the same code in {@link AccountView}.
+ */
+public final class AccountProduct {
+   /** The rules every savings account has always had. */
+   public static final AccountProduct STANDARD = new AccountProduct("standard",
+         10000 * Money.CENTS_PER_DOLLAR, 25 * Money.CENTS_PER_DOLLAR, 0, 4, 1 * Money.CENTS_PER_DOLLAR);
+
+   private final String name;
+   private final long maxAmount;
+   private final long minBalance;
+   private final long monthlyFee;
+   // Withdrawals after tierStarts[i] cost tierFees[i] each, up to the next tier; the first tier starts after the free ones.
+   final int[] tierStarts;
+   final long[] tierFees;
+
+   /**
+    * Constructs a product with one withdrawal fee for every withdrawal after the free ones.
+    *
+    * @param name                The name of the product.
+    * @param maxAmountCents      The largest deposit or withdrawal, and the largest opening balance.
+    * @param minBalanceCents     The balance below which the account is inactive.
+    * @param monthlyFeeCents     The fee taken by every monthly process.
+    * @param freeWithdrawals     The number of withdrawals a month that cost nothing.
+    * @param withdrawalFeeCents  The fee for each withdrawal after the free ones.
+    */
+   public AccountProduct(String name, long maxAmountCents, long minBalanceCents, long monthlyFeeCents, int freeWithdrawals, long withdrawalFeeCents) {
+      this(name, maxAmountCents, minBalanceCents, monthlyFeeCents, new int[] {freeWithdrawals}, new long[] {withdrawalFeeCents});
+   }
+
+   private AccountProduct(String name, long maxAmount, long minBalance, long monthlyFee, int[] tierStarts, long[] tierFees) {
+      if (name == null || name.isEmpty()) {
+         throw new IllegalArgumentException("a product needs a name.");
+      }
+      if (maxAmount <= 0) {
+         throw new IllegalArgumentException("product " + name + ": the largest amount should be > 0.");
+      }
+      if (minBalance < 0 || monthlyFee < 0 || tierStarts[0] < 0) {
+         throw new IllegalArgumentException("product " + name + ": balances, fees and counts should be >= 0.");
+      }
+      for (long fee : tierFees) {
+         if (fee < 0) {
+            throw new IllegalArgumentException("product " + name + ": fees should be >= 0.");
+         }
+      }
+      this.name = name;
+      this.maxAmount = maxAmount;
+      this.minBalance = minBalance;
+      this.monthlyFee = monthlyFee;
+      this.tierStarts = tierStarts;
+      this.tierFees = tierFees;
+   }
+
+   /**
+    * Returns a copy of this product with one more withdrawal fee tier.
+    *
+    * @param withdrawals The number of withdrawals after which the fee applies; more than
+    *                    the free withdrawals and any earlier tier.
+    * @param feeCents    The fee for each of those withdrawals.
+    * @return The new product.
+    */
+   public AccountProduct withWithdrawalFeeAfter(int withdrawals, long feeCents) {
+      int tiers = tierStarts.length;
+      if (withdrawals <= tierStarts[tiers - 1]) {
+         throw new IllegalArgumentException("product " + name + ": a fee tier should start after the free withdrawals and any earlier tier.");
+      }
+      int[] starts = Arrays.copyOf(tierStarts, tiers + 1);
+      long[] fees = Arrays.copyOf(tierFees, tiers + 1);
+      starts[tiers] = withdrawals;
+      fees[tiers] = feeCents;
+      return new AccountProduct(name, maxAmount, minBalance, monthlyFee, starts, fees);
+   }
+
+   /**
+    * Returns the name of the product.
+    *
+    * @return The name.
+    */
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * Returns the largest amount one deposit or withdrawal may move.
+    *
+    * @return The amount in cents.
+    */
+   public long getMaxAmount() {
+      return maxAmount;
+   }
+
+   /**
+    * Returns the balance below which an account is inactive.
+    *
+    * @return The balance in cents.
+    */
+   public long getMinBalance() {
+      return minBalance;
+   }
+
+   /**
+    * Returns the fee taken by every monthly process.
+    *
+    * @return The fee in cents.
+    */
+   public long getMonthlyFee() {
+      return monthlyFee;
+   }
+
+   /**
+    * Returns the number of withdrawals a month that cost nothing.
+    *
+    * @return The number of free withdrawals.
+    */
+   public int getFreeWithdrawals() {
+      return tierStarts[0];
+   }
+
+   /**
+    * Returns a string representation of the product.
+    *
+    * @return A string representation of the product.
+    */
+   @Override
+   public String toString() {
+      StringBuilder fees = new StringBuilder();
+      for (int i = 0; i < tierStarts.length; i++) {
+         fees.append(i == 0 ? "" : ", ").append(Money.format(tierFees[i])).append(" after ").append(tierStarts[i]);
+      }
+      return String.format("%s: up to %s, minimum balance %s, monthly fee %s, withdrawals %s",
+            name, Money.format(maxAmount), Money.format(minBalance), Money.format(monthlyFee), fees);
+   }
+}
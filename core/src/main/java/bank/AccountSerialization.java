@@ -0,0 +1,77 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+
+/**
+ * Helper methods that write and read a `SavingsAccount` with Java object serialization,
+ * the format of savingsAccount.dat. Files written before the account classes moved into
+ * the {@code bank} package name them without a package; those names are mapped to the
+ * current classes when reading, which works because both classes pin their
+ * serialVersionUID.
+ */
+public final class AccountSerialization {
+
+   private AccountSerialization() {
+   }
+
+   /**
+    * Writes an account to a stream using object serialization. The stream is not closed.
+    *
+    * @param savingsAccount The account to write.
+    * @param out            The stream to write to.
+    * @throws IOException If an I/O error occurs during serialization.
+    */
+   public static void write(SavingsAccount savingsAccount, OutputStream out) throws IOException {
+      long start = Metrics.start();
+      ObjectOutputStream outputStream = new ObjectOutputStream(out);
+      outputStream.writeObject(savingsAccount);
+      outputStream.flush();
+      Metrics.record(MeteredOperation.WRITE_OBJ, start, TransactionStatus.OK);
+   }
+
+   /**
+    * Reads an account from a stream using object de-serialization. The stream is not closed.
+    *
+    * @param in The stream to read from.
+    * @return The `SavingsAccount` read from the stream.
+    * @throws IOException            If an I/O error occurs during de-serialization.
+    * @throws ClassNotFoundException If the class of the serialized object cannot be found.
+    */
+   public static SavingsAccount read(InputStream in) throws IOException, ClassNotFoundException {
+      return (SavingsAccount) new LegacyObjectInputStream(in).readObject();
+   }
+
+   /**
+    * Maps the class names used before the move into the {@code bank} package.
+    */
+   private static final class LegacyObjectInputStream extends ObjectInputStream {
+   
+      LegacyObjectInputStream(InputStream in) throws IOException {
+         super(in);
+      }
+   
+      @Override
+      protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+         ObjectStreamClass descriptor = super.readClassDescriptor();
+         switch (descriptor.getName()) {
+            case "SavingsAccount":
+               return ObjectStreamClass.lookup(SavingsAccount.class);
+            case "BankAccount":
+               return ObjectStreamClass.lookup(BankAccount.class);
+            default:
+               return descriptor;
+         }
+      }
+   }
+}
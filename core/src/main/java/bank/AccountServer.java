@@ -0,0 +1,363 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The AccountServer class serves a {@link ConcurrentLedger} over TCP with a line
+ * protocol, one thread per connection. Requests for the same account are serialized by
+ * the ledger's per-account locks, and requests for different accounts run in parallel.
+ *
+ * Each request is one line of space-separated words, and each gets one line back:
+ * <pre>
+ * OPEN id balance rate charges   OK
+ * DEPOSIT id amount              OK, OUT_OF_RANGE
+ * WITHDRAW id amount             OK, OUT_OF_RANGE, INSUFFICIENT_FUNDS or INACTIVE
+ * BALANCE id                     OK balance
+ * MONTHEND id                    OK balance (after the monthly processing)
+ * QUIT                           closes the connection
+ * </pre>
+ * A request that cannot be carried out gets {@code ERR} and the reason. A client may
+ * send several requests before reading the replies; they are answered in order.
+ *
+ * Two requests read the ledger's {@link LedgerStatistics} without a pass over the accounts:
+ * <pre>
+ * STATS                          OK total accounts active inactive fees-this-month
+ * INACTIVE                       OK and the IDs of the inactive accounts
+ * </pre>
+ *
+ * Four more requests let a {@link PartitionRouter} move accounts between servers:
+ * <pre>
+ * STATE id                       OK balance deposits withdrawals rate charges status
+ * IMPORT id balance deposits withdrawals rate charges status    OK, and any account
+ *                                with the ID is replaced
+ * REMOVE id                      OK, and the account is removed
+ * IDS                            OK and the IDs of all accounts
+ * </pre>
+ * The requests can also be served by any other {@link Handler}, such as the router.
+ *
+ * On a Java runtime with virtual threads each connection gets a virtual thread, so
+ * thousands of mostly idle connections cost little memory. Older runtimes fall back to
+ * a platform thread per connection with a small stack.
+ */
+public class AccountServer implements Closeable {
+   private static final int THREAD_STACK_SIZE = 256 * 1024;
+   private static final int BUFFER_SIZE = 1024;
+   private static final int BACKLOG = 4096;
+
+   private final Handler handler;
+   private final ServerSocket serverSocket;
+   private final ExecutorService connections;
+   private final boolean virtualThreads;
+   private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+   private final Thread acceptor;
+   private volatile boolean closed;
+
+   /**
+    * Starts serving a ledger.
+    *
+    * @param ledger  The ledger to serve.
+    * @param address The address to listen on; port 0 picks a free port.
+    * @throws IOException If the address cannot be bound.
+    */
+   public AccountServer(ConcurrentLedger ledger, InetSocketAddress address) throws IOException {
+      this(new LedgerHandler(ledger), address);
+   }
+
+   /**
+    * Starts serving requests with a handler.
+    *
+    * @param handler The handler that answers each request.
+    * @param address The address to listen on; port 0 picks a free port.
+    * @throws IOException If the address cannot be bound.
+    */
+   public AccountServer(Handler handler, InetSocketAddress address) throws IOException {
+      this.handler = handler;
+      serverSocket = new ServerSocket();
+      serverSocket.setReuseAddress(true);
+      serverSocket.bind(address, BACKLOG);
+      ExecutorService virtual = newVirtualThreadExecutor();
+      virtualThreads = virtual != null;
+      connections = virtualThreads ? virtual : newPlatformThreadExecutor();
+      acceptor = new Thread(this::accept, "account-server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+   }
+
+   /**
+    * Returns the port the server listens on.
+    *
+    * @return The port.
+    */
+   public int getPort() {
+      return serverSocket.getLocalPort();
+   }
+
+   /**
+    * Returns whether connections are served by virtual threads.
+    *
+    * @return {@code true} for virtual threads, {@code false} for platform threads.
+    */
+   public boolean usesVirtualThreads() {
+      return virtualThreads;
+   }
+
+   /**
+    * Returns the number of open connections.
+    *
+    * @return The number of connections.
+    */
+   public int connectionCount() {
+      return sockets.size();
+   }
+
+   /**
+    * Stops accepting connections and closes the open ones.
+    *
+    * @throws IOException If the listening socket cannot be closed.
+    */
+   @Override
+   public void close() throws IOException {
+      closed = true;
+      serverSocket.close();
+      for (Socket socket : sockets) {
+         socket.close();
+      }
+      connections.shutdown();
+      try {
+         connections.awaitTermination(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void accept() {
+      while (!closed) {
+         Socket socket;
+         try {
+            socket = serverSocket.accept();
+         } catch (IOException e) {
+            if (!closed) {
+               System.err.println("account server stopped accepting: " + e.getMessage());
+            }
+            return;
+         }
+         sockets.add(socket);
+         try {
+            connections.execute(() -> serve(socket));
+         } catch (RejectedExecutionException e) {
+            sockets.remove(socket);
+            closeQuietly(socket);
+         }
+      }
+   }
+
+   private void serve(Socket socket) {
+      try (socket;
+           BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII), BUFFER_SIZE);
+           Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+         socket.setTcpNoDelay(true);
+         String line;
+         while ((line = in.readLine()) != null) {
+            if (line.equals("QUIT")) {
+               break;
+            }
+            handler.handle(line, out);
+            out.write('\n');
+            // Replies to pipelined requests go out together once the input runs dry.
+            if (!in.ready()) {
+               out.flush();
+            }
+         }
+      } catch (SocketException e) {
+         // The client went away, or the server is closing.
+      } catch (IOException e) {
+         System.err.println("account connection failed: " + e.getMessage());
+      } finally {
+         sockets.remove(socket);
+      }
+   }
+
+   // Returns an executor that starts a virtual thread per task, or null before Java 21.
+   private static ExecutorService newVirtualThreadExecutor() {
+      try {
+         Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+         return (ExecutorService) factory.invoke(null);
+      } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+         return null;
+      }
+   }
+
+   private static ExecutorService newPlatformThreadExecutor() {
+      AtomicInteger count = new AtomicInteger();
+      return Executors.newCachedThreadPool(task -> {
+         Thread thread = new Thread(null, task, "account-connection-" + count.incrementAndGet(), THREAD_STACK_SIZE);
+         thread.setDaemon(true);
+         return thread;
+      });
+   }
+
+   private static void closeQuietly(Socket socket) {
+      try {
+         socket.close();
+      } catch (IOException e) {
+         // Nothing more can be done for this connection.
+      }
+   }
+
+   /**
+    * Answers one request line.
+    */
+   public interface Handler {
+      /**
+       * Carries out one request and writes its reply, without the line end.
+       *
+       * @param request The request line.
+       * @param reply   Where to write the reply.
+       * @throws IOException If the reply cannot be written.
+       */
+      void handle(String request, Writer reply) throws IOException;
+   }
+
+   /**
+    * Answers requests from a ledger.
+    */
+   private static final class LedgerHandler implements Handler {
+      private final ConcurrentLedger ledger;
+
+      LedgerHandler(ConcurrentLedger ledger) {
+         this.ledger = ledger;
+      }
+
+      @Override
+      public void handle(String line, Writer out) throws IOException {
+         String[] words = line.split(" ");
+         try {
+            switch (words[0]) {
+               case "DEPOSIT":
+                  expect(words, 3);
+                  out.write(ledger.deposit(Long.parseLong(words[1]), number(words[2])).name());
+                  break;
+               case "WITHDRAW":
+                  expect(words, 3);
+                  out.write(ledger.withdraw(Long.parseLong(words[1]), number(words[2])).name());
+                  break;
+               case "BALANCE":
+                  expect(words, 2);
+                  out.write("OK ");
+                  Money.write(out, ledger.getBalance(Long.parseLong(words[1])));
+                  break;
+               case "MONTHEND":
+                  expect(words, 2);
+                  long accountId = Long.parseLong(words[1]);
+                  ledger.monthlyProcess(accountId);
+                  out.write("OK ");
+                  Money.write(out, ledger.getBalance(accountId));
+                  break;
+               case "OPEN":
+                  expect(words, 5);
+                  ledger.open(Long.parseLong(words[1]), number(words[2]), number(words[3]), number(words[4]));
+                  out.write("OK");
+                  break;
+               case "STATE":
+                  expect(words, 2);
+                  AccountSnapshot snapshot = ledger.snapshot(Long.parseLong(words[1]));
+                  // Full precision, so a copy arrives exactly as the account is.
+                  out.write("OK " + snapshot.balance + " " + snapshot.numOfDeposits + " " + snapshot.numOfWithdrawals
+                        + " " + snapshot.annualInterestRate + " " + snapshot.monthlyServiceCharges + " " + snapshot.status);
+                  break;
+               case "IMPORT":
+                  expect(words, 8);
+                  AccountSnapshot imported = new AccountSnapshot(number(words[2]),
+                        Integer.parseInt(words[3]), Integer.parseInt(words[4]), number(words[5]),
+                        number(words[6]), Boolean.parseBoolean(words[7]));
+                  long importedId = Long.parseLong(words[1]);
+                  try {
+                     // A copy left by a move that failed half way is out of date.
+                     ledger.remove(importedId);
+                  } catch (AccountNotFoundException e) {
+                     // Nothing to replace.
+                  }
+                  ledger.restore(importedId, imported);
+                  out.write("OK");
+                  break;
+               case "REMOVE":
+                  expect(words, 2);
+                  ledger.remove(Long.parseLong(words[1]));
+                  out.write("OK");
+                  break;
+               case "IDS":
+                  expect(words, 1);
+                  out.write("OK");
+                  for (long id : ledger.ids()) {
+                     out.write(' ');
+                     out.write(Long.toString(id));
+                  }
+                  break;
+               case "STATS":
+                  expect(words, 1);
+                  LedgerStatistics statistics = ledger.statistics();
+                  out.write("OK ");
+                  Money.write(out, statistics.totalBalance());
+                  out.write(" " + statistics.accountCount() + " " + statistics.activeCount() + " " + statistics.inactiveCount() + " ");
+                  Money.write(out, statistics.feesThisMonth());
+                  break;
+               case "INACTIVE":
+                  expect(words, 1);
+                  out.write("OK");
+                  for (long id : ledger.statistics().inactiveAccounts()) {
+                     out.write(' ');
+                     out.write(Long.toString(id));
+                  }
+                  break;
+               default:
+                  out.write("ERR unknown request.");
+            }
+         } catch (NumberFormatException e) {
+            out.write("ERR malformed number.");
+         } catch (AccountNotFoundException | InvalidDepositAmountException | IllegalArgumentException e) {
+            out.write("ERR ");
+            out.write(e.getMessage());
+         }
+      }
+
+      // NaN and infinity pass every range check written as a comparison, so they are refused here.
+      private static double number(String word) {
+         double value = Double.parseDouble(word);
+         if (!Double.isFinite(value)) {
+            throw new NumberFormatException(word + " is not a finite number.");
+         }
+         return value;
+      }
+
+      private static void expect(String[] words, int count) {
+         if (words.length != count) {
+            throw new IllegalArgumentException(words[0] + " takes " + (count - 1) + " arguments.");
+         }
+      }
+   }
+}
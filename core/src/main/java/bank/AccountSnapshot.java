@@ -0,0 +1,120 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+/**
+ * The AccountSnapshot class is an immutable copy of every field of a savings account,
+ * taken at one instant, so the balance, the counters and the status always agree with
+ * each other. {@link ConcurrentSavingsAccount} keeps its state in one, and
+ * {@link ConcurrentLedger} and {@link CheckpointedLedger} copy accounts into them.
+ */
+public final class AccountSnapshot implements Serializable {
+   private static final long serialVersionUID = 1L;
+
+   // Bytes written by writeTo.
+   static final int SIZE = 33;
+
+   final double balance;
+   final int numOfDeposits;
+   final int numOfWithdrawals;
+   final double annualInterestRate;
+   final double monthlyServiceCharges;
+   final boolean status;
+
+   AccountSnapshot(double balance, int numOfDeposits, int numOfWithdrawals, double annualInterestRate, double monthlyServiceCharges, boolean status) {
+      this.balance = balance;
+      this.numOfDeposits = numOfDeposits;
+      this.numOfWithdrawals = numOfWithdrawals;
+      this.annualInterestRate = annualInterestRate;
+      this.monthlyServiceCharges = monthlyServiceCharges;
+      this.status = status;
+   }
+
+	/**
+	 * Retrieves the balance of the account.
+	 *
+	 * @return The balance of the account.
+	 */
+   public double getBalance() {
+      return balance;
+   }
+
+	/**
+	 * Returns the number of deposits for the month.
+	 *
+	 * @return The number of deposits made in the month.
+	 */
+   public int getNumOfDeposits() {
+      return numOfDeposits;
+   }
+
+	/**
+	 * Returns the number of withdrawals for the month.
+	 *
+	 * @return The number of withdrawals made in the month.
+	 */
+   public int getNumOfWithdrawals() {
+      return numOfWithdrawals;
+   }
+
+	/**
+	 * Returns the annual interest rate of the account.
+	 *
+	 * @return The annual interest rate.
+	 */
+   public double getAnnualInterestRate() {
+      return annualInterestRate;
+   }
+
+	/**
+	 * Returns the monthly service charges for the account.
+	 *
+	 * @return The monthly service charges for the account.
+	 */
+   public double getMonthlyServiceCharges() {
+      return monthlyServiceCharges;
+   }
+
+	// Accessor for status
+   public boolean isStatus() {
+      return status;
+   }
+
+   /**
+    * Copies the current state of an account. The caller must keep the account from
+    * changing while it is copied.
+    */
+   static AccountSnapshot of(SavingsAccount account) {
+      return new AccountSnapshot(account.getBalance(), account.getNumOfDeposits(), account.getNumOfWithdrawals(),
+            account.getAnnualInterestRate(), account.getMonthlyServiceCharges(), account.isStatus());
+   }
+
+   /**
+    * Creates a new account with exactly this state.
+    */
+   SavingsAccount restore() {
+      return new SavingsAccount(balance, numOfDeposits, numOfWithdrawals, annualInterestRate, monthlyServiceCharges, status);
+   }
+
+   void writeTo(DataOutput out) throws IOException {
+      out.writeDouble(balance);
+      out.writeInt(numOfDeposits);
+      out.writeInt(numOfWithdrawals);
+      out.writeDouble(annualInterestRate);
+      out.writeDouble(monthlyServiceCharges);
+      out.writeBoolean(status);
+   }
+
+   static AccountSnapshot readFrom(ByteBuffer in) {
+      return new AccountSnapshot(in.getDouble(), in.getInt(), in.getInt(), in.getDouble(), in.getDouble(), in.get() != 0);
+   }
+}
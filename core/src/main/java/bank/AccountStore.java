@@ -0,0 +1,164 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.util.Arrays;
+
+/**
+ * The AccountStore class is a struct-of-arrays storage engine for savings accounts.
+ * Instead of one heap object per account, every field of {@link BankAccount} and
+ * {@link SavingsAccount} is kept in its own primitive array, indexed by the account's
+ * slot. Balances and service charges are held as {@code long} cents (see {@link Money}).
+ *
+ * Each account also has a product from the store's {@link ProductCatalog}, which sets
+ * its limits, fees and minimum balance. A store made without a catalog offers only the
+ * standard product, whose rules are those of {@link SavingsAccount}.
+ *
+ * Accounts are read and updated through an {@link AccountView}, a reusable flyweight
+ * that points at one slot at a time, so working through the store allocates nothing
+ * per account. This class is not thread-safe.
+ */
+public class AccountStore {
+   private static final int DEFAULT_CAPACITY = 16;
+
+   final ProductCatalog catalog;
+   byte[] products;
+   long[] balances;
+   int[] numOfDeposits;
+   int[] numOfWithdrawals;
+   double[] annualInterestRates;
+   long[] monthlyServiceCharges;
+   boolean[] status;
+   private int size;
+
+   /**
+    * Constructs an empty store with a small default capacity.
+    */
+   public AccountStore() {
+      this(DEFAULT_CAPACITY);
+   }
+
+   /**
+    * Constructs an empty store that can hold the given number of accounts without growing.
+    *
+    * @param capacity The initial capacity.
+    */
+   public AccountStore(int capacity) {
+      this(ProductCatalog.STANDARD, capacity);
+   }
+
+   /**
+    * Constructs an empty store offering the products of a catalog.
+    *
+    * @param catalog  The products accounts can have.
+    * @param capacity The initial capacity.
+    */
+   public AccountStore(ProductCatalog catalog, int capacity) {
+      if (capacity < 0) {
+         throw new IllegalArgumentException("capacity should be >= 0.");
+      }
+      this.catalog = catalog;
+      products = new byte[capacity];
+      balances = new long[capacity];
+      numOfDeposits = new int[capacity];
+      numOfWithdrawals = new int[capacity];
+      annualInterestRates = new double[capacity];
+      monthlyServiceCharges = new long[capacity];
+      status = new boolean[capacity];
+   }
+
+   /**
+    * Adds a new account of the first product to the store, with the same checks as the
+    * {@link SavingsAccount} constructor.
+    *
+    * @param balanceCents               The initial balance in cents.
+    * @param annualInterestRate         The annual interest rate for the account.
+    * @param monthlyServiceChargesCents The monthly service charges in cents.
+    * @return The slot of the new account.
+    * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+    */
+   public int add(long balanceCents, double annualInterestRate, long monthlyServiceChargesCents) throws InvalidDepositAmountException {
+      return add(0, balanceCents, annualInterestRate, monthlyServiceChargesCents);
+   }
+
+   /**
+    * Adds a new account of the given product to the store. The initial balance must be
+    * within the product's largest amount.
+    *
+    * @param product                    The number of the product in the catalog.
+    * @param balanceCents               The initial balance in cents.
+    * @param annualInterestRate         The annual interest rate for the account.
+    * @param monthlyServiceChargesCents The monthly service charges in cents.
+    * @return The slot of the new account.
+    * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+    */
+   public int add(int product, long balanceCents, double annualInterestRate, long monthlyServiceChargesCents) throws InvalidDepositAmountException {
+      if (product < 0 || product >= catalog.size()) {
+         throw new IllegalArgumentException("there is no product " + product + ".");
+      }
+      if (!catalog.inRange(product, balanceCents)) {
+         throw new InvalidDepositAmountException("amount to deposit should be > 0 and <= "
+               + Money.format(catalog.product(product).getMaxAmount()) + ".");
+      }
+      if (size == balances.length) {
+         grow();
+      }
+      int slot = size++;
+      products[slot] = (byte) product;
+      balances[slot] = balanceCents;
+      annualInterestRates[slot] = annualInterestRate;
+      monthlyServiceCharges[slot] = monthlyServiceChargesCents;
+      status[slot] = catalog.isActive(product, balanceCents);
+      return slot;
+   }
+
+   /**
+    * Returns the number of accounts in the store.
+    *
+    * @return The number of accounts.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Returns the products accounts in this store can have.
+    *
+    * @return The catalog.
+    */
+   public ProductCatalog catalog() {
+      return catalog;
+   }
+
+   /**
+    * Creates a new flyweight view positioned at the given slot. Callers that visit many
+    * accounts should create one view and move it with {@link AccountView#moveTo(int)}.
+    *
+    * @param slot The slot to point at.
+    * @return A view of the account in the slot.
+    */
+   public AccountView view(int slot) {
+      return new AccountView(this).moveTo(slot);
+   }
+
+   void checkSlot(int slot) {
+      if (slot < 0 || slot >= size) {
+         throw new IndexOutOfBoundsException("slot " + slot + " is outside the store.");
+      }
+   }
+
+   private void grow() {
+      int capacity = Math.max(DEFAULT_CAPACITY, balances.length + (balances.length >> 1));
+      products = Arrays.copyOf(products, capacity);
+      balances = Arrays.copyOf(balances, capacity);
+      numOfDeposits = Arrays.copyOf(numOfDeposits, capacity);
+      numOfWithdrawals = Arrays.copyOf(numOfWithdrawals, capacity);
+      annualInterestRates = Arrays.copyOf(annualInterestRates, capacity);
+      monthlyServiceCharges = Arrays.copyOf(monthlyServiceCharges, capacity);
+      status = Arrays.copyOf(status, capacity);
+   }
+}
@@ -0,0 +1,231 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The AccountView class is a flyweight over one slot of an {@link AccountStore}.
+ * It offers the same operations as {@link SavingsAccount}, with the rules of the
+ * account's {@link AccountProduct} read from the store's catalog, but works on exact
+ * cents and keeps no state of its own other than the slot it points at. One view can
+ * be moved across any number of accounts. Events published by a view name the
+ * {@link AccountStore} as their source.
+ */
+public class AccountView {
+   private final AccountStore store;
+   private int slot;
+
+   /**
+    * Constructs a view over the given store. The view must be moved to a slot before use.
+    *
+    * @param store The store to read and update.
+    */
+   public AccountView(AccountStore store) {
+      this.store = store;
+      this.slot = -1;
+   }
+
+   /**
+    * Points the view at another account.
+    *
+    * @param slot The slot of the account.
+    * @return This view, for chaining.
+    */
+   public AccountView moveTo(int slot) {
+      store.checkSlot(slot);
+      this.slot = slot;
+      return this;
+   }
+
+   /**
+    * Returns the slot the view points at.
+    *
+    * @return The current slot.
+    */
+   public int slot() {
+      return slot;
+   }
+
+   /**
+    * Retrieves the balance of the account.
+    *
+    * @return The current balance in cents.
+    */
+   public long getBalance() {
+      return store.balances[slot];
+   }
+
+   /**
+    * Returns the status of the account.
+    *
+    * @return {@code true} if the account is active.
+    */
+   public boolean isStatus() {
+      return store.status[slot];
+   }
+
+   /**
+    * Returns the product of the account.
+    *
+    * @return The product.
+    */
+   public AccountProduct getProduct() {
+      return store.catalog.product(store.products[slot] & 0xFF);
+   }
+
+   /**
+    * Returns the number of deposits for the month.
+    *
+    * @return The number of deposits made in the current month.
+    */
+   public int getNumOfDeposits() {
+      return store.numOfDeposits[slot];
+   }
+
+   /**
+    * Returns the number of withdrawals for the month.
+    *
+    * @return The number of withdrawals made in the current month.
+    */
+   public int getNumOfWithdrawals() {
+      return store.numOfWithdrawals[slot];
+   }
+
+   /**
+    * Returns the annual interest rate of the account.
+    *
+    * @return The annual interest rate.
+    */
+   public double getAnnualInterestRate() {
+      return store.annualInterestRates[slot];
+   }
+
+   /**
+    * Returns the monthly service charges of the account.
+    *
+    * @return The monthly service charges in cents.
+    */
+   public long getMonthlyServiceCharges() {
+      return store.monthlyServiceCharges[slot];
+   }
+
+   /**
+    * Deposits the specified amount into the account and updates its status.
+    *
+    * @param amountCents The amount to be deposited, in cents.
+    * @exception InvalidDepositAmountException for Invalid deposit amount
+    */
+   public void deposit(long amountCents) throws InvalidDepositAmountException {
+      if (tryDeposit(amountCents) != TransactionStatus.OK) {
+         throw new InvalidDepositAmountException("amount to deposit should be > 0 and <= "
+               + Money.format(getProduct().getMaxAmount()) + ".");
+      }
+   }
+
+   /**
+    * Deposits the specified amount into the account without throwing.
+    *
+    * @param amountCents The amount to be deposited, in cents.
+    * @return {@code OK}, or {@code OUT_OF_RANGE} if the amount is invalid.
+    */
+   public TransactionStatus tryDeposit(long amountCents) {
+      if (!store.catalog.inRange(store.products[slot] & 0xFF, amountCents)) {
+         return TransactionStatus.OUT_OF_RANGE;
+      }
+      store.balances[slot] += amountCents;
+      store.numOfDeposits[slot]++;
+      checkStatus();
+      return TransactionStatus.OK;
+   }
+
+   /**
+    * Withdraws the specified amount from the account. Like {@link SavingsAccount#withdraw(double)},
+    * nothing is withdrawn from an inactive account.
+    *
+    * @param amountCents The amount to be withdrawn, in cents.
+    * @throws InvalidWithdrawalAmountException for Invalid withdrawal amount
+    */
+   public void withdraw(long amountCents) throws InvalidWithdrawalAmountException {
+      TransactionStatus result = tryWithdraw(amountCents);
+      if (result == TransactionStatus.OUT_OF_RANGE || result == TransactionStatus.INSUFFICIENT_FUNDS) {
+         throw new InvalidWithdrawalAmountException("there is no enough money to be withdraw.");
+      }
+   }
+
+   /**
+    * Withdraws the specified amount from the account without throwing.
+    *
+    * @param amountCents The amount to be withdrawn, in cents.
+    * @return {@code OK}, {@code OUT_OF_RANGE}, {@code INSUFFICIENT_FUNDS} or {@code INACTIVE}.
+    */
+   public TransactionStatus tryWithdraw(long amountCents) {
+      if (!store.status[slot]) {
+         AccountEvents.publish(AccountEventType.WITHDRAWAL_REFUSED, store, Money.toDollars(amountCents), Money.toDollars(store.balances[slot]));
+         return TransactionStatus.INACTIVE;
+      }
+      long balance = store.balances[slot];
+      if (!store.catalog.inRange(store.products[slot] & 0xFF, amountCents)) {
+         return TransactionStatus.OUT_OF_RANGE;
+      }
+      if (amountCents > balance) {
+         return TransactionStatus.INSUFFICIENT_FUNDS;
+      }
+      store.balances[slot] = balance - amountCents;
+      store.numOfWithdrawals[slot]++;
+      checkStatus();
+      return TransactionStatus.OK;
+   }
+
+   /**
+    * Adds one month of interest to the balance, rounded to a whole cent.
+    */
+   public void calcInterest() {
+      long interest = Money.monthlyInterest(store.balances[slot], store.annualInterestRates[slot]);
+      store.balances[slot] += interest;
+      AccountEvents.publish(AccountEventType.INTEREST_CREDITED, store, Money.toDollars(interest), Money.toDollars(store.balances[slot]));
+   }
+
+   /**
+    * Processes the monthly activities for the account: charges the product's monthly fee
+    * and its fees for withdrawals above the free count, subtracts the monthly service
+    * charges, adds interest, resets the counts and deactivates the account if the
+    * balance fell below the product's minimum.
+    */
+   public void monthlyProcess() {
+      AccountStore s = store;
+      int i = slot;
+      int product = s.products[i] & 0xFF;
+      s.monthlyServiceCharges[i] += s.catalog.monthlyCharges(product, s.numOfWithdrawals[i]);
+      s.balances[i] -= s.monthlyServiceCharges[i];
+      if (s.monthlyServiceCharges[i] != 0) {
+         AccountEvents.publish(AccountEventType.FEE_APPLIED, s, Money.toDollars(s.monthlyServiceCharges[i]), Money.toDollars(s.balances[i]));
+      }
+      calcInterest();
+      s.numOfDeposits[i] = 0;
+      s.numOfWithdrawals[i] = 0;
+      s.monthlyServiceCharges[i] = 0;
+      if (!s.catalog.isActive(product, s.balances[i])) {
+         s.status[i] = false;
+      }
+   }
+
+   private void checkStatus() {
+      store.status[slot] = store.catalog.isActive(store.products[slot] & 0xFF, store.balances[slot]);
+      if (!store.status[slot]) {
+         AccountEvents.publish(AccountEventType.ACCOUNT_INACTIVE, store, 0, Money.toDollars(store.balances[slot]));
+      }
+   }
+
+   /**
+    * Returns a formatted string representation of the account the view points at.
+    *
+    * @return A string representation of the account.
+    */
+   @Override
+   public String toString() {
+      return String.format("Balance: %s\nNumber of Deposit: %s \nNumber of withdrawls: %s", Money.format(getBalance()), getNumOfDeposits(), getNumOfWithdrawals());
+   }
+}
@@ -4,6 +4,8 @@
 //   Final Project
 //*****************************************
 
+package bank;
+
 /**
  * The Application class represents the main application for managing a savings account.
  * It allows the user to initialize a savings account, perform various transactions,
@@ -14,25 +16,70 @@
  * The main method initializes a SavingsAccount, handles user interactions, performs monthly processing,
  * and saves/retrieves account data to/from a binary file using object serialization.
  *
+ * Batch mode:
+ * java -jar core/target/savings-core.jar --batch transactions.csv [rejects.csv]
+ * streams a transaction file through a multi-account ledger without opening the menu
+ * (see TransactionFileProcessor for the file format). Rejected lines are written to the
+ * rejects file, or to standard error if no rejects file is given.
+ *
+ * Server mode:
+ * java -jar core/target/savings-core.jar --serve port [host [file]]
+ * serves a multi-account ledger over TCP (see AccountServer for the protocol) until the
+ * process is stopped. The host defaults to 127.0.0.1. The accounts are loaded from the
+ * file, accounts-port.dat by default, and saved to it when the process stops, so every
+ * server process keeps its own file.
+ *
+ * Router mode:
+ * java -jar core/target/savings-core.jar --route port host:port[,host:port...] [host]
+ * spreads accounts over several servers and forwards each request to the one that owns
+ * the account (see PartitionRouter). More servers can be added while it runs.
+ *
  * Important Note:
  * The application uses exception handling to manage invalid deposit and withdrawal amounts.
- * It expects the existence of a binary file named "savingsAccount.dat" for storing account data.
+ * It expects the existence of a binary file named "savingsAccount.dat" for storing account data;
+ * -Dbank.file=path uses another file.
  */
 
 
 import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
 
 public class Application {
-   private static final String FILE_NAME = "savingsAccount.dat";
+   private static final String FILE_NAME = System.getProperty("bank.file", "savingsAccount.dat");
 
    /**
     * The main method initializes a `SavingsAccount`, handles user interactions, performs monthly processing,
     * and saves/retrieves account data to/from a binary file using object serialization.
     *
-    * @param args Command line arguments (not used).
+    * @param args Command line arguments; {@code --batch <file> [rejects]} runs batch mode and
+    *             {@code --serve <port> [host [file]]} runs server mode and
+    *             {@code --route <port> <partitions> [host]} runs router mode instead.
     */
    public static void main(String[] args) {
+      try {
+         Metrics.registerMBeans();
+      } catch (JMException e) {
+         System.err.println("metrics are not available over JMX: " + e.getMessage());
+      }
+      if (args.length > 0 && args[0].equals("--batch")) {
+         runBatch(args);
+         return;
+      }
+      if (args.length > 0 && args[0].equals("--serve")) {
+         runServer(args);
+         return;
+      }
+      if (args.length > 0 && args[0].equals("--route")) {
+         runRouter(args);
+         return;
+      }
       try {
          // A. Declare an object of the SavingsAccount class.
          SavingsAccount savingsAccount = initializeSavingsAccount();
@@ -58,6 +105,122 @@ public class Application {
       }
    }
    
+   /**
+    * Runs the non-interactive batch mode: streams a transaction file through a new `Ledger`
+    * and prints a summary. The menu is never shown.
+    *
+    * @param args The command line arguments, starting with {@code --batch}.
+    */
+   private static void runBatch(String[] args) {
+      if (args.length < 2) {
+         System.out.println("Usage: java -jar savings-core.jar --batch transactions.csv [rejects.csv]");
+         System.exit(2);
+      }
+      OutputStream rejectTarget = System.err;
+      try {
+         if (args.length > 2) {
+            rejectTarget = new FileOutputStream(args[2]);
+         }
+         // Account events are only counted in batch mode, off the transaction path.
+         long[] eventCounts = new long[AccountEventType.values().length];
+         AsyncEventSink events = new AsyncEventSink(event -> eventCounts[event.getType().ordinal()]++,
+               1 << 16, AsyncEventSink.OverflowPolicy.DROP);
+         AccountEventSink previousSink = AccountEvents.setSink(events);
+         // -Dbank.metrics.file=<path> keeps a metrics report there, rewritten every second.
+         String metricsFile = System.getProperty("bank.metrics.file");
+         MetricsReporter reporter = metricsFile == null ? null : new MetricsReporter(Path.of(metricsFile), 1, TimeUnit.SECONDS);
+         try (OutputStream rejects = new BufferedOutputStream(rejectTarget, 1 << 16)) {
+            Ledger ledger = new Ledger();
+            TransactionFileProcessor processor = new TransactionFileProcessor(ledger, rejects);
+            long start = System.nanoTime();
+            processor.process(Path.of(args[1]));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long total = processor.getApplied() + processor.getRejected();
+            System.out.printf("Processed %,d transactions in %.3f s (%,.0f per second)\n", total, seconds, total / seconds);
+            System.out.printf("Applied: %,d  Rejected: %,d  Accounts: %,d\n", processor.getApplied(), processor.getRejected(), ledger.size());
+         } finally {
+            AccountEvents.setSink(previousSink);
+            events.close();
+            if (reporter != null) {
+               reporter.close();
+            }
+         }
+         System.out.print("Events:");
+         for (AccountEventType type : AccountEventType.values()) {
+            System.out.printf(" %s=%,d", type, eventCounts[type.ordinal()]);
+         }
+         System.out.printf(" (dropped %,d)\n", events.droppedCount());
+      } catch (IOException e) {
+         System.out.println("Error: " + e.getMessage());
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Runs the server mode: serves a `ConcurrentLedger` over TCP until the process is
+    * stopped, loading it from its file first and saving it there at the end.
+    *
+    * @param args The command line arguments, starting with {@code --serve}.
+    */
+   private static void runServer(String[] args) {
+      if (args.length < 2) {
+         System.out.println("Usage: java -jar savings-core.jar --serve port [host [file]]");
+         System.exit(2);
+      }
+      // Clients get the outcome in the reply; warnings on the server console would serialize them.
+      AccountEvents.setSink(AccountEvents.DISCARD);
+      String host = args.length > 2 ? args[2] : "127.0.0.1";
+      Path file = Path.of(args.length > 3 ? args[3] : "accounts-" + args[1] + ".dat");
+      try {
+         ConcurrentLedger ledger = Files.exists(file) ? ConcurrentLedger.load(file) : new ConcurrentLedger();
+         AccountServer server = new AccountServer(ledger, new InetSocketAddress(host, Integer.parseInt(args[1])));
+         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+               server.close();
+               ledger.save(file);
+            } catch (IOException e) {
+               System.err.println("cannot save the accounts to " + file + ": " + e.getMessage());
+            }
+         }));
+         System.out.printf("Serving %,d accounts on %s:%d with %s threads\n", ledger.size(), host, server.getPort(),
+               server.usesVirtualThreads() ? "virtual" : "platform");
+         Thread.currentThread().join();
+      } catch (IOException | NumberFormatException e) {
+         System.out.println("Error: " + e.getMessage());
+         System.exit(1);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Runs the router mode: forwards requests to the partition servers until the process
+    * is stopped.
+    *
+    * @param args The command line arguments, starting with {@code --route}.
+    */
+   private static void runRouter(String[] args) {
+      if (args.length < 3) {
+         System.out.println("Usage: java -jar savings-core.jar --route port host:port[,host:port...] [host]");
+         System.exit(2);
+      }
+      String host = args.length > 3 ? args[3] : "127.0.0.1";
+      try {
+         List<InetSocketAddress> partitions = new ArrayList<>();
+         for (String partition : args[2].split(",")) {
+            partitions.add(PartitionRouter.parseAddress(partition));
+         }
+         AccountServer server = new AccountServer(new PartitionRouter(partitions), new InetSocketAddress(host, Integer.parseInt(args[1])));
+         System.out.printf("Routing to %d partitions on %s:%d\n", partitions.size(), host, server.getPort());
+         Thread.currentThread().join();
+      } catch (IOException | IllegalArgumentException e) {
+         System.out.println("Error: " + e.getMessage());
+         System.exit(1);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
    /**
     * Initializes a `SavingsAccount` by prompting the user for initial balance,
     * interest rate, and monthly charge. Handles exceptions for invalid input
@@ -239,8 +402,8 @@ public class Application {
     * @throws IOException If an I/O error occurs during serialization.
     */
    private static void writeObj(SavingsAccount savingsAccount) throws IOException {
-      try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(FILE_NAME))) {
-         outputStream.writeObject(savingsAccount);
+      try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(FILE_NAME))) {
+         AccountSerialization.write(savingsAccount, outputStream);
       }
    }
 
@@ -253,8 +416,8 @@ public class Application {
     * @throws ClassNotFoundException If the class of the serialized object cannot be found.
     */
    private static SavingsAccount readObj() throws IOException, ClassNotFoundException {
-      try (ObjectInputStream inputStream = new ObjectInputStream(new FileInputStream(FILE_NAME))) {
-         return (SavingsAccount) inputStream.readObject();
+      try (InputStream inputStream = new BufferedInputStream(new FileInputStream(FILE_NAME))) {
+         return AccountSerialization.read(inputStream);
       }
    }
 }
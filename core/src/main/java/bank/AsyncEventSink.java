@@ -0,0 +1,184 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The AsyncEventSink class is a bounded, lock-free ring buffer of account events with one
+ * background consumer thread. Any number of threads can publish: a publisher claims the
+ * next sequence number with a compare-and-set, fills the preallocated event in that slot
+ * and marks the slot as published. The consumer hands events to the listener in sequence
+ * order. Publishing never locks and never allocates.
+ *
+ * When the ring is full, the {@link OverflowPolicy} decides whether the event is dropped
+ * (and counted) or the publisher waits for the consumer to make room.
+ */
+public class AsyncEventSink implements AccountEventSink, Closeable {
+   private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+   private static final long IDLE_PARK_NANOS = 50_000;
+   // Set as the next sequence once the sink is closed, so the ring looks full and every
+   // later claim fails and is counted as dropped.
+   private static final long SEALED = Long.MAX_VALUE;
+
+   /**
+    * What to do with an event when the ring is full.
+    */
+   public enum OverflowPolicy {
+      /** Drop the event and count it in {@link #droppedCount()}. */
+      DROP,
+      /** Wait until the consumer has made room. */
+      BLOCK
+   }
+
+   private final AccountEvent[] ring;
+   private final long[] published;
+   private final int mask;
+   private final AccountEventListener listener;
+   private final OverflowPolicy policy;
+   private final AtomicLong next = new AtomicLong();
+   private final LongAdder dropped = new LongAdder();
+   private final Thread consumer;
+   private volatile long consumed;
+   private volatile boolean running = true;
+
+   /**
+    * Constructs a sink and starts its consumer thread.
+    *
+    * @param listener The listener that receives the events.
+    * @param capacity The number of slots, rounded up to a power of two.
+    * @param policy   What to do when the ring is full.
+    */
+   public AsyncEventSink(AccountEventListener listener, int capacity, OverflowPolicy policy) {
+      if (capacity < 1 || capacity > (1 << 30)) {
+         throw new IllegalArgumentException("capacity should be between 1 and 2^30.");
+      }
+      int size = 1;
+      while (size < capacity) {
+         size <<= 1;
+      }
+      ring = new AccountEvent[size];
+      published = new long[size];
+      for (int i = 0; i < size; i++) {
+         ring[i] = new AccountEvent();
+         published[i] = -1;
+      }
+      mask = size - 1;
+      this.listener = listener;
+      this.policy = policy;
+      consumer = new Thread(this::consume, "account-events");
+      consumer.setDaemon(true);
+      consumer.start();
+   }
+
+   /**
+    * Publishes an event without locking or allocating.
+    *
+    * @param type    The kind of event.
+    * @param source  The account the event is about.
+    * @param amount  The amount involved, or 0.
+    * @param balance The balance after the event.
+    */
+   @Override
+   public void publish(AccountEventType type, Object source, double amount, double balance) {
+      if (!running) {
+         dropped.increment();
+         return;
+      }
+      long sequence;
+      while (true) {
+         sequence = next.get();
+         if (sequence - consumed >= ring.length) {
+            if (policy == OverflowPolicy.DROP || !running) {
+               dropped.increment();
+               return;
+            }
+            Thread.onSpinWait();
+            continue;
+         }
+         if (next.compareAndSet(sequence, sequence + 1)) {
+            break;
+         }
+      }
+      int index = (int) sequence & mask;
+      ring[index].set(type, source, amount, balance, sequence);
+      PUBLISHED.setRelease(published, index, sequence);
+   }
+
+   /**
+    * Returns how many events were dropped because the ring was full.
+    *
+    * @return The number of dropped events.
+    */
+   public long droppedCount() {
+      return dropped.sum();
+   }
+
+   /**
+    * Returns how many events the listener has received.
+    *
+    * @return The number of delivered events.
+    */
+   public long deliveredCount() {
+      return consumed;
+   }
+
+   /**
+    * Returns the number of slots in the ring.
+    *
+    * @return The capacity.
+    */
+   public int capacity() {
+      return ring.length;
+   }
+
+   /**
+    * Stops accepting events, delivers every event already claimed and stops the consumer.
+    * Events published from now on are counted as dropped.
+    */
+   @Override
+   public void close() {
+      running = false;
+      LockSupport.unpark(consumer);
+      try {
+         consumer.join();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void consume() {
+      long sequence = consumed;
+      int idle = 0;
+      while (true) {
+         int index = (int) sequence & mask;
+         if ((long) PUBLISHED.getAcquire(published, index) == sequence) {
+            AccountEvent event = ring[index];
+            try {
+               listener.onEvent(event);
+            } catch (RuntimeException e) {
+               // A failing listener must not stop delivery of later events.
+            }
+            event.clear();
+            consumed = ++sequence;
+            idle = 0;
+         } else if (!running && next.compareAndSet(sequence, SEALED)) {
+            // No publisher claimed a slot after the last one delivered, and none can now.
+            return;
+         } else if (++idle < 100) {
+            Thread.onSpinWait();
+         } else {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+         }
+      }
+   }
+}
@@ -0,0 +1,287 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Serializable;
+
+/**
+ * This abstract class represents a generic bank account with basic
+ * functionality. It includes features such as balance, number of deposits,
+ * number of withdrawals, annual interest rate, and monthly service charges.
+ * This class can be extended to create specific types of bank accounts.
+ */
+public abstract class BankAccount implements Serializable {
+   // Pinned to the value the JVM computed for the original class, so files written by
+   // Application.writeObj stay readable when methods are added.
+   private static final long serialVersionUID = -8710109198577124598L;
+   // The largest deposit, withdrawal or opening balance, from the standard product.
+   static final double MAX_AMOUNT = Money.toDollars(AccountProduct.STANDARD.getMaxAmount());
+
+/** Private members
+*/
+   private double balance;
+   private int numOfDeposits;
+   private int numOfWithdrawals;
+   private double annualInterestRate;
+   private double monthlyServiceCharges;
+
+	/**
+	 * Constructs a BankAccount with the specified initial balance and
+	 * annual interest rate.
+	 *
+	 * @param balance            The initial balance of the account.
+	 * @param annualInterestRate The annual interest rate for the account.
+	 * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+	 */
+   public BankAccount(double balance, double annualInterestRate) throws InvalidDepositAmountException {
+      if (!(balance > 0 && balance <= MAX_AMOUNT)) {
+         throw new InvalidDepositAmountException("amount to deposit should be > 0 and < 10,000.");
+      }
+      this.balance = balance;
+      this.annualInterestRate = annualInterestRate;
+   }
+
+
+	/**
+	 * Constructs a BankAccount with the specified initial balance, annual
+	 * interest rate, and monthly service charges.
+	 *
+	 * @param balance               The initial balance of the account.
+	 * @param annualInterestRate    The annual interest rate for the account.
+	 * @param monthlyServiceCharges The monthly service charges for the account.
+	 * @exception InvalidDepositAmountException for Invalid deposit amount
+	 */
+   public BankAccount(double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException {
+      this(balance, annualInterestRate);
+      this.monthlyServiceCharges = monthlyServiceCharges;
+   }
+
+	/**
+	 * Constructs a BankAccount with every field given, without any checks.
+	 * Used to restore an account from a checkpoint.
+	 *
+	 * @param balance               The balance of the account.
+	 * @param numOfDeposits         The number of deposits this month.
+	 * @param numOfWithdrawals      The number of withdrawals this month.
+	 * @param annualInterestRate    The annual interest rate for the account.
+	 * @param monthlyServiceCharges The monthly service charges for the account.
+	 */
+   BankAccount(double balance, int numOfDeposits, int numOfWithdrawals, double annualInterestRate, double monthlyServiceCharges) {
+      this.balance = balance;
+      this.numOfDeposits = numOfDeposits;
+      this.numOfWithdrawals = numOfWithdrawals;
+      this.annualInterestRate = annualInterestRate;
+      this.monthlyServiceCharges = monthlyServiceCharges;
+   }
+
+	// Accessors and Mutators...
+
+	/**
+	 * Retrieves the balance of the account.
+	 *
+	 * @return The current balance of the account.
+	 */
+   public double getBalance() {
+      return balance;
+   }
+
+	// Other methods...
+
+	/**
+	 * Deposits the specified amount into the account.
+	 *
+	 * @param amount The amount to be deposited.
+	 * @exception InvalidDepositAmountException for Invalid deposit amount
+	 */
+   public void deposit(double amount) throws InvalidDepositAmountException {
+      if (tryDeposit(amount) != TransactionStatus.OK) {
+         throw new InvalidDepositAmountException("amount to deposit should be > 0 and < 10,000.");
+      }
+   }
+
+	/**
+	 * Deposits the specified amount into the account without throwing.
+	 *
+	 * @param amount The amount to be deposited.
+	 * @return {@code OK}, or {@code OUT_OF_RANGE} if the amount is invalid.
+	 */
+   public TransactionStatus tryDeposit(double amount) {
+      TransactionStatus result = checkDeposit(amount);
+      if (result != TransactionStatus.OK) {
+         return result;
+      }
+      balance += amount;
+      numOfDeposits++;
+      return TransactionStatus.OK;
+   }
+
+	/**
+	 * Withdraws the specified amount from the account.
+	 *
+	 * @param amount The amount to be withdrawn.
+	 * @throws InvalidWithdrawalAmountException for Invalid withdrawal amount
+	 */
+   public void withdraw(double amount) throws InvalidWithdrawalAmountException {
+      TransactionStatus result = tryWithdraw(amount);
+      if (result == TransactionStatus.OUT_OF_RANGE || result == TransactionStatus.INSUFFICIENT_FUNDS) {
+         throw new InvalidWithdrawalAmountException("there is no enough money to be withdraw.");
+      }
+   }
+
+	/**
+	 * Withdraws the specified amount from the account without throwing.
+	 *
+	 * @param amount The amount to be withdrawn.
+	 * @return {@code OK}, {@code OUT_OF_RANGE} or {@code INSUFFICIENT_FUNDS}.
+	 */
+   public TransactionStatus tryWithdraw(double amount) {
+      TransactionStatus result = checkWithdraw(amount);
+      if (result != TransactionStatus.OK) {
+         return result;
+      }
+      balance -= amount;
+      numOfWithdrawals++;
+      return TransactionStatus.OK;
+   }
+
+	/**
+	 * Returns what {@link #tryDeposit(double)} would return, without changing anything.
+	 *
+	 * @param amount The amount to be deposited.
+	 * @return {@code OK}, or {@code OUT_OF_RANGE} if the amount is invalid.
+	 */
+   TransactionStatus checkDeposit(double amount) {
+      if (!(amount > 0 && amount <= MAX_AMOUNT)) {
+         return TransactionStatus.OUT_OF_RANGE;
+      }
+      return TransactionStatus.OK;
+   }
+
+	/**
+	 * Returns what {@link #tryWithdraw(double)} of this class would return, without
+	 * changing anything.
+	 *
+	 * @param amount The amount to be withdrawn.
+	 * @return {@code OK}, {@code OUT_OF_RANGE} or {@code INSUFFICIENT_FUNDS}.
+	 */
+   TransactionStatus checkWithdraw(double amount) {
+      if (!(amount > 0 && amount <= MAX_AMOUNT)) {
+         return TransactionStatus.OUT_OF_RANGE;
+      }
+      if (amount > balance) {
+         return TransactionStatus.INSUFFICIENT_FUNDS;
+      }
+      return TransactionStatus.OK;
+   }
+
+	/**
+	 * Moves the specified amount from this account into another one, as one
+	 * withdrawal here and one deposit there. Either both happen or neither does:
+	 * the amount is checked before anything changes, and a refused withdrawal
+	 * leaves the target untouched. Callers that share accounts between threads
+	 * must hold both accounts' locks.
+	 *
+	 * @param target The account to be credited.
+	 * @param amount The amount to be moved.
+	 * @return {@code OK}, or the reason the withdrawal from this account was refused.
+	 */
+   public TransactionStatus tryTransfer(BankAccount target, double amount) {
+      if (target == this) {
+         throw new IllegalArgumentException("cannot transfer to the same account.");
+      }
+      if (!(amount > 0 && amount <= MAX_AMOUNT)) {
+         return TransactionStatus.OUT_OF_RANGE;
+      }
+      TransactionStatus result = tryWithdraw(amount);
+      if (result == TransactionStatus.OK) {
+         target.tryDeposit(amount); // In range, so a deposit cannot be refused.
+      }
+      return result;
+   }
+
+	/**
+	 * Calculates and updates the balance by adding monthly interest based on the
+	 * annual interest rate.
+	 */
+   public void calcInterest() {
+      double monthlyInterestRate = annualInterestRate / 12;
+      double monthlyInterest = balance * monthlyInterestRate;
+      balance += monthlyInterest;
+      AccountEvents.publish(AccountEventType.INTEREST_CREDITED, this, monthlyInterest, balance);
+   }
+
+	/**
+	 * Processes the monthly activities for the account, including subtracting
+	 * monthly service charges, calculating monthly interest, and resetting counts.
+	 */
+   public void monthlyProcess() {
+      balance -= monthlyServiceCharges;
+      if (monthlyServiceCharges != 0) {
+         AccountEvents.publish(AccountEventType.FEE_APPLIED, this, monthlyServiceCharges, balance);
+      }
+      calcInterest();
+      numOfDeposits = 0;
+      numOfWithdrawals = 0;
+      monthlyServiceCharges = 0;
+   }
+
+	/**
+	 * Returns the number of deposits for the month.
+	 *
+	 * @return The number of deposits made in the current month.
+	 */
+   protected int getNumOfDeposits() {
+      return numOfDeposits;
+   }
+
+	/**
+	 * Returns the number of withdrawals for the month.
+	 *
+	 * @return The number of withdrawals made in the current month.
+	 */
+   protected int getNumOfWithdrawals() {
+      return numOfWithdrawals;
+   }
+
+	/**
+	 * Returns the annual interest rate of the account.
+	 *
+	 * @return The annual interest rate for the account.
+	 */
+   protected double getAnnualInterestRate() {
+      return annualInterestRate;
+   }
+
+	/**
+	 * Returns the monthly service charges for the account.
+	 *
+	 * @return The monthly service charges for the account.
+	 */
+   protected double getMonthlyServiceCharges() {
+      return monthlyServiceCharges;
+   }
+
+	/**
+	 * Updates the monthly service charges for the account.
+	 *
+	 * @param additionalCharges The additional charges to be added to the monthly
+	 *                          service charges.
+	 */
+   protected void updateMonthlyServiceCharges(double additionalCharges) {
+      monthlyServiceCharges += additionalCharges;
+   }
+
+	/**
+	 * Returns a formatted string representation of the {@code BankAccount} object.
+	 *
+	 * @return A string representation of the object.
+	 */
+   @Override
+   public String toString() {
+      return String.format("Balance: $%.2f\nNumber of Deposit: %s \nNumber of withdrawls: %s", balance, numOfDeposits, numOfWithdrawals);
+   }
+}
@@ -0,0 +1,632 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The CheckpointedLedger class is a journaled {@link Ledger} kept in a directory, whose
+ * restart cost is bounded by checkpoints instead of the whole history.
+ *
+ * The journal is split into numbered segments ({@code journal-N.log}). A checkpoint
+ * rolls the journal to a new segment, and that roll is the checkpoint's log position:
+ * the checkpoint file ({@code checkpoint-N.ckpt}) holds the state of the accounts exactly
+ * as it was at the roll, so recovery loads the checkpoints and replays only the segments
+ * from the roll on. Segments before the roll are deleted once the checkpoint is durable.
+ *
+ * A change is made in memory, and its account marked for the next checkpoint, only once
+ * its record is appended to the journal, so a failed append leaves the ledger as it was
+ * and no checkpoint can make a change durable that the journal does not have.
+ *
+ * Writers are not stopped while a checkpoint is written. The roll takes the ledger's lock
+ * for a moment; after it, the first change to an account that the checkpoint has not yet
+ * copied makes a copy of the account first (copy-on-write), so the checkpoint still sees
+ * the state at the roll. Most checkpoints are incremental and hold only the accounts
+ * changed since the previous one; every {@code fullEvery} checkpoints a full one is
+ * written and the older checkpoint files are deleted.
+ */
+public class CheckpointedLedger implements Closeable {
+   static final int MAGIC = 0x53434b50; // "SCKP"
+   static final int VERSION = 1;
+
+   private static final String SEGMENT_PREFIX = "journal-";
+   private static final String SEGMENT_SUFFIX = ".log";
+   private static final String CHECKPOINT_PREFIX = "checkpoint-";
+   private static final String CHECKPOINT_SUFFIX = ".ckpt";
+
+   // Marks an account that must be in the next checkpoint but has not been copied yet.
+   private static final AccountSnapshot PENDING = new AccountSnapshot(0, 0, 0, 0, 0, false);
+
+   // Number of accounts copied per hold of the ledger's lock while capturing.
+   private static final int CAPTURE_BATCH = 256;
+
+   private final Path directory;
+   private final JournalConfig config;
+   private final int fullEvery;
+   private final Ledger ledger;
+   private final Object checkpointLock = new Object();
+
+   // Guarded by ledger.
+   private TransactionJournal journal;
+   private long segment;
+   private LongObjectHashMap<AccountSnapshot> dirty = new LongObjectHashMap<>();
+   private LongObjectHashMap<AccountSnapshot> capturing;
+
+   // Guarded by checkpointLock.
+   private long nextCheckpoint;
+   private int sinceFull;
+   private long checkpoints;
+   private long lastCheckpointAccounts;
+
+   private ScheduledExecutorService scheduler;
+
+   private CheckpointedLedger(Path directory, JournalConfig config, int fullEvery, Ledger ledger) {
+      this.directory = directory;
+      this.config = config;
+      this.fullEvery = fullEvery;
+      this.ledger = ledger;
+   }
+
+   /**
+    * Opens a checkpointed ledger in a directory, creating the directory if needed. The
+    * ledger is rebuilt from the newest full checkpoint, the incremental checkpoints after
+    * it and the journal segments after the last checkpoint. New changes go to a new
+    * segment.
+    *
+    * @param directory The directory holding the journal segments and checkpoints.
+    * @param config    The durability settings of the journal.
+    * @param fullEvery Write a full checkpoint after this many incremental ones.
+    * @return The ledger.
+    * @throws IOException If the directory cannot be read, or a file in it is damaged.
+    */
+   public static CheckpointedLedger open(Path directory, JournalConfig config, int fullEvery) throws IOException {
+      if (fullEvery < 0) {
+         throw new IllegalArgumentException("fullEvery must be >= 0.");
+      }
+      Files.createDirectories(directory);
+      Ledger ledger = new Ledger();
+      CheckpointedLedger result = new CheckpointedLedger(directory, config, fullEvery, ledger);
+
+      List<Long> checkpointFiles = list(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+      int first = 0;
+      for (int i = checkpointFiles.size() - 1; i >= 0; i--) {
+         if (isFull(result.checkpointPath(checkpointFiles.get(i)))) {
+            first = i;
+            break;
+         }
+      }
+      long replayFrom = 0;
+      for (int i = first; i < checkpointFiles.size(); i++) {
+         long number = checkpointFiles.get(i);
+         replayFrom = load(result.checkpointPath(number), ledger);
+         result.nextCheckpoint = number + 1;
+         result.sinceFull = i - first;
+      }
+
+      long lastSegment = replayFrom - 1;
+      for (long number : list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+         if (number >= replayFrom) {
+            TransactionJournal.replay(result.segmentPath(number), (op, accountId, amount, rate, charges, lsn) -> {
+               JournaledLedger.apply(ledger, op, accountId, amount, rate, charges, lsn);
+               result.markDirty(op, accountId);
+            });
+         }
+         lastSegment = Math.max(lastSegment, number);
+      }
+      result.segment = lastSegment + 1;
+      result.journal = new TransactionJournal(result.segmentPath(result.segment), config);
+      return result;
+   }
+
+   /**
+    * Opens a new savings account and records it in the journal.
+    *
+    * @param accountId             The ID of the new account.
+    * @param balance               The initial balance of the account.
+    * @param annualInterestRate    The annual interest rate for the account.
+    * @param monthlyServiceCharges The monthly service charges for the account.
+    * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+    * @throws IOException If the journal cannot be written.
+    */
+   public void open(long accountId, double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException, IOException {
+      TransactionJournal target;
+      long lsn;
+      synchronized (ledger) {
+         if (ledger.contains(accountId)) {
+            throw new IllegalArgumentException("account " + accountId + " already exists.");
+         }
+         SavingsAccount account = new SavingsAccount(balance, annualInterestRate, monthlyServiceCharges);
+         target = journal;
+         lsn = target.appendOpen(accountId, balance, annualInterestRate, monthlyServiceCharges);
+         ledger.add(accountId, account);
+         dirty.put(accountId, PENDING);
+      }
+      target.commit(lsn);
+   }
+
+   /**
+    * Deposits the specified amount into an account and records it in the journal.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be deposited.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @exception InvalidDepositAmountException for Invalid deposit amount
+    * @throws IOException If the journal cannot be written.
+    */
+   public void deposit(long accountId, double amount) throws AccountNotFoundException, InvalidDepositAmountException, IOException {
+      TransactionJournal target;
+      long lsn;
+      synchronized (ledger) {
+         SavingsAccount account = ledger.account(accountId);
+         if (account.checkDeposit(amount) != TransactionStatus.OK) {
+            throw new InvalidDepositAmountException("amount to deposit should be > 0 and < 10,000.");
+         }
+         target = journal;
+         lsn = target.append(TransactionJournal.DEPOSIT, accountId, amount);
+         beforeChange(accountId, account);
+         account.tryDeposit(amount);
+         dirty.put(accountId, PENDING);
+      }
+      target.commit(lsn);
+   }
+
+   /**
+    * Withdraws the specified amount from an account and records it in the journal.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be withdrawn.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @exception InvalidWithdrawalAmountException for Invalid withdrawal amount
+    * @throws IOException If the journal cannot be written.
+    */
+   public void withdraw(long accountId, double amount) throws AccountNotFoundException, InvalidWithdrawalAmountException, IOException {
+      TransactionJournal target;
+      long lsn;
+      synchronized (ledger) {
+         SavingsAccount account = ledger.account(accountId);
+         if (!account.isStatus()) {
+            account.tryWithdraw(amount); // Refused without a change, so there is nothing to record.
+            return;
+         }
+         if (account.checkWithdraw(amount) != TransactionStatus.OK) {
+            throw new InvalidWithdrawalAmountException("there is no enough money to be withdraw.");
+         }
+         target = journal;
+         lsn = target.append(TransactionJournal.WITHDRAW, accountId, amount);
+         beforeChange(accountId, account);
+         account.tryWithdraw(amount);
+         dirty.put(accountId, PENDING);
+      }
+      target.commit(lsn);
+   }
+
+   /**
+    * Runs the monthly process on one account and records it in the journal.
+    *
+    * @param accountId The ID of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @throws IOException If the journal cannot be written.
+    */
+   public void monthlyProcess(long accountId) throws AccountNotFoundException, IOException {
+      TransactionJournal target;
+      long lsn;
+      synchronized (ledger) {
+         SavingsAccount account = ledger.account(accountId);
+         target = journal;
+         lsn = target.append(TransactionJournal.MONTHLY_PROCESS, accountId, 0);
+         beforeChange(accountId, account);
+         account.monthlyProcess();
+         dirty.put(accountId, PENDING);
+      }
+      target.commit(lsn);
+   }
+
+   /**
+    * Runs the monthly process on every account and records it as one journal record.
+    *
+    * @throws IOException If the journal cannot be written.
+    */
+   public void monthEnd() throws IOException {
+      TransactionJournal target;
+      long lsn;
+      synchronized (ledger) {
+         target = journal;
+         lsn = target.append(TransactionJournal.MONTH_END, -1, 0);
+         ledger.forEach((id, account) -> {
+            beforeChange(id, account);
+            account.monthlyProcess();
+            dirty.put(id, PENDING);
+         });
+      }
+      target.commit(lsn);
+   }
+
+   /**
+    * Retrieves the balance of an account.
+    *
+    * @param accountId The ID of the account.
+    * @return The current balance of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public double getBalance(long accountId) throws AccountNotFoundException {
+      synchronized (ledger) {
+         return ledger.getBalance(accountId);
+      }
+   }
+
+   /**
+    * Returns the number of accounts in the ledger.
+    *
+    * @return The number of accounts.
+    */
+   public int size() {
+      synchronized (ledger) {
+         return ledger.size();
+      }
+   }
+
+   /**
+    * Returns the number of accounts changed since the last checkpoint started.
+    *
+    * @return The number of dirty accounts.
+    */
+   public int dirtyCount() {
+      synchronized (ledger) {
+         return dirty.size();
+      }
+   }
+
+   /**
+    * Returns the number of checkpoints written since the ledger was opened.
+    *
+    * @return The number of checkpoints.
+    */
+   public long checkpointCount() {
+      synchronized (checkpointLock) {
+         return checkpoints;
+      }
+   }
+
+   /**
+    * Returns the number of accounts written by the last checkpoint.
+    *
+    * @return The number of accounts, or 0 if no checkpoint has been written.
+    */
+   public long lastCheckpointAccounts() {
+      synchronized (checkpointLock) {
+         return lastCheckpointAccounts;
+      }
+   }
+
+   /**
+    * Writes a checkpoint while writers keep running, then deletes the journal segments
+    * and checkpoint files it makes unnecessary. Only one checkpoint runs at a time.
+    *
+    * @return The number of accounts written.
+    * @throws IOException If the checkpoint cannot be written. The accounts it was to hold
+    *                     stay dirty and the journal is kept, so nothing is lost.
+    */
+   public long checkpoint() throws IOException {
+      synchronized (checkpointLock) {
+         boolean full = nextCheckpoint == 0 || sinceFull >= fullEvery;
+         LongObjectHashMap<AccountSnapshot> frozen;
+         TransactionJournal previous;
+         long cut;
+         synchronized (ledger) {
+            if (full) {
+               LongObjectHashMap<AccountSnapshot> all = new LongObjectHashMap<>(ledger.size());
+               ledger.forEach((id, account) -> all.put(id, PENDING));
+               frozen = all;
+            } else {
+               frozen = dirty;
+            }
+            TransactionJournal next = new TransactionJournal(segmentPath(segment + 1), config);
+            previous = journal;
+            journal = next;
+            cut = ++segment;
+            dirty = new LongObjectHashMap<>();
+            capturing = frozen;
+         }
+         try {
+            previous.close();
+            capture(frozen);
+            write(checkpointPath(nextCheckpoint), frozen, cut, full);
+         } catch (IOException | RuntimeException e) {
+            synchronized (ledger) {
+               capturing = null;
+               for (int slot = 0; slot < frozen.capacity(); slot++) {
+                  if (frozen.isUsed(slot) && ledger.contains(frozen.keyAt(slot))) {
+                     dirty.put(frozen.keyAt(slot), PENDING);
+                  }
+               }
+            }
+            throw e;
+         }
+
+         long number = nextCheckpoint++;
+         sinceFull = full ? 0 : sinceFull + 1;
+         checkpoints++;
+         lastCheckpointAccounts = frozen.size();
+         if (full) {
+            for (long older : list(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX)) {
+               if (older < number) {
+                  Files.deleteIfExists(checkpointPath(older));
+               }
+            }
+         }
+         for (long older : list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (older < cut) {
+               Files.deleteIfExists(segmentPath(older));
+            }
+         }
+         return frozen.size();
+      }
+   }
+
+   /**
+    * Starts writing checkpoints in the background at a fixed interval. A failed
+    * checkpoint is retried at the next interval.
+    *
+    * @param period The time between checkpoints.
+    * @param unit   The unit of the period.
+    */
+   public synchronized void startCheckpointing(long period, TimeUnit unit) {
+      if (scheduler != null) {
+         throw new IllegalStateException("checkpointing is already running.");
+      }
+      scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+         Thread thread = new Thread(task, "ledger-checkpointer");
+         thread.setDaemon(true);
+         return thread;
+      });
+      scheduler.scheduleWithFixedDelay(() -> {
+         try {
+            checkpoint();
+         } catch (IOException e) {
+            System.err.println("checkpoint failed: " + e.getMessage());
+         }
+      }, period, period, unit);
+   }
+
+   /**
+    * Stops background checkpointing, forces the remaining journal records to disk and
+    * closes the journal. No checkpoint is written; the next open replays the journal
+    * written since the last one.
+    *
+    * @throws IOException If the last records cannot be written.
+    */
+   @Override
+   public void close() throws IOException {
+      synchronized (this) {
+         if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+               scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+         }
+      }
+      synchronized (checkpointLock) {
+         synchronized (ledger) {
+            journal.close();
+         }
+      }
+   }
+
+   /**
+    * Copies an account into the running checkpoint before its first change after the
+    * roll. Called with the ledger's lock held.
+    */
+   private void beforeChange(long accountId, SavingsAccount account) {
+      if (capturing != null && capturing.get(accountId) == PENDING) {
+         capturing.put(accountId, AccountSnapshot.of(account));
+      }
+   }
+
+   /**
+    * Copies every account of a checkpoint that writers have not copied already. The
+    * lock is taken per batch of slots so writers are only held up briefly; replacing the
+    * value of an existing key never moves slots, so the scan stays valid between batches.
+    */
+   private void capture(LongObjectHashMap<AccountSnapshot> frozen) {
+      int capacity = frozen.capacity();
+      for (int start = 0; start < capacity; start += CAPTURE_BATCH) {
+         int end = Math.min(capacity, start + CAPTURE_BATCH);
+         synchronized (ledger) {
+            for (int slot = start; slot < end; slot++) {
+               if (frozen.isUsed(slot) && frozen.valueAt(slot) == PENDING) {
+                  long id = frozen.keyAt(slot);
+                  frozen.put(id, AccountSnapshot.of(ledger.find(id)));
+               }
+            }
+         }
+      }
+      synchronized (ledger) {
+         capturing = null;
+      }
+   }
+
+   /**
+    * Marks the account a replayed record changed, so the next incremental checkpoint
+    * covers it.
+    */
+   private void markDirty(byte op, long accountId) {
+      if (op == TransactionJournal.MONTH_END) {
+         ledger.forEach((id, account) -> dirty.put(id, PENDING));
+      } else {
+         dirty.put(accountId, PENDING);
+      }
+   }
+
+   /**
+    * Writes a checkpoint file: first to a temporary file, which is forced and then
+    * renamed into place, so a crash never leaves a partial checkpoint behind. The
+    * directory is forced after the rename, so the checkpoint, and the journal segment
+    * created at its roll, are on disk before anything they replace is deleted.
+    */
+   private void write(Path path, LongObjectHashMap<AccountSnapshot> images, long cut, boolean full) throws IOException {
+      Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+      CRC32 crc = new CRC32();
+      try (OutputStream file = Files.newOutputStream(temp)) {
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+         out.writeInt(MAGIC);
+         out.writeInt(VERSION);
+         out.writeBoolean(full);
+         out.writeLong(cut);
+         out.writeInt(images.size());
+         for (int slot = 0; slot < images.capacity(); slot++) {
+            if (images.isUsed(slot)) {
+               out.writeLong(images.keyAt(slot));
+               images.valueAt(slot).writeTo(out);
+            }
+         }
+         out.flush();
+         new DataOutputStream(file).writeLong(crc.getValue());
+      }
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+         channel.force(true);
+      }
+      Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+         channel.force(true);
+      }
+   }
+
+   /**
+    * Loads a checkpoint file into a ledger, replacing accounts already in it.
+    *
+    * @return The first journal segment not covered by the checkpoint.
+    */
+   private static long load(Path path, Ledger ledger) throws IOException {
+      try (CheckpointReader in = new CheckpointReader(path)) {
+         in.readHeader();
+         ByteBuffer header = in.next(12);
+         long cut = header.getLong();
+         int count = header.getInt();
+         LongObjectHashMap<SavingsAccount> accounts = ledger.accounts();
+         for (int i = 0; i < count; i++) {
+            ByteBuffer record = in.next(8 + AccountSnapshot.SIZE);
+            long id = record.getLong();
+            accounts.put(id, AccountSnapshot.readFrom(record).restore());
+         }
+         long expected = in.crc.getValue();
+         if (in.next(8).getLong() != expected) {
+            throw new IOException(path + " is damaged: checksum mismatch.");
+         }
+         return cut;
+      }
+   }
+
+   private static boolean isFull(Path path) throws IOException {
+      try (CheckpointReader in = new CheckpointReader(path)) {
+         return in.readHeader();
+      }
+   }
+
+   /**
+    * Reads a checkpoint file through one buffer, keeping the checksum of the bytes read.
+    */
+   private static final class CheckpointReader implements Closeable {
+      final CRC32 crc = new CRC32();
+      private final Path path;
+      private final FileChannel channel;
+      private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+      CheckpointReader(Path path) throws IOException {
+         this.path = path;
+         this.channel = FileChannel.open(path, StandardOpenOption.READ);
+         buffer.flip();
+      }
+
+      /**
+       * Checks the magic number and version and returns the full flag.
+       */
+      boolean readHeader() throws IOException {
+         ByteBuffer header = next(9);
+         if (header.getInt() != MAGIC) {
+            throw new IOException(path + " is not a checkpoint file.");
+         }
+         int version = header.getInt();
+         if (version != VERSION) {
+            throw new IOException(path + " has unsupported version " + version + ".");
+         }
+         return header.get() != 0;
+      }
+
+      /**
+       * Makes the next count bytes readable from the returned buffer and adds them to the
+       * checksum.
+       */
+      ByteBuffer next(int count) throws IOException {
+         if (buffer.remaining() < count) {
+            buffer.compact();
+            while (buffer.position() < count) {
+               if (channel.read(buffer) < 0) {
+                  throw new EOFException(path + " is truncated.");
+               }
+            }
+            buffer.flip();
+         }
+         crc.update(buffer.array(), buffer.position(), count);
+         return buffer;
+      }
+
+      @Override
+      public void close() throws IOException {
+         channel.close();
+      }
+   }
+
+   /**
+    * Lists the numbers of the files named prefix + number + suffix, in ascending order.
+    */
+   private static List<Long> list(Path directory, String prefix, String suffix) throws IOException {
+      List<Long> numbers = new ArrayList<>();
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+         for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+               numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+            } catch (NumberFormatException e) {
+               // Not one of ours.
+            }
+         }
+      }
+      Collections.sort(numbers);
+      return numbers;
+   }
+
+   private Path segmentPath(long number) {
+      return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+   }
+
+   private Path checkpointPath(long number) {
+      return directory.resolve(CHECKPOINT_PREFIX + number + CHECKPOINT_SUFFIX);
+   }
+}
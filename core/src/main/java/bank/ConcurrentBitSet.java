@@ -0,0 +1,150 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * The ConcurrentBitSet class is a set of small non-negative integers that threads can
+ * change and read at the same time without locks. Setting or clearing a bit is one
+ * atomic operation on its word, and the number of bits set is kept as they change, so
+ * counting them takes constant time.
+ *
+ * The bits are held in pages of 65,536 that are never moved once made, so growing the
+ * set does not disturb threads working on existing bits. Each page also has a summary
+ * with one bit per word that is set while the word may have bits set, so listing the
+ * bits skips empty words: it takes time proportional to the number of bits set, plus
+ * one step for every 64 words.
+ *
+ * Changes to one bit must not run at the same time as each other; the caller orders
+ * them, for example by holding a lock on the thing the bit stands for. Changes to
+ * different bits need no ordering.
+ */
+class ConcurrentBitSet {
+   private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+   private static final int PAGE_BITS = 16;
+   private static final int WORDS_PER_PAGE = 1 << (PAGE_BITS - 6);
+
+   private final LongAdder count = new LongAdder();
+   private volatile Page[] pages = new Page[0];
+
+   /**
+    * Makes sure the set can hold bits up to and including the given one.
+    *
+    * @param bit The largest bit that will be used.
+    */
+   synchronized void ensureCapacity(int bit) {
+      int needed = (bit >>> PAGE_BITS) + 1;
+      if (needed > pages.length) {
+         Page[] grown = Arrays.copyOf(pages, Math.max(needed, pages.length * 2));
+         for (int i = pages.length; i < grown.length; i++) {
+            grown[i] = new Page();
+         }
+         pages = grown;
+      }
+   }
+
+   /**
+    * Sets a bit.
+    *
+    * @param bit The bit, within the capacity.
+    */
+   void set(int bit) {
+      Page page = pages[bit >>> PAGE_BITS];
+      int word = (bit >>> 6) & (WORDS_PER_PAGE - 1);
+      long mask = 1L << bit;
+      long old = (long) WORDS.getAndBitwiseOr(page.words, word, mask);
+      if ((old & mask) == 0) {
+         count.increment();
+         if (old == 0) {
+            WORDS.getAndBitwiseOr(page.summary, word >>> 6, 1L << word);
+         }
+      }
+   }
+
+   /**
+    * Clears a bit.
+    *
+    * @param bit The bit, within the capacity.
+    */
+   void clear(int bit) {
+      Page page = pages[bit >>> PAGE_BITS];
+      int word = (bit >>> 6) & (WORDS_PER_PAGE - 1);
+      long mask = 1L << bit;
+      long old = (long) WORDS.getAndBitwiseAnd(page.words, word, ~mask);
+      if ((old & mask) != 0) {
+         count.decrement();
+         if (old == mask) {
+            WORDS.getAndBitwiseAnd(page.summary, word >>> 6, ~(1L << word));
+            // Another bit of the word may have been set since; then its summary bit must stay.
+            if ((long) WORDS.getVolatile(page.words, word) != 0) {
+               WORDS.getAndBitwiseOr(page.summary, word >>> 6, 1L << word);
+            }
+         }
+      }
+   }
+
+   /**
+    * Sets or clears a bit.
+    *
+    * @param bit   The bit, within the capacity.
+    * @param value True to set the bit, false to clear it.
+    */
+   void set(int bit, boolean value) {
+      if (value) {
+         set(bit);
+      } else {
+         clear(bit);
+      }
+   }
+
+   /**
+    * Returns the number of bits set.
+    *
+    * @return The count.
+    */
+   int cardinality() {
+      return (int) count.sum();
+   }
+
+   /**
+    * Calls the action with every bit set, in ascending order. Bits changed while the
+    * set is listed may or may not be seen.
+    *
+    * @param action What to do with each bit.
+    */
+   void forEach(IntConsumer action) {
+      Page[] current = pages;
+      for (int p = 0; p < current.length; p++) {
+         Page page = current[p];
+         for (int s = 0; s < page.summary.length; s++) {
+            long words = (long) WORDS.getVolatile(page.summary, s);
+            while (words != 0) {
+               int word = (s << 6) | Long.numberOfTrailingZeros(words);
+               words &= words - 1;
+               long bits = (long) WORDS.getVolatile(page.words, word);
+               while (bits != 0) {
+                  action.accept((p << PAGE_BITS) | (word << 6) | Long.numberOfTrailingZeros(bits));
+                  bits &= bits - 1;
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * The words of one page and their summary.
+    */
+   private static final class Page {
+      final long[] words = new long[WORDS_PER_PAGE];
+      final long[] summary = new long[WORDS_PER_PAGE / 64];
+   }
+}
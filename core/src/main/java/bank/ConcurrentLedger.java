@@ -0,0 +1,472 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The ConcurrentLedger class is a thread-safe collection of savings accounts that
+ * supports transfers between them.
+ *
+ * Every change locks only the accounts it touches, so operations on different
+ * accounts run in parallel. A transfer locks both of its accounts, always the one with
+ * the smaller ID first; because every thread takes account locks in the same order, no
+ * two transfers can wait for each other and concurrent transfers never deadlock.
+ *
+ * Reads do not lock at all. Each account has a {@link StampedLock} used as a seqlock: a
+ * reader notes the lock's stamp, copies the fields, and keeps the copy if no writer took
+ * the lock in between, so reads never block writers or each other. Only a read that
+ * overlapped a write is repeated, under the read lock.
+ *
+ * The accounts are spread over striped maps by a hash of their ID. A stripe is locked
+ * only for a lookup, and never by a thread that already holds an account's lock.
+ *
+ * Every change also updates the ledger's {@link LedgerStatistics} while the account is
+ * locked, so totals and the list of inactive accounts are kept without a scan.
+ */
+public class ConcurrentLedger {
+   private static final int STRIPE_BITS = 6;
+   private static final int STRIPES = 1 << STRIPE_BITS;
+   private static final int MAGIC = 0x4C444752; // "LDGR"
+   private static final int VERSION = 1;
+
+   private final LongObjectHashMap<Entry>[] stripes;
+   private final LedgerStatistics statistics = new LedgerStatistics();
+
+   /**
+    * Constructs an empty ledger.
+    */
+   public ConcurrentLedger() {
+      this(0);
+   }
+
+   /**
+    * Constructs an empty ledger sized for the given number of accounts.
+    *
+    * @param expectedAccounts The number of accounts the ledger is expected to hold.
+    */
+   @SuppressWarnings("unchecked")
+   public ConcurrentLedger(int expectedAccounts) {
+      stripes = (LongObjectHashMap<Entry>[]) new LongObjectHashMap<?>[STRIPES];
+      for (int i = 0; i < STRIPES; i++) {
+         stripes[i] = new LongObjectHashMap<>(expectedAccounts / STRIPES);
+      }
+   }
+
+   /**
+    * Opens a new savings account in the ledger.
+    *
+    * @param accountId             The ID of the new account.
+    * @param balance               The initial balance of the account.
+    * @param annualInterestRate    The annual interest rate for the account.
+    * @param monthlyServiceCharges The monthly service charges for the account.
+    * @return The new `SavingsAccount`. Change it only through the ledger, which locks it
+    *         and keeps the statistics.
+    * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+    */
+   public SavingsAccount open(long accountId, double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException {
+      SavingsAccount account = new SavingsAccount(balance, annualInterestRate, monthlyServiceCharges);
+      add(accountId, account);
+      return account;
+   }
+
+   /**
+    * Deposits the specified amount into an account.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be deposited.
+    * @return {@code OK}, or the reason the deposit was refused.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public TransactionStatus deposit(long accountId, double amount) throws AccountNotFoundException {
+      Entry entry = entry(accountId);
+      long stamp = entry.lock.writeLock();
+      try {
+         entry.checkLive(accountId);
+         double before = entry.account.getBalance();
+         boolean wasActive = entry.account.isStatus();
+         TransactionStatus result = entry.account.tryDeposit(amount);
+         statistics.update(entry.number, before, wasActive, entry.account);
+         return result;
+      } finally {
+         entry.lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Withdraws the specified amount from an account.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be withdrawn.
+    * @return {@code OK}, or the reason the withdrawal was refused.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public TransactionStatus withdraw(long accountId, double amount) throws AccountNotFoundException {
+      Entry entry = entry(accountId);
+      long stamp = entry.lock.writeLock();
+      try {
+         entry.checkLive(accountId);
+         double before = entry.account.getBalance();
+         boolean wasActive = entry.account.isStatus();
+         TransactionStatus result = entry.account.tryWithdraw(amount);
+         statistics.update(entry.number, before, wasActive, entry.account);
+         return result;
+      } finally {
+         entry.lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Moves the specified amount from one account into another, atomically: no other
+    * operation sees one account changed and the other not, and either both change or
+    * neither does.
+    *
+    * @param fromId The ID of the account to be debited.
+    * @param toId   The ID of the account to be credited.
+    * @param amount The amount to be moved.
+    * @return {@code OK}, or the reason the transfer was refused.
+    * @exception AccountNotFoundException If either account does not exist.
+    */
+   public TransactionStatus transfer(long fromId, long toId, double amount) throws AccountNotFoundException {
+      if (fromId == toId) {
+         throw new IllegalArgumentException("cannot transfer to the same account.");
+      }
+      Entry from = entry(fromId);
+      Entry to = entry(toId);
+      Entry first = fromId < toId ? from : to;
+      Entry second = fromId < toId ? to : from;
+      long firstStamp = first.lock.writeLock();
+      try {
+         long secondStamp = second.lock.writeLock();
+         try {
+            from.checkLive(fromId);
+            to.checkLive(toId);
+            double fromBefore = from.account.getBalance();
+            double toBefore = to.account.getBalance();
+            boolean fromWasActive = from.account.isStatus();
+            boolean toWasActive = to.account.isStatus();
+            TransactionStatus result = from.account.tryTransfer(to.account, amount);
+            statistics.update(from.number, fromBefore, fromWasActive, from.account);
+            statistics.update(to.number, toBefore, toWasActive, to.account);
+            return result;
+         } finally {
+            second.lock.unlockWrite(secondStamp);
+         }
+      } finally {
+         first.lock.unlockWrite(firstStamp);
+      }
+   }
+
+   /**
+    * Runs the monthly process on one account.
+    *
+    * @param accountId The ID of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public void monthlyProcess(long accountId) throws AccountNotFoundException {
+      Entry entry = entry(accountId);
+      long stamp = entry.lock.writeLock();
+      try {
+         entry.checkLive(accountId);
+         double before = entry.account.getBalance();
+         boolean wasActive = entry.account.isStatus();
+         double charges = entry.account.monthlyCharges();
+         entry.account.monthlyProcess();
+         statistics.update(entry.number, before, wasActive, entry.account);
+         statistics.feesCharged(charges);
+      } finally {
+         entry.lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Takes an account out of the ledger, for example to move it to another ledger.
+    * Operations that were waiting for the account when it was removed fail as if it had
+    * never existed.
+    *
+    * @param accountId The ID of the account.
+    * @return The state of the account when it was removed.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public AccountSnapshot remove(long accountId) throws AccountNotFoundException {
+      LongObjectHashMap<Entry> stripe = stripe(accountId);
+      Entry entry;
+      synchronized (stripe) {
+         entry = stripe.remove(accountId);
+      }
+      if (entry == null) {
+         throw new AccountNotFoundException("account " + accountId + " does not exist.");
+      }
+      long stamp = entry.lock.writeLock();
+      try {
+         entry.removed = true;
+         statistics.remove(entry.number, entry.account);
+         return AccountSnapshot.of(entry.account);
+      } finally {
+         entry.lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Puts an account taken out of another ledger into this one, with its state unchanged.
+    *
+    * @param accountId The ID of the account.
+    * @param snapshot  The state of the account.
+    */
+   public void restore(long accountId, AccountSnapshot snapshot) {
+      add(accountId, snapshot.restore());
+   }
+
+   /**
+    * Retrieves the balance of an account.
+    *
+    * @param accountId The ID of the account.
+    * @return The current balance of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public double getBalance(long accountId) throws AccountNotFoundException {
+      Entry entry = entry(accountId);
+      long stamp = entry.lock.tryOptimisticRead();
+      double balance = entry.account.getBalance();
+      if (!entry.lock.validate(stamp)) {
+         stamp = entry.lock.readLock();
+         try {
+            balance = entry.account.getBalance();
+         } finally {
+            entry.lock.unlockRead(stamp);
+         }
+      }
+      return balance;
+   }
+
+   /**
+    * Returns a consistent copy of an account: its balance, counters and status all
+    * come from between the same two changes.
+    *
+    * @param accountId The ID of the account.
+    * @return The copy.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public AccountSnapshot snapshot(long accountId) throws AccountNotFoundException {
+      Entry entry = entry(accountId);
+      long stamp = entry.lock.tryOptimisticRead();
+      AccountSnapshot snapshot = AccountSnapshot.of(entry.account);
+      if (!entry.lock.validate(stamp)) {
+         stamp = entry.lock.readLock();
+         try {
+            snapshot = AccountSnapshot.of(entry.account);
+         } finally {
+            entry.lock.unlockRead(stamp);
+         }
+      }
+      return snapshot;
+   }
+
+   /**
+    * Returns the sum of all balances, from the running total kept by the statistics.
+    * The total is exact once the changes in progress have finished.
+    *
+    * @return The total balance, to the cent.
+    */
+   public double totalBalance() {
+      return statistics.totalBalance();
+   }
+
+   /**
+    * Returns the running totals and the index of inactive accounts of this ledger.
+    *
+    * @return The statistics.
+    */
+   public LedgerStatistics statistics() {
+      return statistics;
+   }
+
+   /**
+    * Returns the number of accounts in the ledger.
+    *
+    * @return The number of accounts.
+    */
+   public int size() {
+      int size = 0;
+      for (LongObjectHashMap<Entry> stripe : stripes) {
+         synchronized (stripe) {
+            size += stripe.size();
+         }
+      }
+      return size;
+   }
+
+   /**
+    * Returns the IDs of all accounts in the ledger, in no particular order.
+    *
+    * @return The account IDs.
+    */
+   public long[] ids() {
+      long[] ids = new long[size()];
+      int count = 0;
+      for (LongObjectHashMap<Entry> stripe : stripes) {
+         synchronized (stripe) {
+            if (count + stripe.size() > ids.length) {
+               ids = Arrays.copyOf(ids, Math.max(ids.length * 2, count + stripe.size()));
+            }
+            for (int slot = 0; slot < stripe.capacity(); slot++) {
+               if (stripe.isUsed(slot)) {
+                  ids[count++] = stripe.keyAt(slot);
+               }
+            }
+         }
+      }
+      return count == ids.length ? ids : Arrays.copyOf(ids, count);
+   }
+
+   /**
+    * Saves every account to a file. The file is written under a temporary name, forced
+    * and then renamed, so it is never left half-written. Each account is copied
+    * consistently; accounts changed while the ledger is saved may be saved from before
+    * or after the change.
+    *
+    * @param file The file to write.
+    * @throws IOException If the file cannot be written.
+    */
+   public void save(Path file) throws IOException {
+      long[] ids = ids();
+      Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+      CRC32 crc = new CRC32();
+      int count = 0;
+      try (OutputStream out = Files.newOutputStream(temp)) {
+         DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(out, crc), 1 << 16));
+         data.writeInt(MAGIC);
+         data.writeInt(VERSION);
+         for (long id : ids) {
+            AccountSnapshot snapshot;
+            try {
+               snapshot = snapshot(id);
+            } catch (AccountNotFoundException e) {
+               continue; // Removed since the IDs were listed.
+            }
+            data.writeBoolean(true);
+            data.writeLong(id);
+            snapshot.writeTo(data);
+            count++;
+         }
+         data.writeBoolean(false);
+         data.writeInt(count);
+         data.flush();
+         new DataOutputStream(out).writeLong(crc.getValue());
+      }
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+         channel.force(true);
+      }
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+   }
+
+   /**
+    * Creates a ledger holding the accounts saved in a file by {@link #save(Path)}.
+    *
+    * @param file The file to read.
+    * @return The ledger.
+    * @throws IOException If the file cannot be read or is damaged.
+    */
+   public static ConcurrentLedger load(Path file) throws IOException {
+      ConcurrentLedger ledger = new ConcurrentLedger((int) (Files.size(file) / (9 + AccountSnapshot.SIZE)));
+      CRC32 crc = new CRC32();
+      try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+         // The checksum sees only the bytes read so far, not the buffer's read-ahead.
+         DataInputStream data = new DataInputStream(new CheckedInputStream(in, crc));
+         if (data.readInt() != MAGIC) {
+            throw new IOException(file + " is not a ledger file.");
+         }
+         int version = data.readInt();
+         if (version != VERSION) {
+            throw new IOException(file + " has unsupported version " + version + ".");
+         }
+         byte[] record = new byte[AccountSnapshot.SIZE];
+         int count = 0;
+         while (data.readBoolean()) {
+            long id = data.readLong();
+            data.readFully(record);
+            ledger.restore(id, AccountSnapshot.readFrom(ByteBuffer.wrap(record)));
+            count++;
+         }
+         if (data.readInt() != count) {
+            throw new IOException(file + " is damaged: account count mismatch.");
+         }
+         long expected = crc.getValue();
+         if (new DataInputStream(in).readLong() != expected) {
+            throw new IOException(file + " is damaged: checksum mismatch.");
+         }
+      }
+      return ledger;
+   }
+
+   private void add(long accountId, SavingsAccount account) {
+      LongObjectHashMap<Entry> stripe = stripe(accountId);
+      synchronized (stripe) {
+         if (stripe.containsKey(accountId)) {
+            throw new IllegalArgumentException("account " + accountId + " already exists.");
+         }
+         stripe.put(accountId, new Entry(account, statistics.add(accountId, account)));
+      }
+   }
+
+   private Entry entry(long accountId) throws AccountNotFoundException {
+      LongObjectHashMap<Entry> stripe = stripe(accountId);
+      Entry entry;
+      synchronized (stripe) {
+         entry = stripe.get(accountId);
+      }
+      if (entry == null) {
+         throw new AccountNotFoundException("account " + accountId + " does not exist.");
+      }
+      return entry;
+   }
+
+   private LongObjectHashMap<Entry> stripe(long accountId) {
+      // The top bits, so the stripe does not fix the low bits the map uses for its slot.
+      return stripes[LongObjectHashMap.hash(accountId) >>> (32 - STRIPE_BITS)];
+   }
+
+   /**
+    * An account, the lock that guards it, and its number in the statistics.
+    */
+   private static final class Entry {
+      final SavingsAccount account;
+      final StampedLock lock = new StampedLock();
+      final int number;
+      // Set under the write lock once the account is taken out of the ledger.
+      boolean removed;
+
+      Entry(SavingsAccount account, int number) {
+         this.account = account;
+         this.number = number;
+      }
+
+      // Must be called with the write lock held.
+      void checkLive(long accountId) throws AccountNotFoundException {
+         if (removed) {
+            throw new AccountNotFoundException("account " + accountId + " does not exist.");
+         }
+      }
+   }
+}
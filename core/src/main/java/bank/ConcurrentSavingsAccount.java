@@ -0,0 +1,279 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The ConcurrentSavingsAccount class is a thread-safe savings account that many request
+ * threads can use at once without locks. The balance, the counters, the service charges
+ * and the status are kept together in one immutable state object. Every operation reads
+ * the current state, validates against it, and installs the new state with a single
+ * compare-and-set, retrying if another thread got there first. This means no update is
+ * ever lost and the status always matches the balance it was computed from.
+ *
+ * Because the state object is never changed, {@link #snapshot()} returns a consistent
+ * view of all the fields with one volatile read: readers never block writers, never
+ * retry, and never see a balance from one update next to counters from another.
+ *
+ * The rules are exactly the ones of {@link BankAccount} and {@link SavingsAccount}, taken
+ * from {@link AccountProduct#STANDARD}: amounts must be &gt; 0 and &lt;= 10,000, a
+ * withdrawal cannot overdraw the account, and an account whose balance falls below $25
+ * becomes inactive and refuses withdrawals.
+ */
+public class ConcurrentSavingsAccount implements Serializable {
+   // Pinned to the value the JVM computed for the class as it is, so saved accounts stay
+   // readable when methods are added.
+   private static final long serialVersionUID = -3994349598162445159L;
+   private static final double MAX_AMOUNT = BankAccount.MAX_AMOUNT;
+   private static final double MIN_BALANCE = SavingsAccount.MIN_BALANCE;
+   private static final double WITHDRAWAL_SERVICE_CHARGE = SavingsAccount.WITHDRAWAL_SERVICE_CHARGE;
+   private static final int FREE_WITHDRAWALS = SavingsAccount.FREE_WITHDRAWALS;
+   private static final VarHandle STATE;
+
+   static {
+      try {
+         STATE = MethodHandles.lookup().findVarHandle(ConcurrentSavingsAccount.class, "state", AccountSnapshot.class);
+      } catch (ReflectiveOperationException e) {
+         throw new ExceptionInInitializerError(e);
+      }
+   }
+
+   private final double annualInterestRate;
+   private volatile AccountSnapshot state;
+
+	/**
+	 * Constructs a ConcurrentSavingsAccount with the specified initial balance and
+	 * annual interest rate.
+	 *
+	 * @param balance            The initial balance of the account.
+	 * @param annualInterestRate The annual interest rate for the account.
+	 * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+	 */
+   public ConcurrentSavingsAccount(double balance, double annualInterestRate) throws InvalidDepositAmountException {
+      this(balance, annualInterestRate, 0);
+   }
+
+	/**
+	 * Constructs a ConcurrentSavingsAccount with the specified initial balance,
+	 * annual interest rate, and monthly service charges.
+	 *
+	 * @param balance               The initial balance of the account.
+	 * @param annualInterestRate    The annual interest rate for the account.
+	 * @param monthlyServiceCharges The monthly service charges for the account.
+	 * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+	 */
+   public ConcurrentSavingsAccount(double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException {
+      if (!(balance > 0 && balance <= MAX_AMOUNT)) {
+         throw new InvalidDepositAmountException("amount to deposit should be > 0 and < 10,000.");
+      }
+      this.annualInterestRate = annualInterestRate;
+      this.state = new AccountSnapshot(balance, 0, 0, annualInterestRate, monthlyServiceCharges, balance >= MIN_BALANCE);
+      warnIfInactive(this, state);
+   }
+
+	/**
+	 * Returns the current state of the account. All its fields come from the same
+	 * moment; use it instead of several getters when they must agree.
+	 *
+	 * @return The current state.
+	 */
+   public AccountSnapshot snapshot() {
+      return state;
+   }
+
+	/**
+	 * Retrieves the balance of the account.
+	 *
+	 * @return The current balance of the account.
+	 */
+   public double getBalance() {
+      return state.balance;
+   }
+
+	// Accessor for status
+   public boolean isStatus() {
+      return state.status;
+   }
+
+	/**
+	 * Returns the annual interest rate of the account.
+	 *
+	 * @return The annual interest rate.
+	 */
+   public double getAnnualInterestRate() {
+      return annualInterestRate;
+   }
+
+	/**
+	 * Returns the number of deposits for the month.
+	 *
+	 * @return The number of deposits made in the current month.
+	 */
+   public int getNumOfDeposits() {
+      return state.numOfDeposits;
+   }
+
+	/**
+	 * Returns the number of withdrawals for the month.
+	 *
+	 * @return The number of withdrawals made in the current month.
+	 */
+   public int getNumOfWithdrawals() {
+      return state.numOfWithdrawals;
+   }
+
+	/**
+	 * Returns the monthly service charges for the account.
+	 *
+	 * @return The monthly service charges for the account.
+	 */
+   public double getMonthlyServiceCharges() {
+      return state.monthlyServiceCharges;
+   }
+
+	/**
+	 * Deposits the specified amount into the account and updates its status.
+	 *
+	 * @param amount The amount to be deposited.
+	 * @exception InvalidDepositAmountException for Invalid deposit amount
+	 */
+   public void deposit(double amount) throws InvalidDepositAmountException {
+      if (tryDeposit(amount) != TransactionStatus.OK) {
+         throw new InvalidDepositAmountException("amount to deposit should be > 0 and < 10,000.");
+      }
+   }
+
+	/**
+	 * Deposits the specified amount into the account without throwing.
+	 *
+	 * @param amount The amount to be deposited.
+	 * @return {@code OK}, or {@code OUT_OF_RANGE} if the amount is invalid.
+	 */
+   public TransactionStatus tryDeposit(double amount) {
+      if (!(amount > 0 && amount <= MAX_AMOUNT)) {
+         return TransactionStatus.OUT_OF_RANGE;
+      }
+      AccountSnapshot current;
+      AccountSnapshot next;
+      do {
+         current = state;
+         double balance = current.balance + amount;
+         next = new AccountSnapshot(balance, current.numOfDeposits + 1, current.numOfWithdrawals,
+               annualInterestRate, current.monthlyServiceCharges, balance >= MIN_BALANCE);
+      } while (!STATE.compareAndSet(this, current, next));
+      warnIfInactive(this, next);
+      return TransactionStatus.OK;
+   }
+
+	/**
+	 * Withdraws the specified amount from the account and updates its status.
+	 * Nothing is withdrawn from an inactive account.
+	 *
+	 * @param amount The amount to be withdrawn.
+	 * @throws InvalidWithdrawalAmountException for Invalid withdrawal amount
+	 */
+   public void withdraw(double amount) throws InvalidWithdrawalAmountException {
+      TransactionStatus result = tryWithdraw(amount);
+      if (result == TransactionStatus.OUT_OF_RANGE || result == TransactionStatus.INSUFFICIENT_FUNDS) {
+         throw new InvalidWithdrawalAmountException("there is no enough money to be withdraw.");
+      }
+   }
+
+	/**
+	 * Withdraws the specified amount from the account without throwing.
+	 *
+	 * @param amount The amount to be withdrawn.
+	 * @return {@code OK}, {@code OUT_OF_RANGE}, {@code INSUFFICIENT_FUNDS} or {@code INACTIVE}.
+	 */
+   public TransactionStatus tryWithdraw(double amount) {
+      AccountSnapshot current;
+      AccountSnapshot next;
+      do {
+         current = state;
+         if (!current.status) {
+            AccountEvents.publish(AccountEventType.WITHDRAWAL_REFUSED, this, amount, current.balance);
+            return TransactionStatus.INACTIVE;
+         }
+         if (!(amount > 0 && amount <= MAX_AMOUNT)) {
+            return TransactionStatus.OUT_OF_RANGE;
+         }
+         if (amount > current.balance) {
+            return TransactionStatus.INSUFFICIENT_FUNDS;
+         }
+         double balance = current.balance - amount;
+         next = new AccountSnapshot(balance, current.numOfDeposits, current.numOfWithdrawals + 1,
+               annualInterestRate, current.monthlyServiceCharges, balance >= MIN_BALANCE);
+      } while (!STATE.compareAndSet(this, current, next));
+      warnIfInactive(this, next);
+      return TransactionStatus.OK;
+   }
+
+	/**
+	 * Calculates and updates the balance by adding monthly interest based on the
+	 * annual interest rate.
+	 */
+   public void calcInterest() {
+      AccountSnapshot current;
+      AccountSnapshot next;
+      double interest;
+      do {
+         current = state;
+         interest = current.balance * (annualInterestRate / 12);
+         next = new AccountSnapshot(current.balance + interest, current.numOfDeposits, current.numOfWithdrawals,
+               annualInterestRate, current.monthlyServiceCharges, current.status);
+      } while (!STATE.compareAndSet(this, current, next));
+      AccountEvents.publish(AccountEventType.INTEREST_CREDITED, this, interest, next.balance);
+   }
+
+	/**
+	 * Processes the monthly activities for the account as one atomic step: charges the
+	 * fee for more than 4 withdrawals, subtracts the monthly service charges, adds
+	 * interest, resets the counts and deactivates the account if the balance fell
+	 * below the minimum.
+	 */
+   public void monthlyProcess() {
+      AccountSnapshot current;
+      AccountSnapshot next;
+      double charges;
+      double interest;
+      do {
+         current = state;
+         charges = current.monthlyServiceCharges;
+         if (current.numOfWithdrawals > FREE_WITHDRAWALS) {
+            charges += (current.numOfWithdrawals - FREE_WITHDRAWALS) * WITHDRAWAL_SERVICE_CHARGE;
+         }
+         double balance = current.balance - charges;
+         interest = balance * (annualInterestRate / 12);
+         balance += interest;
+         next = new AccountSnapshot(balance, 0, 0, annualInterestRate, 0, current.status && balance >= MIN_BALANCE);
+      } while (!STATE.compareAndSet(this, current, next));
+      if (charges != 0) {
+         AccountEvents.publish(AccountEventType.FEE_APPLIED, this, charges, next.balance - interest);
+      }
+      AccountEvents.publish(AccountEventType.INTEREST_CREDITED, this, interest, next.balance);
+   }
+
+   private static void warnIfInactive(ConcurrentSavingsAccount account, AccountSnapshot state) {
+      if (!state.status) {
+         AccountEvents.publish(AccountEventType.ACCOUNT_INACTIVE, account, 0, state.balance);
+      }
+   }
+
+	/**
+	 * Returns a formatted string representation of the account.
+	 *
+	 * @return A string representation of the object.
+	 */
+   @Override
+   public String toString() {
+      AccountSnapshot current = state;
+      return String.format("Balance: $%.2f\nNumber of Deposit: %s \nNumber of withdrawls: %s", current.balance, current.numOfDeposits, current.numOfWithdrawals);
+   }
+}
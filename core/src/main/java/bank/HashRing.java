@@ -0,0 +1,125 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The HashRing class assigns account IDs to partitions by consistent hashing. Every
+ * partition is placed at many points on a ring of 64-bit hashes, and an account belongs
+ * to the partition of the first point at or after the hash of its ID.
+ *
+ * Adding a partition only takes over the stretches of the ring just before its own
+ * points, so about 1/n of the accounts move, and every one of them moves to the new
+ * partition; no account moves between the partitions that were already there. A ring is
+ * never changed: {@link #with(String)} returns a new one.
+ */
+final class HashRing {
+   private static final int POINTS_PER_PARTITION = 160;
+
+   private final String[] partitions;
+   private final long[] points;
+   private final int[] owners;
+
+   /**
+    * Constructs a ring of the given partitions.
+    *
+    * @param partitions The names of the partitions, for example their addresses.
+    */
+   HashRing(List<String> partitions) {
+      if (partitions.isEmpty()) {
+         throw new IllegalArgumentException("a ring needs at least one partition.");
+      }
+      this.partitions = partitions.toArray(new String[0]);
+      int count = this.partitions.length * POINTS_PER_PARTITION;
+      long[] byPoint = new long[count];
+      for (int p = 0; p < this.partitions.length; p++) {
+         long seed = hash(this.partitions[p]);
+         for (int i = 0; i < POINTS_PER_PARTITION; i++) {
+            byPoint[p * POINTS_PER_PARTITION + i] = mix(seed + i * 0x9E3779B97F4A7C15L);
+         }
+      }
+      // Sort the points and carry their owners along: sort (point, index) by point.
+      Integer[] order = new Integer[count];
+      for (int i = 0; i < count; i++) {
+         order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Long.compare(byPoint[a], byPoint[b]));
+      points = new long[count];
+      owners = new int[count];
+      for (int i = 0; i < count; i++) {
+         points[i] = byPoint[order[i]];
+         owners[i] = order[i] / POINTS_PER_PARTITION;
+      }
+   }
+
+   /**
+    * Returns a ring with one more partition. The partitions keep their indexes and the
+    * new one is last.
+    *
+    * @param partition The name of the new partition.
+    * @return The new ring.
+    */
+   HashRing with(String partition) {
+      List<String> names = new ArrayList<>(Arrays.asList(partitions));
+      if (names.contains(partition)) {
+         throw new IllegalArgumentException("partition " + partition + " is already in the ring.");
+      }
+      names.add(partition);
+      return new HashRing(names);
+   }
+
+   /**
+    * Returns the index of the partition that owns an account.
+    *
+    * @param accountId The ID of the account.
+    * @return The index of the partition.
+    */
+   int ownerOf(long accountId) {
+      int index = Arrays.binarySearch(points, mix(accountId));
+      if (index < 0) {
+         index = -index - 1;
+      }
+      return owners[index == points.length ? 0 : index];
+   }
+
+   /**
+    * Returns the name of a partition.
+    *
+    * @param index The index of the partition.
+    * @return The name.
+    */
+   String partition(int index) {
+      return partitions[index];
+   }
+
+   /**
+    * Returns the number of partitions.
+    *
+    * @return The number of partitions.
+    */
+   int size() {
+      return partitions.length;
+   }
+
+   private static long hash(String name) {
+      long hash = 1125899906842597L;
+      for (int i = 0; i < name.length(); i++) {
+         hash = 31 * hash + name.charAt(i);
+      }
+      return mix(hash);
+   }
+
+   // The finalizer of SplitMix64: spreads consecutive IDs evenly over the ring.
+   private static long mix(long value) {
+      value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+      value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+      return value ^ (value >>> 31);
+   }
+}
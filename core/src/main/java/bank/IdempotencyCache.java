@@ -0,0 +1,278 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The IdempotencyCache class remembers the outcome of recently submitted operations by
+ * idempotency key, so a retried or replayed submission gets the original outcome instead
+ * of being applied again.
+ *
+ * The cache is bounded two ways: a key is forgotten when it is older than the
+ * time-to-live, and when the cache is full the oldest key is evicted. Keys are kept in
+ * insertion order, which is also expiry order, so both kinds of eviction remove from the
+ * same end.
+ *
+ * The keys are spread over stripes by hash, each with its own lock. A stripe keeps its
+ * keys in a ring of primitive arrays (key, insertion time, outcome) and finds them
+ * through an open-addressing table that holds only ring positions, so a tracked key costs
+ * 8 + 8 + 1 bytes in the ring plus two {@code int} table slots, and no objects.
+ */
+public class IdempotencyCache {
+   private static final int STRIPE_BITS = 6;
+   private static final int STRIPES = 1 << STRIPE_BITS;
+   private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+   private final Stripe[] stripes = new Stripe[STRIPES];
+   private final long ttlNanos;
+
+   /**
+    * Constructs an empty cache.
+    *
+    * @param maxKeys The largest number of keys to remember.
+    * @param ttl     How long a key is remembered.
+    * @param unit    The unit of the time-to-live.
+    */
+   public IdempotencyCache(int maxKeys, long ttl, TimeUnit unit) {
+      if (maxKeys < 1) {
+         throw new IllegalArgumentException("maxKeys should be > 0.");
+      }
+      if (ttl <= 0) {
+         throw new IllegalArgumentException("ttl should be > 0.");
+      }
+      ttlNanos = unit.toNanos(ttl);
+      int perStripe = (maxKeys + STRIPES - 1) / STRIPES;
+      for (int i = 0; i < STRIPES; i++) {
+         stripes[i] = new Stripe(perStripe);
+      }
+   }
+
+   /**
+    * Runs an operation once per key. If the key was seen within the time-to-live, the
+    * outcome recorded then is returned and the operation is not run. Otherwise the
+    * operation runs and its outcome is recorded, unless it throws.
+    *
+    * Other submissions with keys in the same stripe wait while the operation runs; this
+    * is what makes a duplicate that arrives during the first submission wait for it and
+    * return its outcome.
+    *
+    * @param key       The idempotency key of the submission.
+    * @param operation The operation to run.
+    * @return The outcome of the first submission with this key.
+    * @exception AccountNotFoundException If the operation throws it; nothing is recorded.
+    */
+   public TransactionStatus execute(long key, Operation operation) throws AccountNotFoundException {
+      Stripe stripe = stripe(key);
+      synchronized (stripe) {
+         long now = System.nanoTime();
+         stripe.expire(now, ttlNanos);
+         int position = stripe.find(key);
+         if (position >= 0) {
+            stripe.hits++;
+            return STATUSES[stripe.outcomes[position]];
+         }
+         TransactionStatus result = operation.apply();
+         stripe.insert(key, result, now);
+         stripe.misses++;
+         return result;
+      }
+   }
+
+   /**
+    * Returns the recorded outcome of a key.
+    *
+    * @param key The idempotency key.
+    * @return The outcome, or {@code null} if the key is not remembered.
+    */
+   public TransactionStatus find(long key) {
+      Stripe stripe = stripe(key);
+      synchronized (stripe) {
+         stripe.expire(System.nanoTime(), ttlNanos);
+         int position = stripe.find(key);
+         return position < 0 ? null : STATUSES[stripe.outcomes[position]];
+      }
+   }
+
+   /**
+    * Returns the number of keys remembered, including expired keys not yet removed.
+    *
+    * @return The number of keys.
+    */
+   public int size() {
+      int size = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            size += stripe.size;
+         }
+      }
+      return size;
+   }
+
+   /**
+    * Returns the number of duplicate submissions answered from the cache.
+    *
+    * @return The number of hits.
+    */
+   public long hits() {
+      long hits = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            hits += stripe.hits;
+         }
+      }
+      return hits;
+   }
+
+   /**
+    * Returns the number of submissions that ran their operation.
+    *
+    * @return The number of misses.
+    */
+   public long misses() {
+      long misses = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            misses += stripe.misses;
+         }
+      }
+      return misses;
+   }
+
+   /**
+    * Returns the number of keys forgotten because the cache was full.
+    *
+    * @return The number of evictions.
+    */
+   public long evictions() {
+      long evictions = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            evictions += stripe.evictions;
+         }
+      }
+      return evictions;
+   }
+
+   /**
+    * Returns the number of keys forgotten because they were older than the time-to-live.
+    *
+    * @return The number of expirations.
+    */
+   public long expirations() {
+      long expirations = 0;
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            expirations += stripe.expirations;
+         }
+      }
+      return expirations;
+   }
+
+   private Stripe stripe(long key) {
+      // The top bits, so the stripe does not fix the low bits the table uses for its slot.
+      return stripes[LongObjectHashMap.hash(key) >>> (32 - STRIPE_BITS)];
+   }
+
+   /**
+    * An operation run at most once per idempotency key.
+    */
+   public interface Operation {
+      TransactionStatus apply() throws AccountNotFoundException;
+   }
+
+   /**
+    * The keys of one stripe: a ring in insertion order, indexed by a linear-probing table
+    * of ring positions plus one (0 marks an empty slot). Guarded by its own lock.
+    */
+   private static final class Stripe {
+      final long[] keys;
+      final long[] times;
+      final byte[] outcomes;
+      final int[] table;
+      final int mask;
+      int head;
+      int size;
+      long hits;
+      long misses;
+      long evictions;
+      long expirations;
+
+      Stripe(int capacity) {
+         keys = new long[capacity];
+         times = new long[capacity];
+         outcomes = new byte[capacity];
+         int tableSize = 2;
+         while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+         }
+         table = new int[tableSize];
+         mask = tableSize - 1;
+      }
+
+      // Returns the ring position of a key, or -1.
+      int find(long key) {
+         int slot = slotOf(key);
+         return slot < 0 ? -1 : table[slot] - 1;
+      }
+
+      void insert(long key, TransactionStatus outcome, long now) {
+         if (size == keys.length) {
+            removeOldest();
+            evictions++;
+         }
+         int position = (head + size) % keys.length;
+         keys[position] = key;
+         times[position] = now;
+         outcomes[position] = (byte) outcome.ordinal();
+         int slot = LongObjectHashMap.hash(key) & mask;
+         while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+         }
+         table[slot] = position + 1;
+         size++;
+      }
+
+      void expire(long now, long ttlNanos) {
+         while (size > 0 && now - times[head] >= ttlNanos) {
+            removeOldest();
+            expirations++;
+         }
+      }
+
+      private void removeOldest() {
+         int gap = slotOf(keys[head]);
+         // Backward-shift deletion: move later entries of the probe run into the gap.
+         int slot = gap;
+         while (true) {
+            slot = (slot + 1) & mask;
+            if (table[slot] == 0) {
+               break;
+            }
+            int home = LongObjectHashMap.hash(keys[table[slot] - 1]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+               table[gap] = table[slot];
+               gap = slot;
+            }
+         }
+         table[gap] = 0;
+         head = (head + 1) % keys.length;
+         size--;
+      }
+
+      private int slotOf(long key) {
+         int slot = LongObjectHashMap.hash(key) & mask;
+         while (table[slot] != 0) {
+            if (keys[table[slot] - 1] == key) {
+               return slot;
+            }
+            slot = (slot + 1) & mask;
+         }
+         return -1;
+      }
+   }
+}
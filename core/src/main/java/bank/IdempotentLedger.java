@@ -0,0 +1,90 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The IdempotentLedger class puts an {@link IdempotencyCache} in front of a
+ * {@link ConcurrentLedger}. Every submission carries an idempotency key chosen by the
+ * caller, for example a request ID; a submission whose key was already seen returns the
+ * outcome of the first one and does not touch any balance, so callers can retry freely.
+ *
+ * A key identifies a submission, not its contents: a retry is expected to repeat the
+ * same operation, and a different operation sent under a used key gets the old outcome.
+ */
+public class IdempotentLedger {
+   private final ConcurrentLedger ledger;
+   private final IdempotencyCache cache;
+
+   /**
+    * Constructs an idempotent view of a ledger.
+    *
+    * @param ledger The ledger to apply operations to.
+    * @param cache  The cache of seen keys.
+    */
+   public IdempotentLedger(ConcurrentLedger ledger, IdempotencyCache cache) {
+      this.ledger = ledger;
+      this.cache = cache;
+   }
+
+   /**
+    * Deposits the specified amount into an account, once per key.
+    *
+    * @param key       The idempotency key.
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be deposited.
+    * @return The outcome of the first submission with this key.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public TransactionStatus deposit(long key, long accountId, double amount) throws AccountNotFoundException {
+      return cache.execute(key, () -> ledger.deposit(accountId, amount));
+   }
+
+   /**
+    * Withdraws the specified amount from an account, once per key.
+    *
+    * @param key       The idempotency key.
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be withdrawn.
+    * @return The outcome of the first submission with this key.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public TransactionStatus withdraw(long key, long accountId, double amount) throws AccountNotFoundException {
+      return cache.execute(key, () -> ledger.withdraw(accountId, amount));
+   }
+
+   /**
+    * Moves the specified amount from one account into another, once per key.
+    *
+    * @param key    The idempotency key.
+    * @param fromId The ID of the account to be debited.
+    * @param toId   The ID of the account to be credited.
+    * @param amount The amount to be moved.
+    * @return The outcome of the first submission with this key.
+    * @exception AccountNotFoundException If either account does not exist.
+    */
+   public TransactionStatus transfer(long key, long fromId, long toId, double amount) throws AccountNotFoundException {
+      return cache.execute(key, () -> ledger.transfer(fromId, toId, amount));
+   }
+
+   /**
+    * Returns the ledger behind this view.
+    *
+    * @return The ledger.
+    */
+   public ConcurrentLedger ledger() {
+      return ledger;
+   }
+
+   /**
+    * Returns the cache of seen keys.
+    *
+    * @return The cache.
+    */
+   public IdempotencyCache cache() {
+      return cache;
+   }
+}
@@ -0,0 +1,138 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The InterestKernel class runs the interest and month-end arithmetic of
+ * {@link BankAccount} over whole arrays of balances, rates and charges instead of one
+ * account object at a time, for backfills and simulations.
+ *
+ * The loops are kept to plain counted loops over {@code double[]} with no calls or
+ * branches in the body, which the JIT compiles to SIMD instructions. Nothing is
+ * published to {@link AccountEvents} and no {@link Metrics} are recorded.
+ */
+public final class InterestKernel {
+   // Elements compounded together, sized so their factors stay in the L1 cache.
+   private static final int BLOCK = 1024;
+
+   private InterestKernel() {
+   }
+
+   /**
+    * Adds one month of interest to every balance, exactly as
+    * {@link BankAccount#calcInterest()} does: the results are bit-for-bit the same.
+    *
+    * @param balances    The balances, updated in place.
+    * @param annualRates The annual interest rate of each balance.
+    * @param from        The first index, inclusive.
+    * @param to          The last index, exclusive.
+    */
+   public static void accrue(double[] balances, double[] annualRates, int from, int to) {
+      checkRange(balances, annualRates, from, to);
+      for (int i = from; i < to; i++) {
+         balances[i] += balances[i] * (annualRates[i] / 12);
+      }
+   }
+
+   /**
+    * Compounds every balance over a number of months with no other activity, in closed
+    * form: each balance is multiplied by {@code (1 + rate / 12)^months}, computed by
+    * repeated squaring in about {@code 2 log2(months)} passes over a block instead of
+    * one pass per month. The result matches {@code months} calls of {@link #accrue} up
+    * to floating-point rounding.
+    *
+    * @param balances    The balances, updated in place.
+    * @param annualRates The annual interest rate of each balance.
+    * @param months      The number of months, at least 0.
+    * @param from        The first index, inclusive.
+    * @param to          The last index, exclusive.
+    */
+   public static void compound(double[] balances, double[] annualRates, int months, int from, int to) {
+      checkRange(balances, annualRates, from, to);
+      if (months < 0) {
+         throw new IllegalArgumentException("months should be >= 0.");
+      }
+      double[] factors = new double[Math.min(BLOCK, to - from)];
+      for (int start = from; start < to; start += BLOCK) {
+         int length = Math.min(BLOCK, to - start);
+         for (int k = 0; k < length; k++) {
+            factors[k] = 1 + annualRates[start + k] / 12;
+         }
+         for (int remaining = months; remaining > 0; remaining >>= 1) {
+            if ((remaining & 1) != 0) {
+               for (int k = 0; k < length; k++) {
+                  balances[start + k] *= factors[k];
+               }
+            }
+            if (remaining > 1) {
+               for (int k = 0; k < length; k++) {
+                  factors[k] *= factors[k];
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Applies {@code months} month-end processes of savings accounts with no other
+    * activity, in closed form. The first month takes the charges and adds interest, as
+    * {@link SavingsAccount#monthlyProcess()} does; the charges are then cleared, so the
+    * remaining months only compound. An account whose balance falls below the minimum in
+    * any of the months becomes inactive. The balances match {@code months} sequential
+    * calls up to floating-point rounding.
+    *
+    * @param balances    The balances, updated in place.
+    * @param annualRates The annual interest rate of each balance.
+    * @param charges     The charges due this month, including withdrawal fees; set to 0.
+    * @param status      The status of each account, updated in place.
+    * @param months      The number of months, at least 0.
+    * @param from        The first index, inclusive.
+    * @param to          The last index, exclusive.
+    */
+   public static void monthlyProcess(double[] balances, double[] annualRates, double[] charges, boolean[] status, int months, int from, int to) {
+      checkRange(balances, annualRates, from, to);
+      if (charges.length < to || status.length < to) {
+         throw new IndexOutOfBoundsException("charges and status should cover [" + from + ", " + to + ").");
+      }
+      if (months < 0) {
+         throw new IllegalArgumentException("months should be >= 0.");
+      }
+      if (months == 0) {
+         return;
+      }
+      for (int i = from; i < to; i++) {
+         double balance = balances[i] - charges[i];
+         balance += balance * (annualRates[i] / 12);
+         balances[i] = balance;
+         charges[i] = 0;
+         status[i] &= balance >= SavingsAccount.MIN_BALANCE;
+      }
+      compound(balances, annualRates, months - 1, from, to);
+      // Compounding moves a balance in one direction, so if it dipped below the minimum
+      // it is below it after the first month or after the last.
+      for (int i = from; i < to; i++) {
+         status[i] &= balances[i] >= SavingsAccount.MIN_BALANCE;
+      }
+   }
+
+   /**
+    * Returns what a balance is multiplied by over a number of months of interest.
+    *
+    * @param annualRate The annual interest rate.
+    * @param months     The number of months.
+    * @return {@code (1 + annualRate / 12)^months}.
+    */
+   public static double growth(double annualRate, int months) {
+      return Math.pow(1 + annualRate / 12, months);
+   }
+
+   private static void checkRange(double[] balances, double[] annualRates, int from, int to) {
+      if (from < 0 || from > to || to > balances.length || to > annualRates.length) {
+         throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") is outside the arrays.");
+      }
+   }
+}
@@ -4,6 +4,8 @@
 //   Final Project
 //*****************************************
 
+package bank;
+
 /**
  * Custom exception class for invalid withdrawal amounts.
  */
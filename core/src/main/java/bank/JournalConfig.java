@@ -0,0 +1,104 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * Durability settings for a {@link TransactionJournal}. A journal always writes every
+ * record in order; these settings only decide how records are grouped into one
+ * {@code force()} and whether {@link TransactionJournal#commit(long)} waits for it.
+ *
+ * - {@link #sync()}: every record is forced on its own before its commit returns.
+ * - {@link #group(int, long)}: commits wait until their record is forced, but the
+ *   committer forces once for up to {@code maxBatch} records, or after {@code maxDelayMicros}.
+ * - {@link #async(long)}: commits return at once and the committer forces in the
+ *   background. A crash can lose up to the last interval of records.
+ */
+public final class JournalConfig {
+   private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+   private final boolean waitForDurability;
+   private final int maxBatch;
+   private final long maxDelayNanos;
+   private final int bufferSize;
+
+   private JournalConfig(boolean waitForDurability, int maxBatch, long maxDelayNanos, int bufferSize) {
+      if (maxBatch < 1) {
+         throw new IllegalArgumentException("batch size should be >= 1.");
+      }
+      if (maxDelayNanos < 0) {
+         throw new IllegalArgumentException("delay should be >= 0.");
+      }
+      this.waitForDurability = waitForDurability;
+      this.maxBatch = maxBatch;
+      this.maxDelayNanos = maxDelayNanos;
+      this.bufferSize = bufferSize;
+   }
+
+   /**
+    * Every record is forced before its commit returns.
+    *
+    * @return The configuration.
+    */
+   public static JournalConfig sync() {
+      return new JournalConfig(true, 1, 0, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Commits wait for durability, and up to {@code maxBatch} records share one force.
+    *
+    * @param maxBatch       The number of records that triggers a force right away.
+    * @param maxDelayMicros The longest time a record waits for its batch to fill.
+    * @return The configuration.
+    */
+   public static JournalConfig group(int maxBatch, long maxDelayMicros) {
+      return new JournalConfig(true, maxBatch, maxDelayMicros * 1000, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Commits never wait; records are forced in the background at least every interval.
+    *
+    * @param intervalMicros The longest time between two forces.
+    * @return The configuration.
+    */
+   public static JournalConfig async(long intervalMicros) {
+      return new JournalConfig(false, Integer.MAX_VALUE, intervalMicros * 1000, DEFAULT_BUFFER_SIZE);
+   }
+
+   /**
+    * Returns a copy of this configuration with another in-memory buffer size.
+    *
+    * @param bytes The size of each of the two write buffers.
+    * @return The new configuration.
+    */
+   public JournalConfig withBufferSize(int bytes) {
+      if (bytes < TransactionJournal.MAX_RECORD_SIZE) {
+         throw new IllegalArgumentException("buffer size should be >= " + TransactionJournal.MAX_RECORD_SIZE + ".");
+      }
+      return new JournalConfig(waitForDurability, maxBatch, maxDelayNanos, bytes);
+   }
+
+   boolean waitForDurability() {
+      return waitForDurability;
+   }
+
+   int maxBatch() {
+      return maxBatch;
+   }
+
+   long maxDelayNanos() {
+      return maxDelayNanos;
+   }
+
+   int bufferSize() {
+      return bufferSize;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("JournalConfig[wait=%s, maxBatch=%d, maxDelay=%dus]", waitForDurability, maxBatch, maxDelayNanos / 1000);
+   }
+}
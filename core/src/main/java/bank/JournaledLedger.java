@@ -0,0 +1,225 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The JournaledLedger class is a {@link Ledger} whose every successful change is recorded
+ * in a {@link TransactionJournal}. On startup the ledger is rebuilt by replaying the
+ * journal, so a crash only loses operations whose commit had not returned yet, and the
+ * cost of saving is one small record per operation instead of a rewrite of all the state.
+ *
+ * Operations are checked, appended and then applied under the ledger's lock, which keeps
+ * the journal in the same order as the changes. A change is made in memory only once its
+ * record is appended, so a failed append leaves the ledger as it was. The wait for
+ * durability happens after the lock is released, so concurrent callers share forces
+ * through group commit.
+ */
+public class JournaledLedger implements Closeable {
+   private final Ledger ledger;
+   private final TransactionJournal journal;
+
+   private JournaledLedger(Ledger ledger, TransactionJournal journal) {
+      this.ledger = ledger;
+      this.journal = journal;
+   }
+
+   /**
+    * Opens a journaled ledger. If the journal file exists, the ledger is rebuilt by
+    * replaying it; otherwise a new empty journal is created.
+    *
+    * @param path   The journal file.
+    * @param config The durability settings.
+    * @return The ledger.
+    * @throws IOException If the journal cannot be read, replayed or opened.
+    */
+   public static JournaledLedger open(Path path, JournalConfig config) throws IOException {
+      Ledger ledger = new Ledger();
+      if (Files.exists(path) && Files.size(path) > 0) {
+         TransactionJournal.replay(path, (op, accountId, amount, rate, charges, lsn) -> apply(ledger, op, accountId, amount, rate, charges, lsn));
+      }
+      return new JournaledLedger(ledger, new TransactionJournal(path, config));
+   }
+
+   /**
+    * Applies one journal record to a ledger. Used by replay.
+    */
+   static void apply(Ledger ledger, byte op, long accountId, double amount, double rate, double charges, long lsn) throws IOException {
+      try {
+         switch (op) {
+            case TransactionJournal.OPEN:
+               ledger.open(accountId, amount, rate, charges);
+               break;
+            case TransactionJournal.DEPOSIT:
+               ledger.deposit(accountId, amount);
+               break;
+            case TransactionJournal.WITHDRAW:
+               ledger.withdraw(accountId, amount);
+               break;
+            case TransactionJournal.MONTHLY_PROCESS:
+               ledger.account(accountId).monthlyProcess();
+               break;
+            case TransactionJournal.MONTH_END:
+               ledger.forEach((id, account) -> account.monthlyProcess());
+               break;
+            default:
+               throw new IOException("unknown journal operation " + op);
+         }
+      } catch (AccountNotFoundException | InvalidDepositAmountException | InvalidWithdrawalAmountException | IllegalArgumentException e) {
+         throw new IOException("journal record ending at " + lsn + " cannot be applied: " + e.getMessage(), e);
+      }
+   }
+
+   /**
+    * Opens a new savings account and records it in the journal.
+    *
+    * @param accountId             The ID of the new account.
+    * @param balance               The initial balance of the account.
+    * @param annualInterestRate    The annual interest rate for the account.
+    * @param monthlyServiceCharges The monthly service charges for the account.
+    * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+    * @throws IOException If the journal cannot be written.
+    */
+   public void open(long accountId, double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException, IOException {
+      long lsn;
+      synchronized (ledger) {
+         if (ledger.contains(accountId)) {
+            throw new IllegalArgumentException("account " + accountId + " already exists.");
+         }
+         SavingsAccount account = new SavingsAccount(balance, annualInterestRate, monthlyServiceCharges);
+         lsn = journal.appendOpen(accountId, balance, annualInterestRate, monthlyServiceCharges);
+         ledger.add(accountId, account);
+      }
+      journal.commit(lsn);
+   }
+
+   /**
+    * Deposits the specified amount into an account and records it in the journal.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be deposited.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @exception InvalidDepositAmountException for Invalid deposit amount
+    * @throws IOException If the journal cannot be written.
+    */
+   public void deposit(long accountId, double amount) throws AccountNotFoundException, InvalidDepositAmountException, IOException {
+      long lsn;
+      synchronized (ledger) {
+         SavingsAccount account = ledger.account(accountId);
+         if (account.checkDeposit(amount) != TransactionStatus.OK) {
+            throw new InvalidDepositAmountException("amount to deposit should be > 0 and < 10,000.");
+         }
+         lsn = journal.append(TransactionJournal.DEPOSIT, accountId, amount);
+         account.tryDeposit(amount);
+      }
+      journal.commit(lsn);
+   }
+
+   /**
+    * Withdraws the specified amount from an account and records it in the journal.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be withdrawn.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @exception InvalidWithdrawalAmountException for Invalid withdrawal amount
+    * @throws IOException If the journal cannot be written.
+    */
+   public void withdraw(long accountId, double amount) throws AccountNotFoundException, InvalidWithdrawalAmountException, IOException {
+      long lsn;
+      synchronized (ledger) {
+         SavingsAccount account = ledger.account(accountId);
+         if (!account.isStatus()) {
+            account.tryWithdraw(amount); // Refused without a change, so there is nothing to record.
+            return;
+         }
+         if (account.checkWithdraw(amount) != TransactionStatus.OK) {
+            throw new InvalidWithdrawalAmountException("there is no enough money to be withdraw.");
+         }
+         lsn = journal.append(TransactionJournal.WITHDRAW, accountId, amount);
+         account.tryWithdraw(amount);
+      }
+      journal.commit(lsn);
+   }
+
+   /**
+    * Runs the monthly process on one account and records it in the journal.
+    *
+    * @param accountId The ID of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @throws IOException If the journal cannot be written.
+    */
+   public void monthlyProcess(long accountId) throws AccountNotFoundException, IOException {
+      long lsn;
+      synchronized (ledger) {
+         SavingsAccount account = ledger.account(accountId);
+         lsn = journal.append(TransactionJournal.MONTHLY_PROCESS, accountId, 0);
+         account.monthlyProcess();
+      }
+      journal.commit(lsn);
+   }
+
+   /**
+    * Runs the monthly process on every account and records it as one journal record.
+    *
+    * @throws IOException If the journal cannot be written.
+    */
+   public void monthEnd() throws IOException {
+      long lsn;
+      synchronized (ledger) {
+         lsn = journal.append(TransactionJournal.MONTH_END, -1, 0);
+         ledger.forEach((id, account) -> account.monthlyProcess());
+      }
+      journal.commit(lsn);
+   }
+
+   /**
+    * Retrieves the balance of an account.
+    *
+    * @param accountId The ID of the account.
+    * @return The current balance of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public double getBalance(long accountId) throws AccountNotFoundException {
+      synchronized (ledger) {
+         return ledger.getBalance(accountId);
+      }
+   }
+
+   /**
+    * Returns the number of accounts in the ledger.
+    *
+    * @return The number of accounts.
+    */
+   public int size() {
+      synchronized (ledger) {
+         return ledger.size();
+      }
+   }
+
+   /**
+    * Returns the journal behind the ledger.
+    *
+    * @return The journal.
+    */
+   public TransactionJournal journal() {
+      return journal;
+   }
+
+   /**
+    * Forces the remaining journal records to disk and closes the journal.
+    *
+    * @throws IOException If the last records cannot be written.
+    */
+   @Override
+   public void close() throws IOException {
+      journal.close();
+   }
+}
@@ -0,0 +1,171 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The LatencyHistogram class counts durations in nanoseconds in log-linear buckets, in the
+ * style of an HDR histogram: values below 64 get a bucket each, and every power-of-two
+ * range above that is split into 32 buckets, so any recorded value is reported within
+ * about 3% of its real value. Recording is one array increment with no allocation.
+ *
+ * Threads record into one of several stripes chosen by thread ID, which keeps
+ * concurrent recorders from contending on the same counters; the stripes are only
+ * merged when the histogram is read.
+ */
+public class LatencyHistogram {
+   private static final int SUB_BUCKET_BITS = 5;
+   private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+   private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+   private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+   private final long[][] stripes;
+   private final int stripeMask;
+
+   /**
+    * Constructs an empty histogram with a stripe count suited to this machine.
+    */
+   public LatencyHistogram() {
+      int stripeCount = 1;
+      while (stripeCount < Runtime.getRuntime().availableProcessors() * 2) {
+         stripeCount <<= 1;
+      }
+      stripes = new long[stripeCount][BUCKETS];
+      stripeMask = stripeCount - 1;
+   }
+
+   /**
+    * Records one duration. Negative durations are recorded as 0.
+    *
+    * @param nanos The duration in nanoseconds.
+    */
+   public void record(long nanos) {
+      long[] counts = stripes[(int) Thread.currentThread().getId() & stripeMask];
+      COUNTS.getAndAdd(counts, bucketOf(Math.max(nanos, 0)), 1L);
+   }
+
+   /**
+    * Returns the number of recorded durations.
+    *
+    * @return The count.
+    */
+   public long count() {
+      long count = 0;
+      for (long bucket : merged()) {
+         count += bucket;
+      }
+      return count;
+   }
+
+   /**
+    * Returns the value at a percentile: the upper end of the bucket holding the
+    * duration that the given percentage of durations do not exceed.
+    *
+    * @param percentile The percentile, from 0 to 100.
+    * @return The duration in nanoseconds, or 0 if nothing was recorded.
+    */
+   public long valueAtPercentile(double percentile) {
+      long[] merged = merged();
+      long count = 0;
+      for (long bucket : merged) {
+         count += bucket;
+      }
+      if (count == 0) {
+         return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+      long seen = 0;
+      for (int i = 0; i < merged.length; i++) {
+         seen += merged[i];
+         if (seen >= rank) {
+            return highestValueIn(i);
+         }
+      }
+      return highestValueIn(merged.length - 1);
+   }
+
+   /**
+    * Returns the largest recorded duration, to the precision of its bucket.
+    *
+    * @return The duration in nanoseconds, or 0 if nothing was recorded.
+    */
+   public long max() {
+      long[] merged = merged();
+      for (int i = merged.length - 1; i >= 0; i--) {
+         if (merged[i] != 0) {
+            return highestValueIn(i);
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * Returns the mean of the recorded durations, taking each from the middle of its
+    * bucket.
+    *
+    * @return The mean in nanoseconds, or 0 if nothing was recorded.
+    */
+   public double mean() {
+      long[] merged = merged();
+      long count = 0;
+      double total = 0;
+      for (int i = 0; i < merged.length; i++) {
+         if (merged[i] != 0) {
+            count += merged[i];
+            total += merged[i] * ((lowestValueIn(i) + (double) highestValueIn(i)) / 2);
+         }
+      }
+      return count == 0 ? 0 : total / count;
+   }
+
+   /**
+    * Clears every bucket. Durations recorded during the reset may or may not be kept.
+    */
+   public void reset() {
+      for (long[] counts : stripes) {
+         for (int i = 0; i < counts.length; i++) {
+            COUNTS.setVolatile(counts, i, 0L);
+         }
+      }
+   }
+
+   private long[] merged() {
+      long[] merged = new long[BUCKETS];
+      for (long[] counts : stripes) {
+         for (int i = 0; i < BUCKETS; i++) {
+            merged[i] += (long) COUNTS.getVolatile(counts, i);
+         }
+      }
+      return merged;
+   }
+
+   static int bucketOf(long value) {
+      if (value < 2 * SUB_BUCKETS) {
+         return (int) value;
+      }
+      int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+      return shift * SUB_BUCKETS + (int) (value >>> shift);
+   }
+
+   static long lowestValueIn(int bucket) {
+      if (bucket < 2 * SUB_BUCKETS) {
+         return bucket;
+      }
+      int shift = bucket / SUB_BUCKETS - 1;
+      return (long) (bucket - shift * SUB_BUCKETS) << shift;
+   }
+
+   static long highestValueIn(int bucket) {
+      if (bucket < 2 * SUB_BUCKETS) {
+         return bucket;
+      }
+      int shift = bucket / SUB_BUCKETS - 1;
+      return lowestValueIn(bucket) + (1L << shift) - 1;
+   }
+}
@@ -0,0 +1,189 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The Ledger class holds many savings accounts keyed by a {@code long} account ID.
+ * Accounts are kept in a {@link LongObjectHashMap}, so lookups are O(1) and there is
+ * no boxing of the IDs. Every operation is routed through the {@link SavingsAccount}
+ * rules, so the deposit and withdrawal limits and the account status work exactly
+ * like they do for a single account.
+ *
+ * This class is not thread-safe.
+ */
+public class Ledger {
+   private final LongObjectHashMap<SavingsAccount> accounts;
+
+   /**
+    * Constructs an empty ledger.
+    */
+   public Ledger() {
+      accounts = new LongObjectHashMap<>();
+   }
+
+   /**
+    * Constructs an empty ledger sized for the expected number of accounts.
+    *
+    * @param expectedAccounts The number of accounts the ledger is expected to hold.
+    */
+   public Ledger(int expectedAccounts) {
+      accounts = new LongObjectHashMap<>(expectedAccounts);
+   }
+
+   /**
+    * Opens a new savings account under the given ID.
+    *
+    * @param accountId             The ID of the new account.
+    * @param balance               The initial balance of the account.
+    * @param annualInterestRate    The annual interest rate for the account.
+    * @param monthlyServiceCharges The monthly service charges for the account.
+    * @return The new `SavingsAccount`.
+    * @exception InvalidDepositAmountException If the initial deposit amount is invalid.
+    */
+   public SavingsAccount open(long accountId, double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException {
+      if (accounts.containsKey(accountId)) {
+         throw new IllegalArgumentException("account " + accountId + " already exists.");
+      }
+      SavingsAccount account = new SavingsAccount(balance, annualInterestRate, monthlyServiceCharges);
+      accounts.put(accountId, account);
+      return account;
+   }
+
+   /**
+    * Adds an existing account to the ledger, for example one read back from a file.
+    *
+    * @param accountId The ID of the account.
+    * @param account   The account to add.
+    */
+   public void add(long accountId, SavingsAccount account) {
+      if (accounts.putIfAbsent(accountId, account) != null) {
+         throw new IllegalArgumentException("account " + accountId + " already exists.");
+      }
+   }
+
+   /**
+    * Deposits the specified amount into an account.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be deposited.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @exception InvalidDepositAmountException for Invalid deposit amount
+    */
+   public void deposit(long accountId, double amount) throws AccountNotFoundException, InvalidDepositAmountException {
+      account(accountId).deposit(amount);
+   }
+
+   /**
+    * Withdraws the specified amount from an account.
+    *
+    * @param accountId The ID of the account.
+    * @param amount    The amount to be withdrawn.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    * @exception InvalidWithdrawalAmountException for Invalid withdrawal amount
+    */
+   public void withdraw(long accountId, double amount) throws AccountNotFoundException, InvalidWithdrawalAmountException {
+      account(accountId).withdraw(amount);
+   }
+
+   /**
+    * Moves the specified amount from one account into another. Either both accounts
+    * change or neither does.
+    *
+    * @param fromId The ID of the account to be debited.
+    * @param toId   The ID of the account to be credited.
+    * @param amount The amount to be moved.
+    * @return {@code OK}, or the reason the transfer was refused.
+    * @exception AccountNotFoundException If either account does not exist.
+    */
+   public TransactionStatus transfer(long fromId, long toId, double amount) throws AccountNotFoundException {
+      SavingsAccount from = account(fromId);
+      return from.tryTransfer(account(toId), amount);
+   }
+
+   /**
+    * Retrieves the balance of an account.
+    *
+    * @param accountId The ID of the account.
+    * @return The current balance of the account.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public double getBalance(long accountId) throws AccountNotFoundException {
+      return account(accountId).getBalance();
+   }
+
+   /**
+    * Returns the account with the given ID.
+    *
+    * @param accountId The ID of the account.
+    * @return The `SavingsAccount` with the ID.
+    * @exception AccountNotFoundException If there is no account with the ID.
+    */
+   public SavingsAccount account(long accountId) throws AccountNotFoundException {
+      SavingsAccount account = accounts.get(accountId);
+      if (account == null) {
+         throw new AccountNotFoundException("account " + accountId + " does not exist.");
+      }
+      return account;
+   }
+
+   /**
+    * Returns the account with the given ID, or {@code null} if there is none.
+    *
+    * @param accountId The ID of the account.
+    * @return The `SavingsAccount` with the ID, or {@code null}.
+    */
+   public SavingsAccount find(long accountId) {
+      return accounts.get(accountId);
+   }
+
+   /**
+    * Checks whether an account with the given ID exists.
+    *
+    * @param accountId The ID of the account.
+    * @return {@code true} if the account exists.
+    */
+   public boolean contains(long accountId) {
+      return accounts.containsKey(accountId);
+   }
+
+   /**
+    * Removes an account from the ledger.
+    *
+    * @param accountId The ID of the account.
+    * @return The removed `SavingsAccount`, or {@code null} if there was none.
+    */
+   public SavingsAccount close(long accountId) {
+      return accounts.remove(accountId);
+   }
+
+   /**
+    * Returns the number of accounts in the ledger.
+    *
+    * @return The number of accounts.
+    */
+   public int size() {
+      return accounts.size();
+   }
+
+   /**
+    * Calls the visitor once for every account in the ledger.
+    *
+    * @param visitor The visitor to call with each account ID and account.
+    */
+   public void forEach(LongObjectHashMap.Visitor<? super SavingsAccount> visitor) {
+      accounts.forEach(visitor);
+   }
+
+   /**
+    * Returns the map that backs the ledger, for batch jobs that partition it by slot.
+    *
+    * @return The backing map.
+    */
+   LongObjectHashMap<SavingsAccount> accounts() {
+      return accounts;
+   }
+}
@@ -0,0 +1,193 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LedgerStatistics class keeps running totals over the accounts of a
+ * {@link ConcurrentLedger}: the total balance, the number of active and inactive
+ * accounts, and the fees taken by the monthly process this month. The ledger updates
+ * them with every deposit, withdrawal, transfer and monthly process, so reading one
+ * takes constant time instead of a pass over every account.
+ *
+ * It also keeps an index of the inactive accounts, the ones that fell below the
+ * minimum balance: each account has a number, and a {@link ConcurrentBitSet} has that
+ * number's bit set while the account is inactive. Listing the inactive accounts takes
+ * time proportional to how many there are.
+ *
+ * The figures are updated without locks. Each one is exact once the changes in
+ * progress have finished; while changes are running, a reader may see one figure
+ * updated by a change and another not yet.
+ */
+public class LedgerStatistics {
+   private static final int ID_PAGE_BITS = 12;
+   private static final int ID_PAGE_SIZE = 1 << ID_PAGE_BITS;
+
+   private final LongAdder balanceCents = new LongAdder();
+   private final LongAdder accounts = new LongAdder();
+   private final LongAdder feeCents = new LongAdder();
+   private final ConcurrentBitSet inactive = new ConcurrentBitSet();
+   // The account IDs by account number, in pages that are never moved. Written under this.
+   private volatile long[][] ids = new long[0][];
+   private int nextNumber;
+   private int[] freeNumbers = new int[16];
+   private int freeCount;
+   // The fees taken before this month began. Guarded by this.
+   private long feeCentsAtMonthStart;
+
+   /**
+    * Returns the sum of all balances.
+    *
+    * @return The total balance, to the cent.
+    */
+   public double totalBalance() {
+      return Money.toDollars(balanceCents.sum());
+   }
+
+   /**
+    * Returns the number of accounts.
+    *
+    * @return The number of accounts.
+    */
+   public int accountCount() {
+      return (int) accounts.sum();
+   }
+
+   /**
+    * Returns the number of active accounts.
+    *
+    * @return The number of accounts at or above the minimum balance.
+    */
+   public int activeCount() {
+      return Math.max(0, accountCount() - inactiveCount());
+   }
+
+   /**
+    * Returns the number of inactive accounts.
+    *
+    * @return The number of accounts that fell below the minimum balance.
+    */
+   public int inactiveCount() {
+      return inactive.cardinality();
+   }
+
+   /**
+    * Returns the fees taken by the monthly process since the month began.
+    *
+    * @return The fees this month.
+    */
+   public synchronized double feesThisMonth() {
+      return Money.toDollars(feeCents.sum() - feeCentsAtMonthStart);
+   }
+
+   /**
+    * Ends the month: returns the fees taken this month and starts counting from zero.
+    * Fees taken while the month is closed count towards one month or the other, never
+    * both and never neither.
+    *
+    * @return The fees of the month that ended.
+    */
+   public synchronized double closeMonth() {
+      long total = feeCents.sum();
+      long month = total - feeCentsAtMonthStart;
+      feeCentsAtMonthStart = total;
+      return Money.toDollars(month);
+   }
+
+   /**
+    * Returns the IDs of the inactive accounts, in no particular order. Accounts that
+    * change status while the list is made may or may not be in it.
+    *
+    * @return The account IDs.
+    */
+   public long[] inactiveAccounts() {
+      long[] result = new long[inactiveCount()];
+      int[] count = new int[1];
+      inactive.forEach(number -> {
+         // Accounts that became inactive after the count was taken are left out.
+         if (count[0] < result.length) {
+            result[count[0]++] = ids[number >>> ID_PAGE_BITS][number & (ID_PAGE_SIZE - 1)];
+         }
+      });
+      return count[0] == result.length ? result : Arrays.copyOf(result, count[0]);
+   }
+
+   /**
+    * Counts a new account, before it is in the ledger.
+    *
+    * @param accountId The ID of the account.
+    * @param account   The account.
+    * @return The account's number, to be given to the other updates.
+    */
+   synchronized int add(long accountId, SavingsAccount account) {
+      int number = freeCount > 0 ? freeNumbers[--freeCount] : nextNumber++;
+      if (number >>> ID_PAGE_BITS >= ids.length) {
+         long[][] grown = Arrays.copyOf(ids, Math.max(ids.length * 2, (number >>> ID_PAGE_BITS) + 1));
+         for (int i = ids.length; i < grown.length; i++) {
+            grown[i] = new long[ID_PAGE_SIZE];
+         }
+         ids = grown;
+         inactive.ensureCapacity(grown.length * ID_PAGE_SIZE - 1);
+      }
+      ids[number >>> ID_PAGE_BITS][number & (ID_PAGE_SIZE - 1)] = accountId;
+      accounts.increment();
+      balanceCents.add(Money.toCents(account.getBalance()));
+      if (!account.isStatus()) {
+         inactive.set(number);
+      }
+      return number;
+   }
+
+   /**
+    * Stops counting an account. Must be called with the account's lock held.
+    *
+    * @param number  The account's number.
+    * @param account The account.
+    */
+   void remove(int number, SavingsAccount account) {
+      inactive.clear(number);
+      balanceCents.add(-Money.toCents(account.getBalance()));
+      accounts.decrement();
+      synchronized (this) {
+         if (freeCount == freeNumbers.length) {
+            freeNumbers = Arrays.copyOf(freeNumbers, freeCount * 2);
+         }
+         freeNumbers[freeCount++] = number;
+      }
+   }
+
+   /**
+    * Records a change to an account. Must be called with the account's lock held.
+    *
+    * @param number        The account's number.
+    * @param balanceBefore The balance before the change.
+    * @param wasActive     The status before the change.
+    * @param account       The account after the change.
+    */
+   void update(int number, double balanceBefore, boolean wasActive, SavingsAccount account) {
+      long change = Money.toCents(account.getBalance()) - Money.toCents(balanceBefore);
+      if (change != 0) {
+         balanceCents.add(change);
+      }
+      if (account.isStatus() != wasActive) {
+         inactive.set(number, wasActive);
+      }
+   }
+
+   /**
+    * Records fees taken by the monthly process.
+    *
+    * @param charges The fees taken.
+    */
+   void feesCharged(double charges) {
+      if (charges != 0) {
+         feeCents.add(Money.toCents(charges));
+      }
+   }
+}
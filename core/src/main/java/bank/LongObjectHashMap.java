@@ -0,0 +1,287 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from primitive {@code long} keys to object values.
+ * Keys and values live in two parallel arrays, so there is no boxing of keys and
+ * no per-entry node object. Collisions are resolved with linear probing and
+ * removals use backward-shift deletion, so no tombstones are left behind.
+ *
+ * A {@code null} value marks an empty slot, which means {@code null} values cannot be stored.
+ * This class is not thread-safe.
+ *
+ * @param <V> The type of the mapped values.
+ */
+public class LongObjectHashMap<V> {
+   private static final int DEFAULT_CAPACITY = 16;
+   private static final float LOAD_FACTOR = 0.75f;
+
+   private long[] keys;
+   private Object[] values;
+   private int size;
+   private int mask;
+   private int resizeThreshold;
+
+   /**
+    * Constructs an empty map with a small default capacity.
+    */
+   public LongObjectHashMap() {
+      this(DEFAULT_CAPACITY);
+   }
+
+   /**
+    * Constructs an empty map that can hold the expected number of entries without resizing.
+    *
+    * @param expectedSize The number of entries the map is expected to hold.
+    */
+   public LongObjectHashMap(int expectedSize) {
+      if (expectedSize < 0) {
+         throw new IllegalArgumentException("expected size should be >= 0.");
+      }
+      allocate(tableSizeFor((long) Math.ceil(expectedSize / (double) LOAD_FACTOR)));
+   }
+
+   /**
+    * Returns the value mapped to the key, or {@code null} if there is none.
+    *
+    * @param key The key to look up.
+    * @return The mapped value, or {@code null}.
+    */
+   @SuppressWarnings("unchecked")
+   public V get(long key) {
+      int slot = indexOf(key);
+      return slot < 0 ? null : (V) values[slot];
+   }
+
+   /**
+    * Checks whether the key is mapped.
+    *
+    * @param key The key to look up.
+    * @return {@code true} if the map contains the key.
+    */
+   public boolean containsKey(long key) {
+      return indexOf(key) >= 0;
+   }
+
+   /**
+    * Maps the key to the value, replacing any previous mapping.
+    *
+    * @param key   The key.
+    * @param value The value, which must not be {@code null}.
+    * @return The previous value, or {@code null} if the key was not mapped.
+    */
+   @SuppressWarnings("unchecked")
+   public V put(long key, V value) {
+      if (value == null) {
+         throw new NullPointerException("null values are not supported.");
+      }
+      int slot = hash(key) & mask;
+      while (values[slot] != null) {
+         if (keys[slot] == key) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+         }
+         slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+      if (++size > resizeThreshold) {
+         rehash(keys.length << 1);
+      }
+      return null;
+   }
+
+   /**
+    * Maps the key to the value only if the key is not mapped yet.
+    *
+    * @param key   The key.
+    * @param value The value, which must not be {@code null}.
+    * @return The existing value, or {@code null} if the value was inserted.
+    */
+   public V putIfAbsent(long key, V value) {
+      V existing = get(key);
+      if (existing != null) {
+         return existing;
+      }
+      put(key, value);
+      return null;
+   }
+
+   /**
+    * Removes the mapping for the key.
+    *
+    * @param key The key to remove.
+    * @return The removed value, or {@code null} if the key was not mapped.
+    */
+   @SuppressWarnings("unchecked")
+   public V remove(long key) {
+      int slot = indexOf(key);
+      if (slot < 0) {
+         return null;
+      }
+      V removed = (V) values[slot];
+      values[slot] = null;
+      size--;
+   
+      // Backward-shift the rest of the probe chain so lookups never stop early.
+      int gap = slot;
+      int next = (gap + 1) & mask;
+      while (values[next] != null) {
+         int home = hash(keys[next]) & mask;
+         if (((next - home) & mask) >= ((next - gap) & mask)) {
+            keys[gap] = keys[next];
+            values[gap] = values[next];
+            values[next] = null;
+            gap = next;
+         }
+         next = (next + 1) & mask;
+      }
+      return removed;
+   }
+
+   /**
+    * Returns the number of entries in the map.
+    *
+    * @return The number of entries.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Removes every entry but keeps the current capacity.
+    */
+   public void clear() {
+      Arrays.fill(values, null);
+      size = 0;
+   }
+
+   /**
+    * Returns the number of slots in the backing arrays. Together with {@link #isUsed(int)},
+    * {@link #keyAt(int)} and {@link #valueAt(int)} this allows iterating or partitioning
+    * the map by slot range without allocating an iterator.
+    *
+    * @return The number of slots.
+    */
+   public int capacity() {
+      return keys.length;
+   }
+
+   /**
+    * Checks whether a slot holds an entry.
+    *
+    * @param slot The slot index, between 0 and {@link #capacity()} - 1.
+    * @return {@code true} if the slot is used.
+    */
+   public boolean isUsed(int slot) {
+      return values[slot] != null;
+   }
+
+   /**
+    * Returns the key stored in a used slot.
+    *
+    * @param slot The slot index.
+    * @return The key in the slot.
+    */
+   public long keyAt(int slot) {
+      return keys[slot];
+   }
+
+   /**
+    * Returns the value stored in a slot, or {@code null} if the slot is empty.
+    *
+    * @param slot The slot index.
+    * @return The value in the slot.
+    */
+   @SuppressWarnings("unchecked")
+   public V valueAt(int slot) {
+      return (V) values[slot];
+   }
+
+   /**
+    * Calls the visitor once for every entry in slot order.
+    *
+    * @param visitor The visitor to call.
+    */
+   @SuppressWarnings("unchecked")
+   public void forEach(Visitor<? super V> visitor) {
+      for (int slot = 0; slot < values.length; slot++) {
+         if (values[slot] != null) {
+            visitor.visit(keys[slot], (V) values[slot]);
+         }
+      }
+   }
+
+   /**
+    * Callback used by {@link #forEach(Visitor)}.
+    *
+    * @param <V> The type of the mapped values.
+    */
+   public interface Visitor<V> {
+      void visit(long key, V value);
+   }
+
+   private int indexOf(long key) {
+      int slot = hash(key) & mask;
+      while (values[slot] != null) {
+         if (keys[slot] == key) {
+            return slot;
+         }
+         slot = (slot + 1) & mask;
+      }
+      return -1;
+   }
+
+   @SuppressWarnings("unchecked")
+   private void rehash(int newCapacity) {
+      long[] oldKeys = keys;
+      Object[] oldValues = values;
+      allocate(newCapacity);
+      for (int i = 0; i < oldValues.length; i++) {
+         if (oldValues[i] != null) {
+            int slot = hash(oldKeys[i]) & mask;
+            while (values[slot] != null) {
+               slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+         }
+      }
+   }
+
+   private void allocate(int capacity) {
+      keys = new long[capacity];
+      values = new Object[capacity];
+      mask = capacity - 1;
+      resizeThreshold = (int) (capacity * LOAD_FACTOR);
+   }
+
+   private static int tableSizeFor(long minimum) {
+      if (minimum > (1 << 30)) {
+         throw new IllegalArgumentException("map cannot hold that many entries.");
+      }
+      int capacity = DEFAULT_CAPACITY;
+      while (capacity < minimum) {
+         capacity <<= 1;
+      }
+      return capacity;
+   }
+
+   // Murmur3 finalizer, spreads sequential account IDs across the table.
+   static int hash(long key) {
+      key ^= key >>> 33;
+      key *= 0xff51afd7ed558ccdL;
+      key ^= key >>> 33;
+      key *= 0xc4ceb9fe1a85ec53L;
+      key ^= key >>> 33;
+      return (int) key;
+   }
+}
@@ -0,0 +1,21 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The operations whose latency and outcome {@link Metrics} records.
+ */
+public enum MeteredOperation {
+   /** A deposit into a savings account. */
+   DEPOSIT,
+   /** A withdrawal from a savings account. */
+   WITHDRAW,
+   /** The monthly process of a savings account. */
+   MONTHLY_PROCESS,
+   /** Writing an account with object serialization, as Application.writeObj does. */
+   WRITE_OBJ
+}
@@ -0,0 +1,342 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The Metrics class holds the latency histograms and counters that savings accounts
+ * record on their hot paths: for each {@link MeteredOperation} a {@link LatencyHistogram}
+ * and a {@link LongAdder} per {@link TransactionStatus}, plus counters for accounts
+ * becoming inactive or active again.
+ *
+ * Recording is on by default and can be switched off with {@link #setEnabled(boolean)}
+ * or {@code -Dbank.metrics=false}; when it is off an operation costs one extra field
+ * read. Every operation is counted, but reading the clock costs more than a deposit, so
+ * only a random sample of operations is timed: one in 64 by default, set with
+ * {@link #setSampleEvery(int)} or {@code -Dbank.metrics.sampleEvery}. Percentiles are
+ * estimated from the sample. {@link #registerMBeans()} publishes everything through JMX and
+ * {@link MetricsReporter} writes it to a file periodically.
+ */
+public final class Metrics {
+   private static final MeteredOperation[] OPERATIONS = MeteredOperation.values();
+   private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+   private static final LatencyHistogram[] LATENCIES = new LatencyHistogram[OPERATIONS.length];
+   private static final LongAdder[][] OUTCOMES = new LongAdder[OPERATIONS.length][STATUSES.length];
+   private static final LongAdder DEACTIVATIONS = new LongAdder();
+   private static final LongAdder REACTIVATIONS = new LongAdder();
+
+   private static final int DEFAULT_SAMPLE_EVERY = 64;
+
+   // Returned by start() for an operation that is counted but not timed.
+   private static final long COUNT_ONLY = Long.MIN_VALUE;
+
+   private static volatile boolean enabled = !"false".equals(System.getProperty("bank.metrics"));
+   private static volatile int sampleMask = initialSampleMask();
+   private static boolean registered;
+
+   static {
+      for (int op = 0; op < OPERATIONS.length; op++) {
+         LATENCIES[op] = new LatencyHistogram();
+         for (int status = 0; status < STATUSES.length; status++) {
+            OUTCOMES[op][status] = new LongAdder();
+         }
+      }
+   }
+
+   private Metrics() {
+   }
+
+   /**
+    * Returns whether metrics are being recorded.
+    *
+    * @return {@code true} if recording is on.
+    */
+   public static boolean isEnabled() {
+      return enabled;
+   }
+
+   /**
+    * Switches recording on or off. Values already recorded are kept.
+    *
+    * @param on Whether to record.
+    */
+   public static void setEnabled(boolean on) {
+      enabled = on;
+   }
+
+   /**
+    * Sets how many operations share one timed operation, on average.
+    *
+    * @param every A power of two; 1 times every operation.
+    */
+   public static void setSampleEvery(int every) {
+      sampleMask = sampleMaskFor(every);
+   }
+
+   /**
+    * Returns the latency histogram of an operation. It holds the timed sample only.
+    *
+    * @param operation The operation.
+    * @return The histogram, in nanoseconds.
+    */
+   public static LatencyHistogram latency(MeteredOperation operation) {
+      return LATENCIES[operation.ordinal()];
+   }
+
+   /**
+    * Returns how many times an operation ran.
+    *
+    * @param operation The operation.
+    * @return The count.
+    */
+   public static long count(MeteredOperation operation) {
+      long count = 0;
+      for (LongAdder outcome : OUTCOMES[operation.ordinal()]) {
+         count += outcome.sum();
+      }
+      return count;
+   }
+
+   /**
+    * Returns how many times an operation ended with a status.
+    *
+    * @param operation The operation.
+    * @param status    The status.
+    * @return The count.
+    */
+   public static long count(MeteredOperation operation, TransactionStatus status) {
+      return OUTCOMES[operation.ordinal()][status.ordinal()].sum();
+   }
+
+   /**
+    * Returns the number of times an active account became inactive.
+    *
+    * @return The count.
+    */
+   public static long deactivations() {
+      return DEACTIVATIONS.sum();
+   }
+
+   /**
+    * Returns the number of times an inactive account became active again.
+    *
+    * @return The count.
+    */
+   public static long reactivations() {
+      return REACTIVATIONS.sum();
+   }
+
+   /**
+    * Clears every counter and histogram.
+    */
+   public static void reset() {
+      for (int op = 0; op < OPERATIONS.length; op++) {
+         LATENCIES[op].reset();
+         for (LongAdder outcome : OUTCOMES[op]) {
+            outcome.reset();
+         }
+      }
+      DEACTIVATIONS.reset();
+      REACTIVATIONS.reset();
+   }
+
+   /**
+    * Registers the MBeans with the platform MBean server. Calling this more than once
+    * has no further effect.
+    *
+    * @throws JMException If an MBean cannot be registered.
+    */
+   public static synchronized void registerMBeans() throws JMException {
+      if (registered) {
+         return;
+      }
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+         for (MeteredOperation operation : OPERATIONS) {
+            server.registerMBean(new OperationMetrics(operation), new ObjectName("bank:type=OperationMetrics,name=" + operation));
+         }
+         server.registerMBean(new AccountMetrics(), new ObjectName("bank:type=AccountMetrics"));
+      } catch (InstanceAlreadyExistsException e) {
+         // Registered by another class loader; its beans show the same kind of data.
+      }
+      registered = true;
+   }
+
+   /**
+    * Formats every metric as text, one operation per line.
+    *
+    * @return The metrics.
+    */
+   public static String report() {
+      StringBuilder report = new StringBuilder();
+      report.append(String.format("%-16s %10s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+            "operation", "count", "ok", "range", "funds", "inactive", "p50 ns", "p99 ns", "p99.9 ns", "max ns"));
+      for (MeteredOperation operation : OPERATIONS) {
+         LatencyHistogram latency = latency(operation);
+         report.append(String.format("%-16s %10d %10d %10d %10d %10d %10d %10d %10d %10d%n", operation, count(operation),
+               count(operation, TransactionStatus.OK), count(operation, TransactionStatus.OUT_OF_RANGE),
+               count(operation, TransactionStatus.INSUFFICIENT_FUNDS), count(operation, TransactionStatus.INACTIVE),
+               latency.valueAtPercentile(50), latency.valueAtPercentile(99), latency.valueAtPercentile(99.9), latency.max()));
+      }
+      report.append(String.format("deactivations %d, reactivations %d%n", deactivations(), reactivations()));
+      return report.toString();
+   }
+
+   /**
+    * Starts timing an operation.
+    *
+    * @return The start time, 0 if recording is off, or {@code COUNT_ONLY} if the
+    *         operation is not in the timed sample.
+    */
+   static long start() {
+      if (!enabled) {
+         return 0;
+      }
+      return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0 ? System.nanoTime() : COUNT_ONLY;
+   }
+
+   /**
+    * Records the latency and outcome of an operation started with {@link #start()}.
+    */
+   static void record(MeteredOperation operation, long start, TransactionStatus status) {
+      if (start != 0) {
+         if (start != COUNT_ONLY) {
+            LATENCIES[operation.ordinal()].record(System.nanoTime() - start);
+         }
+         OUTCOMES[operation.ordinal()][status.ordinal()].increment();
+      }
+   }
+
+   /**
+    * Records that an account changed status.
+    *
+    * @param active The new status.
+    */
+   static void statusChanged(boolean active) {
+      if (enabled) {
+         (active ? REACTIVATIONS : DEACTIVATIONS).increment();
+      }
+   }
+
+   // A bad setting must not stop the class from loading, or every account operation would fail.
+   private static int initialSampleMask() {
+      String setting = System.getProperty("bank.metrics.sampleEvery");
+      if (setting != null) {
+         try {
+            return sampleMaskFor(Integer.parseInt(setting.trim()));
+         } catch (IllegalArgumentException e) {
+            System.err.println("bank.metrics.sampleEvery=" + setting + " is not a power of two; timing 1 operation in " + DEFAULT_SAMPLE_EVERY + ".");
+         }
+      }
+      return DEFAULT_SAMPLE_EVERY - 1;
+   }
+
+   private static int sampleMaskFor(int every) {
+      if (every < 1 || Integer.bitCount(every) != 1) {
+         throw new IllegalArgumentException("sample rate should be a power of two.");
+      }
+      return every - 1;
+   }
+
+   private static final class OperationMetrics implements OperationMetricsMXBean {
+      private final MeteredOperation operation;
+
+      OperationMetrics(MeteredOperation operation) {
+         this.operation = operation;
+      }
+
+      @Override
+      public long getCount() {
+         return count(operation);
+      }
+
+      @Override
+      public long getOkCount() {
+         return count(operation, TransactionStatus.OK);
+      }
+
+      @Override
+      public long getOutOfRangeCount() {
+         return count(operation, TransactionStatus.OUT_OF_RANGE);
+      }
+
+      @Override
+      public long getInsufficientFundsCount() {
+         return count(operation, TransactionStatus.INSUFFICIENT_FUNDS);
+      }
+
+      @Override
+      public long getInactiveCount() {
+         return count(operation, TransactionStatus.INACTIVE);
+      }
+
+      @Override
+      public double getMeanNanos() {
+         return latency(operation).mean();
+      }
+
+      @Override
+      public long getP50Nanos() {
+         return latency(operation).valueAtPercentile(50);
+      }
+
+      @Override
+      public long getP90Nanos() {
+         return latency(operation).valueAtPercentile(90);
+      }
+
+      @Override
+      public long getP99Nanos() {
+         return latency(operation).valueAtPercentile(99);
+      }
+
+      @Override
+      public long getP999Nanos() {
+         return latency(operation).valueAtPercentile(99.9);
+      }
+
+      @Override
+      public long getMaxNanos() {
+         return latency(operation).max();
+      }
+   }
+
+   private static final class AccountMetrics implements AccountMetricsMXBean {
+      @Override
+      public boolean isEnabled() {
+         return Metrics.isEnabled();
+      }
+
+      @Override
+      public void setEnabled(boolean on) {
+         Metrics.setEnabled(on);
+      }
+
+      @Override
+      public long getDeactivations() {
+         return Metrics.deactivations();
+      }
+
+      @Override
+      public long getReactivations() {
+         return Metrics.reactivations();
+      }
+
+      @Override
+      public void reset() {
+         Metrics.reset();
+      }
+   }
+}
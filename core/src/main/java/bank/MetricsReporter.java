@@ -0,0 +1,77 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MetricsReporter class writes {@link Metrics#report()} to a file at a fixed
+ * interval, for machines where JMX is not reachable. Each write replaces the file
+ * whole, so a reader never sees a half-written report.
+ */
+public class MetricsReporter implements Closeable {
+   private final Path file;
+   private final ScheduledExecutorService scheduler;
+
+   /**
+    * Starts writing the metrics to a file.
+    *
+    * @param file   The file to write.
+    * @param period The time between writes.
+    * @param unit   The unit of the period.
+    */
+   public MetricsReporter(Path file, long period, TimeUnit unit) {
+      this.file = file;
+      scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+         Thread thread = new Thread(task, "metrics-reporter");
+         thread.setDaemon(true);
+         return thread;
+      });
+      scheduler.scheduleAtFixedRate(() -> {
+         try {
+            write();
+         } catch (IOException e) {
+            System.err.println("cannot write metrics to " + file + ": " + e.getMessage());
+         }
+      }, period, period, unit);
+   }
+
+   /**
+    * Writes the metrics now.
+    *
+    * @throws IOException If the file cannot be written.
+    */
+   public void write() throws IOException {
+      Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+      Files.write(temp, Metrics.report().getBytes(StandardCharsets.UTF_8));
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * Stops the periodic writes and writes the metrics one last time.
+    *
+    * @throws IOException If the file cannot be written.
+    */
+   @Override
+   public void close() throws IOException {
+      scheduler.shutdown();
+      try {
+         scheduler.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      write();
+   }
+}
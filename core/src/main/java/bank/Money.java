@@ -0,0 +1,78 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Helper methods for exact fixed-point money. Amounts are held as a {@code long}
+ * number of cents (minor units), so adding and subtracting never drifts the way
+ * {@code double} dollars do. Rounding only happens where a rate is applied, and it
+ * always rounds half to even.
+ */
+public final class Money {
+   public static final long CENTS_PER_DOLLAR = 100;
+
+   private Money() {
+   }
+
+   /**
+    * Converts a dollar amount to cents, rounding to the nearest cent.
+    *
+    * @param dollars The amount in dollars.
+    * @return The amount in cents.
+    */
+   public static long toCents(double dollars) {
+      return Math.round(dollars * CENTS_PER_DOLLAR);
+   }
+
+   /**
+    * Converts an amount in cents to dollars.
+    *
+    * @param cents The amount in cents.
+    * @return The amount in dollars.
+    */
+   public static double toDollars(long cents) {
+      return cents / (double) CENTS_PER_DOLLAR;
+   }
+
+   /**
+    * Calculates one month of interest on a balance, rounded half to even to a whole cent.
+    *
+    * @param balanceCents       The balance in cents.
+    * @param annualInterestRate The annual interest rate.
+    * @return The monthly interest in cents.
+    */
+   public static long monthlyInterest(long balanceCents, double annualInterestRate) {
+      return (long) Math.rint(balanceCents * (annualInterestRate / 12));
+   }
+
+   /**
+    * Formats an amount in cents the same way the application prints balances.
+    *
+    * @param cents The amount in cents.
+    * @return The formatted amount, for example {@code $12.34}.
+    */
+   public static String format(long cents) {
+      return String.format("$%.2f", toDollars(cents));
+   }
+
+   // Writes an amount with two decimals, without the cost of String.format per line.
+   static void write(Writer out, double amount) throws IOException {
+      long cents = toCents(amount);
+      if (cents < 0) {
+         out.write('-');
+         cents = -cents;
+      }
+      out.write(Long.toString(cents / CENTS_PER_DOLLAR));
+      out.write('.');
+      long fraction = cents % CENTS_PER_DOLLAR;
+      out.write((char) ('0' + fraction / 10));
+      out.write((char) ('0' + fraction % 10));
+   }
+}
@@ -0,0 +1,128 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The MonthEndBatch class runs {@link SavingsAccount#monthlyProcess()} over every account
+ * of a {@link Ledger} and reports the totals in a {@link MonthEndReport}.
+ *
+ * The ledger's slots are cut into fixed-size chunks. Chunks are processed in parallel on
+ * a fork-join pool, each in slot order, and their totals are merged in chunk order. The
+ * chunk boundaries and the merge order do not depend on the number of threads, so the
+ * report is bit-for-bit the same as the one from {@link #runSerial(Ledger)}, which walks
+ * the same chunks and merges them in the same tree shape on the calling thread. Each
+ * account is touched by exactly one thread.
+ *
+ * The ledger must not be changed by other threads while a run is in progress.
+ */
+public class MonthEndBatch {
+   static final int CHUNK_SLOTS = 1 << 14;
+
+   private final ForkJoinPool pool;
+
+   /**
+    * Constructs a batch engine that uses the common fork-join pool.
+    */
+   public MonthEndBatch() {
+      this(ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Constructs a batch engine that uses the given pool.
+    *
+    * @param pool The pool to run chunks on.
+    */
+   public MonthEndBatch(ForkJoinPool pool) {
+      this.pool = pool;
+   }
+
+   /**
+    * Runs month-end processing on every account in parallel.
+    *
+    * @param ledger The ledger to process.
+    * @return The totals of the run.
+    */
+   public MonthEndReport run(Ledger ledger) {
+      LongObjectHashMap<SavingsAccount> accounts = ledger.accounts();
+      return pool.invoke(new ChunkTask(accounts, 0, chunkCount(accounts), true));
+   }
+
+   /**
+    * Runs month-end processing on every account on the calling thread.
+    *
+    * @param ledger The ledger to process.
+    * @return The totals of the run.
+    */
+   public MonthEndReport runSerial(Ledger ledger) {
+      LongObjectHashMap<SavingsAccount> accounts = ledger.accounts();
+      return new ChunkTask(accounts, 0, chunkCount(accounts), false).compute();
+   }
+
+   private static int chunkCount(LongObjectHashMap<SavingsAccount> accounts) {
+      return (accounts.capacity() + CHUNK_SLOTS - 1) / CHUNK_SLOTS;
+   }
+
+   private static MonthEndReport processChunk(LongObjectHashMap<SavingsAccount> accounts, int chunk) {
+      MonthEndReport report = new MonthEndReport();
+      int end = Math.min(accounts.capacity(), (chunk + 1) * CHUNK_SLOTS);
+      for (int slot = chunk * CHUNK_SLOTS; slot < end; slot++) {
+         SavingsAccount account = accounts.valueAt(slot);
+         if (account != null) {
+            process(account, report);
+         }
+      }
+      return report;
+   }
+
+   // Same steps as SavingsAccount.monthlyProcess, with the amounts taken recorded on the side.
+   private static void process(SavingsAccount account, MonthEndReport report) {
+      boolean wasActive = account.isStatus();
+      double before = account.getBalance();
+      double charges = account.monthlyCharges();
+      account.monthlyProcess();
+      double interest = account.getBalance() - (before - charges);
+      report.add(charges, interest, wasActive && !account.isStatus());
+   }
+
+   /**
+    * Splits a range of chunks in half until one chunk is left, then merges left before right.
+    * When not parallel, the right half is computed inline, which gives the same merge tree.
+    */
+   private static final class ChunkTask extends RecursiveTask<MonthEndReport> {
+      private static final long serialVersionUID = 1L;
+      private final LongObjectHashMap<SavingsAccount> accounts;
+      private final int from;
+      private final int to;
+      private final boolean parallel;
+   
+      ChunkTask(LongObjectHashMap<SavingsAccount> accounts, int from, int to, boolean parallel) {
+         this.accounts = accounts;
+         this.from = from;
+         this.to = to;
+         this.parallel = parallel;
+      }
+   
+      @Override
+      protected MonthEndReport compute() {
+         if (to - from <= 1) {
+            return from < to ? processChunk(accounts, from) : new MonthEndReport();
+         }
+         int middle = (from + to) >>> 1;
+         ChunkTask right = new ChunkTask(accounts, middle, to, parallel);
+         if (!parallel) {
+            MonthEndReport left = new ChunkTask(accounts, from, middle, false).compute();
+            return left.merge(right.compute());
+         }
+         right.fork();
+         MonthEndReport left = new ChunkTask(accounts, from, middle, true).compute();
+         return left.merge(right.join());
+      }
+   }
+}
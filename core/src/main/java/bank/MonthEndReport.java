@@ -0,0 +1,113 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The MonthEndReport class holds the totals of one month-end run: how many accounts were
+ * processed, how much was collected in service charges and withdrawal fees, how much
+ * interest was paid, and how many accounts became inactive.
+ */
+public class MonthEndReport {
+   private long accounts;
+   private double feesCollected;
+   private double interestPaid;
+   private long newlyInactive;
+
+   /**
+    * Adds the outcome of one account to the totals.
+    *
+    * @param fees          The service charges and fees taken from the account.
+    * @param interest      The interest credited to the account.
+    * @param becameInactive {@code true} if the account was active before and is not now.
+    */
+   void add(double fees, double interest, boolean becameInactive) {
+      accounts++;
+      feesCollected += fees;
+      interestPaid += interest;
+      if (becameInactive) {
+         newlyInactive++;
+      }
+   }
+
+   /**
+    * Adds the totals of another report to this one.
+    *
+    * @param other The report to add.
+    * @return This report.
+    */
+   MonthEndReport merge(MonthEndReport other) {
+      accounts += other.accounts;
+      feesCollected += other.feesCollected;
+      interestPaid += other.interestPaid;
+      newlyInactive += other.newlyInactive;
+      return this;
+   }
+
+   /**
+    * Returns the number of accounts processed.
+    *
+    * @return The number of accounts.
+    */
+   public long getAccounts() {
+      return accounts;
+   }
+
+   /**
+    * Returns the total service charges and withdrawal fees collected.
+    *
+    * @return The fees collected.
+    */
+   public double getFeesCollected() {
+      return feesCollected;
+   }
+
+   /**
+    * Returns the total interest credited.
+    *
+    * @return The interest paid.
+    */
+   public double getInterestPaid() {
+      return interestPaid;
+   }
+
+   /**
+    * Returns the number of accounts that became inactive.
+    *
+    * @return The number of newly inactive accounts.
+    */
+   public long getNewlyInactive() {
+      return newlyInactive;
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (!(o instanceof MonthEndReport)) {
+         return false;
+      }
+      MonthEndReport other = (MonthEndReport) o;
+      return accounts == other.accounts
+            && Double.compare(feesCollected, other.feesCollected) == 0
+            && Double.compare(interestPaid, other.interestPaid) == 0
+            && newlyInactive == other.newlyInactive;
+   }
+
+   @Override
+   public int hashCode() {
+      return Long.hashCode(accounts) * 31 + Double.hashCode(feesCollected) * 17 + Double.hashCode(interestPaid) + Long.hashCode(newlyInactive);
+   }
+
+	/**
+	 * Returns a formatted string representation of the report.
+	 *
+	 * @return A string representation of the object.
+	 */
+   @Override
+   public String toString() {
+      return String.format("Accounts: %d\nFees collected: $%.2f\nInterest paid: $%.2f\nNewly inactive: %d",
+            accounts, feesCollected, interestPaid, newlyInactive);
+   }
+}
@@ -0,0 +1,35 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The JMX view of the metrics of one {@link MeteredOperation}, registered as
+ * {@code bank:type=OperationMetrics,name=<operation>}. Latencies are in nanoseconds.
+ */
+public interface OperationMetricsMXBean {
+   long getCount();
+
+   long getOkCount();
+
+   long getOutOfRangeCount();
+
+   long getInsufficientFundsCount();
+
+   long getInactiveCount();
+
+   double getMeanNanos();
+
+   long getP50Nanos();
+
+   long getP90Nanos();
+
+   long getP99Nanos();
+
+   long getP999Nanos();
+
+   long getMaxNanos();
+}
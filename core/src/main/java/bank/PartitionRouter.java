@@ -0,0 +1,475 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The PartitionRouter class spreads accounts over several {@link AccountServer}
+ * processes, the partitions, and forwards every request to the partition that owns its
+ * account. Ownership is decided by a {@link HashRing} over the account IDs, so each
+ * partition holds about the same share of accounts. Served by an {@link AccountServer},
+ * the router speaks the same protocol as a partition, plus two requests of its own:
+ * <pre>
+ * ADD host:port                  OK and the number of accounts moved
+ * PARTITIONS                     OK and the addresses of the partitions
+ * </pre>
+ * The requests about all accounts, {@code STATS}, {@code INACTIVE} and {@code IDS}, are
+ * sent to every partition and their replies merged. While a partition is being added,
+ * an account being moved may be counted on both partitions or on neither, so these
+ * figures are exact only when no partition is being added.
+ *
+ * A partition can be added while requests are running. The accounts the new partition
+ * takes over are moved a few at a time: each is copied with {@code STATE} and
+ * {@code IMPORT}, and removed from its old partition with {@code REMOVE} only once the new
+ * one has it, so a failure never loses an account. Requests hold a read lock on a stripe
+ * of account IDs while they are forwarded, and a batch of accounts is moved under the
+ * write lock of its stripe, so a request never reaches an account that is half moved;
+ * only requests for accounts in that stripe wait. At the end every stripe is locked for a
+ * moment, to move accounts opened during the move and to switch to the new ring.
+ *
+ * If adding a partition fails, the accounts already moved stay on the new partition and
+ * requests keep reaching them there. No other partition can be added until the same
+ * address is added again, which finishes the move.
+ */
+public class PartitionRouter implements AccountServer.Handler, Closeable {
+   private static final int STRIPE_BITS = 10;
+   private static final int STRIPES = 1 << STRIPE_BITS;
+   // Requests sent before reading replies, few enough that neither side's socket buffer fills.
+   private static final int PIPELINE = 256;
+
+   private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[STRIPES];
+   // The accounts already moved by an unfinished ADD, each guarded by its stripe's lock.
+   private final LongObjectHashMap<Partition>[] moved;
+   private final Object rebalance = new Object();
+   private volatile Routing routing;
+   // The partition of an unfinished or failed ADD, holding the accounts in moved. Written under rebalance.
+   private volatile Partition pending;
+
+   /**
+    * Constructs a router over running partitions.
+    *
+    * @param partitions The addresses of the partitions.
+    */
+   @SuppressWarnings("unchecked")
+   public PartitionRouter(List<InetSocketAddress> partitions) {
+      Partition[] all = new Partition[partitions.size()];
+      List<String> names = new ArrayList<>();
+      for (int i = 0; i < all.length; i++) {
+         all[i] = new Partition(partitions.get(i));
+         names.add(all[i].name);
+      }
+      routing = new Routing(all, new HashRing(names));
+      moved = (LongObjectHashMap<Partition>[]) new LongObjectHashMap<?>[STRIPES];
+      for (int i = 0; i < STRIPES; i++) {
+         locks[i] = new ReentrantReadWriteLock();
+         moved[i] = new LongObjectHashMap<>();
+      }
+   }
+
+   /**
+    * Forwards a request to the partition of its account, or answers a router request.
+    *
+    * @param request The request line.
+    * @param reply   Where to write the reply.
+    * @throws IOException If the reply cannot be written.
+    */
+   @Override
+   public void handle(String request, Writer reply) throws IOException {
+      String[] words = request.split(" ", 3);
+      if (words[0].equals("ADD") && words.length == 2) {
+         try {
+            reply.write("OK " + addPartition(parseAddress(words[1])));
+         } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            reply.write("ERR " + e.getMessage());
+         }
+         return;
+      }
+      if (words[0].equals("PARTITIONS") && words.length == 1) {
+         reply.write("OK");
+         for (InetSocketAddress address : partitions()) {
+            reply.write(" " + address.getHostString() + ":" + address.getPort());
+         }
+         return;
+      }
+      if (words.length == 1 && (words[0].equals("STATS") || words[0].equals("INACTIVE") || words[0].equals("IDS"))) {
+         everyPartition(words[0], reply);
+         return;
+      }
+      if (words.length < 2) {
+         reply.write("ERR unknown request.");
+         return;
+      }
+      long accountId;
+      try {
+         accountId = Long.parseLong(words[1]);
+      } catch (NumberFormatException e) {
+         reply.write("ERR malformed number.");
+         return;
+      }
+      int stripe = stripeOf(accountId);
+      ReentrantReadWriteLock.ReadLock lock = locks[stripe].readLock();
+      lock.lock();
+      try {
+         Partition partition = moved[stripe].get(accountId);
+         if (partition == null) {
+            Routing current = routing;
+            partition = current.partitions[current.ring.ownerOf(accountId)];
+         }
+         try {
+            reply.write(partition.call(request));
+         } catch (IOException e) {
+            reply.write("ERR partition " + partition.name + " is unavailable.");
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Adds a partition and moves to it the accounts it now owns, while requests keep
+    * running. The new partition should be empty. One partition is added at a time.
+    *
+    * @param address The address of the new partition.
+    * @return The number of accounts moved.
+    * @throws IOException If a partition cannot be reached or refuses a move; accounts
+    *                     moved so far stay on the new partition and keep being served,
+    *                     and adding the same address again finishes the move.
+    */
+   public int addPartition(InetSocketAddress address) throws IOException {
+      synchronized (rebalance) {
+         Routing current = routing;
+         Partition target = new Partition(address);
+         if (pending != null) {
+            if (!pending.name.equals(target.name)) {
+               throw new IllegalStateException("partition " + pending.name + " is half added; add it again first.");
+            }
+            target = pending;
+         }
+         HashRing next = current.ring.with(target.name);
+         if (!target.call("IDS").startsWith("OK")) {
+            throw new IOException("partition " + target.name + " cannot list its accounts.");
+         }
+         pending = target;
+         int targetIndex = current.partitions.length;
+         int count = 0;
+         for (Partition source : current.partitions) {
+            count += move(source, target, next, targetIndex, false);
+         }
+         for (ReentrantReadWriteLock lock : locks) {
+            lock.writeLock().lock();
+         }
+         try {
+            for (Partition source : current.partitions) {
+               count += move(source, target, next, targetIndex, true);
+            }
+            Partition[] partitions = Arrays.copyOf(current.partitions, targetIndex + 1);
+            partitions[targetIndex] = target;
+            routing = new Routing(partitions, next);
+            for (LongObjectHashMap<Partition> stripe : moved) {
+               stripe.clear();
+            }
+            pending = null;
+         } finally {
+            for (ReentrantReadWriteLock lock : locks) {
+               lock.writeLock().unlock();
+            }
+         }
+         return count;
+      }
+   }
+
+   /**
+    * Returns the addresses of the partitions.
+    *
+    * @return The addresses, in the order they were added.
+    */
+   public List<InetSocketAddress> partitions() {
+      List<InetSocketAddress> addresses = new ArrayList<>();
+      for (Partition partition : routing.partitions) {
+         addresses.add(partition.address);
+      }
+      return addresses;
+   }
+
+   /**
+    * Closes the connections to the partitions.
+    */
+   @Override
+   public void close() {
+      for (Partition partition : routing.partitions) {
+         partition.close();
+      }
+   }
+
+   /**
+    * Parses an address written as host:port.
+    *
+    * @param address The address.
+    * @return The parsed address.
+    */
+   public static InetSocketAddress parseAddress(String address) {
+      int colon = address.lastIndexOf(':');
+      if (colon <= 0) {
+         throw new IllegalArgumentException("address " + address + " should be host:port.");
+      }
+      return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+   }
+
+   // Sends a request about all accounts to every partition, including one being added, and merges the replies.
+   private void everyPartition(String request, Writer reply) throws IOException {
+      List<Partition> partitions = new ArrayList<>(Arrays.asList(routing.partitions));
+      Partition added = pending;
+      if (added != null && !partitions.contains(added)) {
+         partitions.add(added);
+      }
+      long totalCents = 0;
+      long feeCents = 0;
+      long[] counts = new long[3];
+      StringBuilder ids = new StringBuilder("OK");
+      for (Partition partition : partitions) {
+         String answer;
+         try {
+            answer = partition.call(request);
+         } catch (IOException e) {
+            reply.write("ERR partition " + partition.name + " is unavailable.");
+            return;
+         }
+         if (!answer.startsWith("OK")) {
+            reply.write(answer);
+            return;
+         }
+         if (request.equals("STATS")) {
+            // OK total accounts active inactive fees-this-month
+            String[] figures = answer.split(" ");
+            totalCents += Money.toCents(Double.parseDouble(figures[1]));
+            for (int i = 0; i < counts.length; i++) {
+               counts[i] += Long.parseLong(figures[i + 2]);
+            }
+            feeCents += Money.toCents(Double.parseDouble(figures[5]));
+         } else {
+            ids.append(answer, 2, answer.length());
+         }
+      }
+      if (request.equals("STATS")) {
+         reply.write("OK ");
+         Money.write(reply, Money.toDollars(totalCents));
+         reply.write(" " + counts[0] + " " + counts[1] + " " + counts[2] + " ");
+         Money.write(reply, Money.toDollars(feeCents));
+      } else {
+         reply.write(ids.toString());
+      }
+   }
+
+   // Moves the accounts of source that the next ring gives to target, one stripe at a time.
+   private int move(Partition source, Partition target, HashRing next, int targetIndex, boolean locked) throws IOException {
+      String[] ids = source.call("IDS").split(" ");
+      if (!ids[0].equals("OK")) {
+         throw new IOException("partition " + source.name + " cannot list its accounts: " + String.join(" ", ids));
+      }
+      // Collect the accounts that move, grouped by stripe.
+      List<List<Long>> byStripe = new ArrayList<>(STRIPES);
+      for (int i = 0; i < STRIPES; i++) {
+         byStripe.add(null);
+      }
+      for (int i = 1; i < ids.length; i++) {
+         long accountId = Long.parseLong(ids[i]);
+         if (next.ownerOf(accountId) == targetIndex) {
+            int stripe = stripeOf(accountId);
+            if (byStripe.get(stripe) == null) {
+               byStripe.set(stripe, new ArrayList<>());
+            }
+            byStripe.get(stripe).add(accountId);
+         }
+      }
+      int count = 0;
+      for (int stripe = 0; stripe < STRIPES; stripe++) {
+         List<Long> accounts = byStripe.get(stripe);
+         if (accounts == null) {
+            continue;
+         }
+         if (!locked) {
+            locks[stripe].writeLock().lock();
+         }
+         try {
+            count += moveStripe(source, target, accounts, moved[stripe]);
+         } finally {
+            if (!locked) {
+               locks[stripe].writeLock().unlock();
+            }
+         }
+      }
+      return count;
+   }
+
+   // Must be called with the stripe's write lock held, so the accounts do not change while
+   // they are copied. An account is the source's until it is put in moved, and the target's
+   // after, so whatever fails, every account is reached in exactly one place.
+   private static int moveStripe(Partition source, Partition target, List<Long> accounts, LongObjectHashMap<Partition> moved) throws IOException {
+      List<Long> copied = new ArrayList<>();
+      List<String> reads = new ArrayList<>();
+      for (long accountId : accounts) {
+         // Accounts a failed ADD already moved need only their old copy removed.
+         if (moved.get(accountId) != target) {
+            copied.add(accountId);
+            reads.add("STATE " + accountId);
+         }
+      }
+      List<String> states = source.callAll(reads);
+      List<String> imports = new ArrayList<>();
+      List<Long> importing = new ArrayList<>();
+      for (int i = 0; i < copied.size(); i++) {
+         String state = states.get(i);
+         // An account removed since it was listed has nothing to move.
+         if (state.startsWith("OK ")) {
+            imports.add("IMPORT " + copied.get(i) + state.substring(2));
+            importing.add(copied.get(i));
+         }
+      }
+      List<String> results = target.callAll(imports);
+      String failure = null;
+      int count = 0;
+      for (int i = 0; i < importing.size(); i++) {
+         if (results.get(i).equals("OK")) {
+            moved.put(importing.get(i), target);
+            count++;
+         } else {
+            failure = "cannot move account " + importing.get(i) + " to " + target.name + ": " + results.get(i);
+         }
+      }
+      List<Long> landed = new ArrayList<>();
+      List<String> removes = new ArrayList<>();
+      for (long accountId : accounts) {
+         if (moved.get(accountId) == target) {
+            landed.add(accountId);
+            removes.add("REMOVE " + accountId);
+         }
+      }
+      List<String> removed = source.callAll(removes);
+      for (int i = 0; i < landed.size(); i++) {
+         String reply = removed.get(i);
+         if (!reply.equals("OK") && !reply.endsWith("does not exist.")) {
+            failure = "cannot remove account " + landed.get(i) + " from " + source.name + ": " + reply;
+         }
+      }
+      if (failure != null) {
+         throw new IOException(failure);
+      }
+      return count;
+   }
+
+   private static int stripeOf(long accountId) {
+      return LongObjectHashMap.hash(accountId) >>> (32 - STRIPE_BITS);
+   }
+
+   /**
+    * The partitions and the ring that assigns accounts to them.
+    */
+   private static final class Routing {
+      final Partition[] partitions;
+      final HashRing ring;
+
+      Routing(Partition[] partitions, HashRing ring) {
+         this.partitions = partitions;
+         this.ring = ring;
+      }
+   }
+
+   /**
+    * A partition and a pool of connections to it.
+    */
+   private static final class Partition {
+      final InetSocketAddress address;
+      final String name;
+      private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+
+      Partition(InetSocketAddress address) {
+         this.address = address;
+         this.name = address.getHostString() + ":" + address.getPort();
+      }
+
+      String call(String request) throws IOException {
+         return callAll(List.of(request)).get(0);
+      }
+
+      // Sends the requests in batches, each sent whole before its replies are read.
+      List<String> callAll(List<String> requests) throws IOException {
+         Connection connection = idle.poll();
+         if (connection == null) {
+            connection = new Connection(address);
+         }
+         try {
+            List<String> replies = new ArrayList<>(requests.size());
+            for (int first = 0; first < requests.size(); first += PIPELINE) {
+               int last = Math.min(requests.size(), first + PIPELINE);
+               for (int i = first; i < last; i++) {
+                  connection.out.write(requests.get(i));
+                  connection.out.write('\n');
+               }
+               connection.out.flush();
+               for (int i = first; i < last; i++) {
+                  String reply = connection.in.readLine();
+                  if (reply == null) {
+                     throw new IOException("partition " + name + " closed the connection.");
+                  }
+                  replies.add(reply);
+               }
+            }
+            idle.offer(connection);
+            return replies;
+         } catch (IOException e) {
+            connection.close();
+            throw e;
+         }
+      }
+
+      void close() {
+         Connection connection;
+         while ((connection = idle.poll()) != null) {
+            connection.close();
+         }
+      }
+   }
+
+   /**
+    * One connection to a partition, used by one request at a time.
+    */
+   private static final class Connection {
+      final Socket socket;
+      final BufferedReader in;
+      final Writer out;
+
+      Connection(InetSocketAddress address) throws IOException {
+         socket = new Socket(address.getAddress(), address.getPort());
+         socket.setTcpNoDelay(true);
+         in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+         out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+      }
+
+      void close() {
+         try {
+            socket.close();
+         } catch (IOException e) {
+            // Nothing more can be done for this connection.
+         }
+      }
+   }
+}
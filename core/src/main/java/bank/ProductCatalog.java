@@ -0,0 +1,260 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The ProductCatalog class holds the {@link AccountProduct}s an {@link AccountStore}
+ * offers, each known by its number in the catalog. The rules of all products are
+ * copied side by side into plain arrays indexed by product number, and the same few
+ * methods read them for every account. Adding a product adds data, not code, so the
+ * code that applies the rules stays one short path the JIT can inline, however many
+ * products are mixed in a batch.
+ *
+ * A catalog is usually loaded from a properties file:
+ * <pre>
+ * # The products, in order; accounts opened without a product get the first.
+ * products=standard,premium
+ * premium.maxAmount=50000.00
+ * premium.minBalance=1000.00
+ * premium.monthlyFee=5.00
+ * premium.freeWithdrawals=10
+ * premium.withdrawalFee=0.50
+ * # $2.00 for each withdrawal after the 20th.
+ * premium.withdrawalFee.20=2.00
+ * </pre>
+ * Amounts are in dollars. A setting left out takes the value of the standard product.
+ */
+public final class ProductCatalog {
+   /** The largest number of products in one catalog. */
+   public static final int MAX_PRODUCTS = 256;
+
+   /** A catalog of the standard product alone. */
+   public static final ProductCatalog STANDARD = new ProductCatalog(List.of(AccountProduct.STANDARD));
+
+   private static final Set<String> SETTINGS = Set.of("maxAmount", "minBalance", "monthlyFee", "freeWithdrawals", "withdrawalFee");
+
+   private final AccountProduct[] products;
+   // The rules, indexed by product number.
+   private final long[] maxAmount;
+   private final long[] minBalance;
+   private final long[] monthlyFee;
+   // The fee tiers of product p are at tierOffsets[p] up to tierOffsets[p + 1].
+   private final int[] tierOffsets;
+   private final int[] tierStarts;
+   private final long[] tierFees;
+
+   /**
+    * Constructs a catalog of the given products, numbered in order from 0.
+    *
+    * @param products The products; their names must differ.
+    */
+   public ProductCatalog(List<AccountProduct> products) {
+      if (products.isEmpty() || products.size() > MAX_PRODUCTS) {
+         throw new IllegalArgumentException("a catalog should have 1 to " + MAX_PRODUCTS + " products.");
+      }
+      this.products = products.toArray(new AccountProduct[0]);
+      int count = this.products.length;
+      maxAmount = new long[count];
+      minBalance = new long[count];
+      monthlyFee = new long[count];
+      tierOffsets = new int[count + 1];
+      int tiers = 0;
+      for (int p = 0; p < count; p++) {
+         AccountProduct product = this.products[p];
+         for (int q = 0; q < p; q++) {
+            if (this.products[q].getName().equals(product.getName())) {
+               throw new IllegalArgumentException("product " + product.getName() + " is defined twice.");
+            }
+         }
+         maxAmount[p] = product.getMaxAmount();
+         minBalance[p] = product.getMinBalance();
+         monthlyFee[p] = product.getMonthlyFee();
+         tierOffsets[p] = tiers;
+         tiers += product.tierStarts.length;
+      }
+      tierOffsets[count] = tiers;
+      tierStarts = new int[tiers];
+      tierFees = new long[tiers];
+      for (int p = 0; p < count; p++) {
+         AccountProduct product = this.products[p];
+         System.arraycopy(product.tierStarts, 0, tierStarts, tierOffsets[p], product.tierStarts.length);
+         System.arraycopy(product.tierFees, 0, tierFees, tierOffsets[p], product.tierFees.length);
+      }
+   }
+
+   /**
+    * Loads a catalog from a properties file.
+    *
+    * @param file The file to read.
+    * @return The catalog.
+    * @throws IOException If the file cannot be read or defines a product wrongly.
+    */
+   public static ProductCatalog load(Path file) throws IOException {
+      Properties settings = new Properties();
+      try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+         settings.load(in);
+      }
+      try {
+         return fromProperties(settings);
+      } catch (IllegalArgumentException e) {
+         throw new IOException(file + ": " + e.getMessage(), e);
+      }
+   }
+
+   /**
+    * Builds a catalog from settings written as in a catalog file.
+    *
+    * @param settings The settings.
+    * @return The catalog.
+    */
+   public static ProductCatalog fromProperties(Properties settings) {
+      String list = settings.getProperty("products");
+      if (list == null || list.isBlank()) {
+         throw new IllegalArgumentException("setting products should name the products.");
+      }
+      List<String> names = new ArrayList<>();
+      for (String name : list.split(",")) {
+         if (!name.trim().matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("product name '" + name.trim() + "' should be letters, digits, _ or -.");
+         }
+         names.add(name.trim());
+      }
+      for (String key : settings.stringPropertyNames()) {
+         int dot = key.indexOf('.');
+         String setting = dot < 0 ? "" : key.substring(dot + 1);
+         boolean known = key.equals("products") || (dot > 0 && names.contains(key.substring(0, dot))
+               && (SETTINGS.contains(setting) || setting.matches("withdrawalFee\\.\\d{1,9}")));
+         if (!known) {
+            throw new IllegalArgumentException("unknown setting " + key + ".");
+         }
+      }
+      List<AccountProduct> products = new ArrayList<>();
+      for (String name : names) {
+         AccountProduct standard = AccountProduct.STANDARD;
+         AccountProduct product = new AccountProduct(name,
+               cents(settings, name + ".maxAmount", standard.getMaxAmount()),
+               cents(settings, name + ".minBalance", standard.getMinBalance()),
+               cents(settings, name + ".monthlyFee", standard.getMonthlyFee()),
+               count(settings, name + ".freeWithdrawals", standard.getFreeWithdrawals()),
+               cents(settings, name + ".withdrawalFee", standard.tierFees[0]));
+         TreeMap<Integer, Long> tiers = new TreeMap<>();
+         String prefix = name + ".withdrawalFee.";
+         for (String key : settings.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+               tiers.put(Integer.parseInt(key.substring(prefix.length())), cents(settings, key, 0));
+            }
+         }
+         for (Map.Entry<Integer, Long> tier : tiers.entrySet()) {
+            product = product.withWithdrawalFeeAfter(tier.getKey(), tier.getValue());
+         }
+         products.add(product);
+      }
+      return new ProductCatalog(products);
+   }
+
+   /**
+    * Returns the number of products.
+    *
+    * @return The number of products.
+    */
+   public int size() {
+      return products.length;
+   }
+
+   /**
+    * Returns a product.
+    *
+    * @param product The number of the product.
+    * @return The product.
+    */
+   public AccountProduct product(int product) {
+      return products[product];
+   }
+
+   /**
+    * Returns the number of a product.
+    *
+    * @param name The name of the product.
+    * @return The number of the product.
+    */
+   public int indexOf(String name) {
+      for (int p = 0; p < products.length; p++) {
+         if (products[p].getName().equals(name)) {
+            return p;
+         }
+      }
+      throw new IllegalArgumentException("there is no product " + name + ".");
+   }
+
+   /**
+    * Returns whether a product allows a deposit or withdrawal of the given amount.
+    */
+   boolean inRange(int product, long amount) {
+      return amount > 0 && amount <= maxAmount[product];
+   }
+
+   /**
+    * Returns whether an account of a product with the given balance is active.
+    */
+   boolean isActive(int product, long balance) {
+      return balance >= minBalance[product];
+   }
+
+   /**
+    * Returns what a product charges a month: its monthly fee plus the fees for the
+    * withdrawals after the free ones, tier by tier.
+    */
+   long monthlyCharges(int product, int withdrawals) {
+      long charges = monthlyFee[product];
+      int end = tierOffsets[product + 1];
+      for (int t = tierOffsets[product]; t < end && withdrawals > tierStarts[t]; t++) {
+         int upTo = t + 1 < end ? Math.min(withdrawals, tierStarts[t + 1]) : withdrawals;
+         charges += (upTo - tierStarts[t]) * tierFees[t];
+      }
+      return charges;
+   }
+
+   private static long cents(Properties settings, String key, long otherwise) {
+      return Money.toCents(number(settings, key, Money.toDollars(otherwise)));
+   }
+
+   private static int count(Properties settings, String key, int otherwise) {
+      String value = settings.getProperty(key);
+      if (value == null) {
+         return otherwise;
+      }
+      try {
+         return Integer.parseInt(value.trim());
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException("setting " + key + " should be a whole number.");
+      }
+   }
+
+   private static double number(Properties settings, String key, double otherwise) {
+      String value = settings.getProperty(key);
+      if (value == null) {
+         return otherwise;
+      }
+      try {
+         return Double.parseDouble(value.trim());
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException("setting " + key + " should be a number.");
+      }
+   }
+}
@@ -0,0 +1,159 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Serializable;
+
+/**
+ * The SavingsAccount class represents a savings account that extends
+ * the BankAccount class. It includes additional functionality to handle
+ * account status and restrictions.
+ */
+public class SavingsAccount extends BankAccount implements Serializable {
+   // Pinned to the value the JVM computed for the original class (see BankAccount).
+   private static final long serialVersionUID = -149851267871632222L;
+   // The rules of the standard product, the one every savings account has always had.
+   static final double MIN_BALANCE = Money.toDollars(AccountProduct.STANDARD.getMinBalance());
+   static final double WITHDRAWAL_SERVICE_CHARGE = Money.toDollars(AccountProduct.STANDARD.tierFees[0]);
+   static final int FREE_WITHDRAWALS = AccountProduct.STANDARD.getFreeWithdrawals();
+   private boolean status; // active = true and inactive = false
+
+	/**
+	 * Constructs a SavingsAccount with the specified initial balance and
+	 * annual interest rate.
+	 *
+	 * @param balance            The initial balance of the account.
+	 * @param annualInterestRate The annual interest rate for the account.
+	 * @exception InvalidDepositAmountException if withdraw amount is invalid.
+	 */
+   public SavingsAccount(double balance, double annualInterestRate) throws InvalidDepositAmountException {
+      super(balance, annualInterestRate);
+      status = balance >= MIN_BALANCE;
+      checkStatus();
+   }
+
+	/**
+	 * Constructs a SavingsAccount with the specified initial balance,
+	 * annual interest rate, and monthly service charges.
+	 *
+	 * @param balance               The initial balance of the account.
+	 * @param annualInterestRate    The annual interest rate for the account.
+	 * @param monthlyServiceCharges The monthly service charges for the account.
+	 * @throws InvalidDepositAmountException 
+	 */
+   public SavingsAccount(double balance, double annualInterestRate, double monthlyServiceCharges) throws InvalidDepositAmountException {
+      super(balance, annualInterestRate, monthlyServiceCharges);
+      status = balance >= MIN_BALANCE;
+      checkStatus();
+   }
+
+	/**
+	 * Constructs a SavingsAccount with every field given, without any checks or
+	 * warnings. Used to restore an account from a checkpoint.
+	 *
+	 * @param balance               The balance of the account.
+	 * @param numOfDeposits         The number of deposits this month.
+	 * @param numOfWithdrawals      The number of withdrawals this month.
+	 * @param annualInterestRate    The annual interest rate for the account.
+	 * @param monthlyServiceCharges The monthly service charges for the account.
+	 * @param status                The status of the account.
+	 */
+   SavingsAccount(double balance, int numOfDeposits, int numOfWithdrawals, double annualInterestRate, double monthlyServiceCharges, boolean status) {
+      super(balance, numOfDeposits, numOfWithdrawals, annualInterestRate, monthlyServiceCharges);
+      this.status = status;
+   }
+
+	// Accessor for status
+   public boolean isStatus() {
+      return status;
+   }
+
+	// Overridden tryWithdraw method from super class; This will also update status and warn if necessary.
+	// withdraw() goes through here, so an inactive account is refused without an exception.
+   @Override
+   public TransactionStatus tryWithdraw(double amount) {
+      long start = Metrics.start();
+      TransactionStatus result;
+      if (!status) {
+         AccountEvents.publish(AccountEventType.WITHDRAWAL_REFUSED, this, amount, getBalance());
+         result = TransactionStatus.INACTIVE;
+      } else {
+         result = super.tryWithdraw(amount);
+         if (result == TransactionStatus.OK) {
+            checkStatus();
+         }
+      }
+      Metrics.record(MeteredOperation.WITHDRAW, start, result);
+      return result;
+   }
+
+	// Overridden tryDeposit method from super class; This will also update status and warn if necessary.
+	// deposit() goes through here.
+   @Override
+   public TransactionStatus tryDeposit(double amount) {
+      long start = Metrics.start();
+      TransactionStatus result = super.tryDeposit(amount);
+      if (result == TransactionStatus.OK) {
+         checkStatus();
+      }
+      Metrics.record(MeteredOperation.DEPOSIT, start, result);
+      return result;
+   }
+
+	// Overridden monthlyProcess method
+   @Override
+   public void monthlyProcess() {
+      long start = Metrics.start();
+   	// Check the number of withdrawals
+      if (getNumOfWithdrawals() > FREE_WITHDRAWALS) {
+         double withdrawalServiceCharge = (getNumOfWithdrawals() - FREE_WITHDRAWALS) * WITHDRAWAL_SERVICE_CHARGE;
+         updateMonthlyServiceCharges(withdrawalServiceCharge);
+      }
+   
+   	// Call the superclass method
+      super.monthlyProcess();
+   
+   	// Check the balance after the service charge is taken
+      if (super.getBalance() < MIN_BALANCE && status) {
+         status = false; // Account becomes inactive
+         Metrics.statusChanged(false);
+      }
+      Metrics.record(MeteredOperation.MONTHLY_PROCESS, start, TransactionStatus.OK);
+   }
+
+	// The charges the next monthly process takes: the service charges plus those for withdrawals over the free ones.
+   double monthlyCharges() {
+      double charges = getMonthlyServiceCharges();
+      if (getNumOfWithdrawals() > FREE_WITHDRAWALS) {
+         charges += (getNumOfWithdrawals() - FREE_WITHDRAWALS) * WITHDRAWAL_SERVICE_CHARGE;
+      }
+      return charges;
+   }
+
+	// Private method to check and update account status
+   private void checkStatus() {
+      boolean wasActive = status;
+      status = super.getBalance() >= MIN_BALANCE;
+      if (status != wasActive) {
+         Metrics.statusChanged(status);
+      }
+      if(!status){
+         AccountEvents.publish(AccountEventType.ACCOUNT_INACTIVE, this, 0, super.getBalance());
+      }
+   }
+
+	/**
+	 * Returns a formatted string representation of the {@code SavingsAccount}
+	 * object.
+	 *
+	 * @return A string representation of the object.
+	 */
+   @Override
+   public String toString() {
+      return super.toString();
+   }
+}
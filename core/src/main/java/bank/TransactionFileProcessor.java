@@ -0,0 +1,327 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The TransactionFileProcessor class streams a transaction file through a {@link Ledger}
+ * without any user interaction. The file is memory-mapped in large windows and parsed by
+ * hand, byte by byte, so no strings or boxed numbers are created per transaction.
+ *
+ * File format: one transaction per line, fields separated by commas.
+ * accountId,O,balance[,annualInterestRate[,monthlyServiceCharges]]   open an account
+ * accountId,D,amount                                                deposit
+ * accountId,W,amount                                                withdraw
+ * accountId,M                                                       monthly process
+ * Empty lines and lines starting with '#' are skipped, and so is a first line that starts
+ * with a letter (a column header).
+ *
+ * Every rejected line is copied to the rejects stream followed by a comma and the reason:
+ * MALFORMED, UNKNOWN_ACCOUNT, DUPLICATE_ACCOUNT or a {@link TransactionStatus} name.
+ * Deposits and withdrawals use the non-throwing account API, so rejections are cheap.
+ */
+public class TransactionFileProcessor {
+   static final long WINDOW_SIZE = 1L << 30;
+   private static final int MAX_LINE = 4096;
+   private static final int MAX_FIELDS = 5;
+
+   private static final byte[] MALFORMED = reason("MALFORMED");
+   private static final byte[] UNKNOWN_ACCOUNT = reason("UNKNOWN_ACCOUNT");
+   private static final byte[] DUPLICATE_ACCOUNT = reason("DUPLICATE_ACCOUNT");
+   private static final byte[][] STATUS_REASONS = new byte[TransactionStatus.values().length][];
+
+   static {
+      for (TransactionStatus status : TransactionStatus.values()) {
+         STATUS_REASONS[status.ordinal()] = reason(status.name());
+      }
+   }
+
+   private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+      1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+   private final Ledger ledger;
+   private final OutputStream rejects;
+   private final byte[] line = new byte[MAX_LINE];
+   private final int[] fieldStart = new int[MAX_FIELDS];
+   private final int[] fieldEnd = new int[MAX_FIELDS];
+   private long applied;
+   private long rejected;
+
+   /**
+    * Constructs a processor that applies transactions to the ledger.
+    *
+    * @param ledger  The ledger to update.
+    * @param rejects The stream that receives rejected lines. It should be buffered.
+    */
+   public TransactionFileProcessor(Ledger ledger, OutputStream rejects) {
+      this.ledger = ledger;
+      this.rejects = rejects;
+   }
+
+   /**
+    * Processes every line of a transaction file.
+    *
+    * @param file The transaction file.
+    * @throws IOException If the file cannot be read or a rejected line cannot be written.
+    */
+   public void process(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+         long size = channel.size();
+         long position = 0;
+         boolean firstLine = true;
+         while (position < size) {
+            long length = Math.min(WINDOW_SIZE, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean last = position + length == size;
+            int limit = (int) length;
+            int start = 0;
+            for (int i = 0; i < limit; i++) {
+               if (window.get(i) == '\n') {
+                  handleLine(window, start, i, firstLine);
+                  firstLine = false;
+                  start = i + 1;
+               }
+            }
+            if (last) {
+               if (start < limit) {
+                  handleLine(window, start, limit, firstLine);
+               }
+               break;
+            }
+            if (start == 0) {
+               throw new IOException("line at offset " + position + " is too long");
+            }
+            // Start the next window at the beginning of the line that was cut off.
+            position += start;
+         }
+      }
+      rejects.flush();
+   }
+
+   /**
+    * Returns how many transactions were applied.
+    *
+    * @return The number of applied transactions.
+    */
+   public long getApplied() {
+      return applied;
+   }
+
+   /**
+    * Returns how many lines were rejected.
+    *
+    * @return The number of rejected lines.
+    */
+   public long getRejected() {
+      return rejected;
+   }
+
+   private void handleLine(MappedByteBuffer window, int from, int to, boolean firstLine) throws IOException {
+      int length = to - from;
+      if (length > 0 && window.get(to - 1) == '\r') {
+         length--;
+      }
+      if (length == 0) {
+         return;
+      }
+      if (length > MAX_LINE) {
+         rejectRaw(window, from, MAX_LINE);
+         return;
+      }
+      window.get(from, line, 0, length);
+      byte first = line[0];
+      if (first == '#' || (firstLine && ((first | 0x20) >= 'a' && (first | 0x20) <= 'z'))) {
+         return;
+      }
+      apply(length);
+   }
+
+   private void apply(int length) throws IOException {
+      int fields = split(length);
+      if (fields < 2 || fieldEnd[1] - fieldStart[1] != 1) {
+         reject(length, MALFORMED);
+         return;
+      }
+      long accountId = parseLong(0);
+      if (accountId == Long.MIN_VALUE) {
+         reject(length, MALFORMED);
+         return;
+      }
+      byte op = line[fieldStart[1]];
+      if (op == 'M') {
+         SavingsAccount account = fields == 2 ? ledger.find(accountId) : null;
+         if (fields != 2) {
+            reject(length, MALFORMED);
+         } else if (account == null) {
+            reject(length, UNKNOWN_ACCOUNT);
+         } else {
+            account.monthlyProcess();
+            applied++;
+         }
+         return;
+      }
+   
+      double amount = fields >= 3 ? parseDecimal(2) : Double.NaN;
+      if (Double.isNaN(amount)) {
+         reject(length, MALFORMED);
+         return;
+      }
+      switch (op) {
+         case 'O':
+            openAccount(length, fields, accountId, amount);
+            break;
+         case 'D':
+            deposit(length, fields, accountId, amount);
+            break;
+         case 'W':
+            withdraw(length, fields, accountId, amount);
+            break;
+         default:
+            reject(length, MALFORMED);
+      }
+   }
+
+   private void openAccount(int length, int fields, long accountId, double balance) throws IOException {
+      double rate = fields >= 4 ? parseDecimal(3) : 0;
+      double charges = fields >= 5 ? parseDecimal(4) : 0;
+      if (Double.isNaN(rate) || Double.isNaN(charges)) {
+         reject(length, MALFORMED);
+      } else if (ledger.contains(accountId)) {
+         reject(length, DUPLICATE_ACCOUNT);
+      } else {
+         try {
+            ledger.open(accountId, balance, rate, charges);
+            applied++;
+         } catch (InvalidDepositAmountException e) {
+            reject(length, STATUS_REASONS[TransactionStatus.OUT_OF_RANGE.ordinal()]);
+         }
+      }
+   }
+
+   private void deposit(int length, int fields, long accountId, double amount) throws IOException {
+      SavingsAccount account = fields == 3 ? ledger.find(accountId) : null;
+      if (fields != 3) {
+         reject(length, MALFORMED);
+      } else if (account == null) {
+         reject(length, UNKNOWN_ACCOUNT);
+      } else {
+         record(length, account.tryDeposit(amount));
+      }
+   }
+
+   private void withdraw(int length, int fields, long accountId, double amount) throws IOException {
+      SavingsAccount account = fields == 3 ? ledger.find(accountId) : null;
+      if (fields != 3) {
+         reject(length, MALFORMED);
+      } else if (account == null) {
+         reject(length, UNKNOWN_ACCOUNT);
+      } else {
+         record(length, account.tryWithdraw(amount));
+      }
+   }
+
+   private void record(int length, TransactionStatus status) throws IOException {
+      if (status == TransactionStatus.OK) {
+         applied++;
+      } else {
+         reject(length, STATUS_REASONS[status.ordinal()]);
+      }
+   }
+
+   private int split(int length) {
+      int fields = 0;
+      int start = 0;
+      for (int i = 0; i <= length; i++) {
+         if (i == length || line[i] == ',') {
+            if (fields == MAX_FIELDS) {
+               return MAX_FIELDS + 1;
+            }
+            fieldStart[fields] = start;
+            fieldEnd[fields] = i;
+            fields++;
+            start = i + 1;
+         }
+      }
+      return fields;
+   }
+
+   // Returns Long.MIN_VALUE if the field is not a non-negative whole number.
+   private long parseLong(int field) {
+      int from = fieldStart[field];
+      int to = fieldEnd[field];
+      if (from == to || to - from > 18) {
+         return Long.MIN_VALUE;
+      }
+      long value = 0;
+      for (int i = from; i < to; i++) {
+         int digit = line[i] - '0';
+         if (digit < 0 || digit > 9) {
+            return Long.MIN_VALUE;
+         }
+         value = value * 10 + digit;
+      }
+      return value;
+   }
+
+   // Parses an optionally signed plain decimal such as 12, -3.5 or 0.05. Returns NaN if malformed.
+   private double parseDecimal(int field) {
+      int i = fieldStart[field];
+      int to = fieldEnd[field];
+      boolean negative = false;
+      if (i < to && (line[i] == '-' || line[i] == '+')) {
+         negative = line[i] == '-';
+         i++;
+      }
+      long mantissa = 0;
+      int digits = 0;
+      int scale = -1;
+      for (; i < to; i++) {
+         byte c = line[i];
+         if (c == '.' && scale < 0) {
+            scale = 0;
+         } else if (c >= '0' && c <= '9') {
+            if (++digits > 18) {
+               return Double.NaN;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (scale >= 0) {
+               scale++;
+            }
+         } else {
+            return Double.NaN;
+         }
+      }
+      if (digits == 0) {
+         return Double.NaN;
+      }
+      double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+      return negative ? -value : value;
+   }
+
+   private void reject(int length, byte[] reason) throws IOException {
+      rejected++;
+      rejects.write(line, 0, length);
+      rejects.write(reason);
+   }
+
+   private void rejectRaw(MappedByteBuffer window, int from, int length) throws IOException {
+      window.get(from, line, 0, length);
+      reject(length, MALFORMED);
+   }
+
+   private static byte[] reason(String reason) {
+      return ("," + reason + "\n").getBytes(StandardCharsets.US_ASCII);
+   }
+}
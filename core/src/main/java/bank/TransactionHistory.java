@@ -0,0 +1,510 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The TransactionHistory class keeps every deposit, withdrawal, fee and interest credit
+ * of every account, so statements can be produced after {@link BankAccount#monthlyProcess()}
+ * has reset the running counters.
+ *
+ * Entries are appended in time order to an in-memory segment. When it is full (or on
+ * {@link #seal()} and {@link #close()}) the segment is written to a file
+ * ({@code history-N.seg}) in columnar form: all timestamps, then all account IDs, and so
+ * on, followed by a per-account index. Sealed segments are never changed and are read
+ * through memory maps, so the history does not have to fit in the heap.
+ *
+ * A statement for account X between T1 and T2 skips every segment whose time range does
+ * not overlap, finds X in each remaining segment's index by binary search, and then
+ * binary-searches X's rows (which are in time order) for T1. Its cost depends on the
+ * number of matching entries and segments, not on the size of the history.
+ *
+ * Sealed segment layout (all numbers big-endian, R rows, A distinct accounts):
+ * header (64 bytes): int magic "SHST", int version, int R, int A, long min timestamp,
+ *                    long max timestamp, ...
+ * columns: long timestamp[R], long accountId[R], double amount[R]
+ * index:   long sorted accountId[A], int first[A + 1], int row[R] (grouped by account,
+ *          ascending within an account)
+ * column:  byte type[R]
+ *
+ * Entries appended since the last seal are only in memory. This class is thread-safe;
+ * statements over sealed segments do not block appends.
+ */
+public class TransactionHistory implements Closeable {
+   public static final byte OPEN = 1;
+   public static final byte DEPOSIT = 2;
+   public static final byte WITHDRAWAL = 3;
+   public static final byte FEE = 4;
+   public static final byte INTEREST = 5;
+
+   static final int MAGIC = 0x53485354; // "SHST"
+   static final int VERSION = 1;
+   static final int HEADER_SIZE = 64;
+   static final int MAX_ROWS_PER_SEGMENT = 1 << 24;
+
+   private static final String PREFIX = "history-";
+   private static final String SUFFIX = ".seg";
+   private static final String[] TYPE_NAMES = {null, "OPEN", "DEPOSIT", "WITHDRAWAL", "FEE", "INTEREST"};
+
+   private final Path directory;
+   private final int rowsPerSegment;
+
+   // Replaced, never changed, when a segment is sealed.
+   private volatile Segment[] sealed;
+
+   // Guarded by this.
+   private long nextSegment;
+   private long lastTimestamp = Long.MIN_VALUE;
+   private long[] timestamps;
+   private long[] accountIds;
+   private double[] amounts;
+   private byte[] types;
+   private int rows;
+   private LongObjectHashMap<RowList> rowsByAccount = new LongObjectHashMap<>();
+
+   private TransactionHistory(Path directory, int rowsPerSegment, Segment[] sealed) {
+      this.directory = directory;
+      this.rowsPerSegment = rowsPerSegment;
+      this.sealed = sealed;
+      timestamps = new long[rowsPerSegment];
+      accountIds = new long[rowsPerSegment];
+      amounts = new double[rowsPerSegment];
+      types = new byte[rowsPerSegment];
+   }
+
+   /**
+    * Opens the history in a directory, creating the directory if needed, and maps the
+    * segments already sealed there.
+    *
+    * @param directory      The directory holding the segment files.
+    * @param rowsPerSegment The number of entries kept in memory before a segment is sealed.
+    * @return The history.
+    * @throws IOException If a segment cannot be read or is not a history segment.
+    */
+   public static TransactionHistory open(Path directory, int rowsPerSegment) throws IOException {
+      if (rowsPerSegment < 1 || rowsPerSegment > MAX_ROWS_PER_SEGMENT) {
+         throw new IllegalArgumentException("rowsPerSegment should be between 1 and " + MAX_ROWS_PER_SEGMENT + ".");
+      }
+      Files.createDirectories(directory);
+      List<Long> numbers = new ArrayList<>();
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+         for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+               numbers.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            } catch (NumberFormatException e) {
+               // Not one of ours.
+            }
+         }
+      }
+      numbers.sort(null);
+      Segment[] segments = new Segment[numbers.size()];
+      for (int i = 0; i < segments.length; i++) {
+         segments[i] = Segment.map(directory.resolve(PREFIX + numbers.get(i) + SUFFIX));
+      }
+      TransactionHistory history = new TransactionHistory(directory, rowsPerSegment, segments);
+      if (segments.length > 0) {
+         history.nextSegment = numbers.get(numbers.size() - 1) + 1;
+         history.lastTimestamp = segments[segments.length - 1].maxTimestamp;
+      }
+      return history;
+   }
+
+   /**
+    * Appends one entry. Timestamps must not go backwards.
+    *
+    * @param timestamp The time of the entry, for example in epoch milliseconds.
+    * @param accountId The ID of the account.
+    * @param type      One of {@link #OPEN}, {@link #DEPOSIT}, {@link #WITHDRAWAL},
+    *                  {@link #FEE} and {@link #INTEREST}.
+    * @param amount    The amount of the entry.
+    * @throws IOException If the segment in memory is full and cannot be sealed; the entry
+    *                     is then not added, and the history stays usable.
+    */
+   public synchronized void append(long timestamp, long accountId, byte type, double amount) throws IOException {
+      if (timestamp < lastTimestamp) {
+         throw new IllegalArgumentException("timestamp " + timestamp + " is before the last entry at " + lastTimestamp + ".");
+      }
+      if (type < OPEN || type > INTEREST) {
+         throw new IllegalArgumentException("unknown entry type " + type + ".");
+      }
+      // Seal before storing, so a failed seal leaves the entries as they were.
+      if (rows == rowsPerSegment) {
+         seal();
+      }
+      timestamps[rows] = timestamp;
+      accountIds[rows] = accountId;
+      amounts[rows] = amount;
+      types[rows] = type;
+      RowList list = rowsByAccount.get(accountId);
+      if (list == null) {
+         list = new RowList();
+         rowsByAccount.put(accountId, list);
+      }
+      list.add(rows);
+      rows++;
+      lastTimestamp = timestamp;
+   }
+
+   /**
+    * Writes the entries held in memory to a new segment file. Does nothing if there are
+    * none.
+    *
+    * @throws IOException If the segment cannot be written.
+    */
+   public synchronized void seal() throws IOException {
+      if (rows == 0) {
+         return;
+      }
+      Path path = directory.resolve(PREFIX + nextSegment + SUFFIX);
+      write(path);
+      Segment segment = Segment.map(path);
+      Segment[] grown = Arrays.copyOf(sealed, sealed.length + 1);
+      grown[sealed.length] = segment;
+      sealed = grown;
+      nextSegment++;
+      rows = 0;
+      rowsByAccount = new LongObjectHashMap<>();
+   }
+
+   /**
+    * Calls the visitor for every entry of an account between two times, inclusive, in
+    * time order. Entries are read straight from the segments, one at a time.
+    *
+    * @param accountId The ID of the account.
+    * @param from      The first time, inclusive.
+    * @param to        The last time, inclusive.
+    * @param visitor   The visitor to call with each entry.
+    * @return The number of entries visited.
+    * @throws IOException If the visitor throws it.
+    */
+   public long statement(long accountId, long from, long to, Visitor visitor) throws IOException {
+      long count = 0;
+      Segment[] segments = sealed;
+      for (Segment segment : segments) {
+         if (segment.maxTimestamp >= from && segment.minTimestamp <= to) {
+            count += segment.statement(accountId, from, to, visitor);
+         }
+      }
+      // Copy what is still in memory under the lock, and visit it after, so a slow visitor
+      // does not hold up appends.
+      Segment[] later;
+      long[] rowTimestamps;
+      byte[] rowTypes;
+      double[] rowAmounts;
+      int rows = 0;
+      synchronized (this) {
+         // A seal between the two reads moved the entries into a segment we did not see.
+         later = sealed;
+         RowList list = rowsByAccount.get(accountId);
+         int first = list == null ? 0 : firstAtOrAfter(list, from);
+         int end = first;
+         while (list != null && end < list.size && timestamps[list.rows[end]] <= to) {
+            end++;
+         }
+         rowTimestamps = new long[end - first];
+         rowTypes = new byte[end - first];
+         rowAmounts = new double[end - first];
+         for (int k = first; k < end; k++) {
+            int row = list.rows[k];
+            rowTimestamps[rows] = timestamps[row];
+            rowTypes[rows] = types[row];
+            rowAmounts[rows] = amounts[row];
+            rows++;
+         }
+      }
+      for (int i = segments.length; i < later.length; i++) {
+         Segment segment = later[i];
+         if (segment.maxTimestamp >= from && segment.minTimestamp <= to) {
+            count += segment.statement(accountId, from, to, visitor);
+         }
+      }
+      for (int k = 0; k < rows; k++) {
+         visitor.entry(rowTimestamps[k], rowTypes[k], rowAmounts[k]);
+      }
+      return count + rows;
+   }
+
+   /**
+    * Writes a statement as CSV lines ({@code timestamp,type,amount}), one entry at a
+    * time, with a header line.
+    *
+    * @param accountId The ID of the account.
+    * @param from      The first time, inclusive.
+    * @param to        The last time, inclusive.
+    * @param out       The writer to write to; it is not closed.
+    * @return The number of entries written.
+    * @throws IOException If the writer fails.
+    */
+   public long exportStatement(long accountId, long from, long to, Writer out) throws IOException {
+      out.write("timestamp,type,amount\n");
+      return statement(accountId, from, to, (timestamp, type, amount) -> {
+         out.write(Long.toString(timestamp));
+         out.write(',');
+         out.write(TYPE_NAMES[type]);
+         out.write(',');
+         Money.write(out, amount);
+         out.write('\n');
+      });
+   }
+
+   /**
+    * Returns the number of entries in the history.
+    *
+    * @return The number of entries.
+    */
+   public synchronized long size() {
+      long size = rows;
+      for (Segment segment : sealed) {
+         size += segment.rows;
+      }
+      return size;
+   }
+
+   /**
+    * Returns the number of sealed segments.
+    *
+    * @return The number of segment files.
+    */
+   public int segmentCount() {
+      return sealed.length;
+   }
+
+   /**
+    * Seals the entries held in memory.
+    *
+    * @throws IOException If the last segment cannot be written.
+    */
+   @Override
+   public void close() throws IOException {
+      seal();
+   }
+
+   /**
+    * Writes the in-memory segment to a file: first to a temporary file, which is forced
+    * and then renamed into place. Called with the lock held.
+    */
+   private void write(Path path) throws IOException {
+      long[] ids = new long[rowsByAccount.size()];
+      int n = 0;
+      for (int slot = 0; slot < rowsByAccount.capacity(); slot++) {
+         if (rowsByAccount.isUsed(slot)) {
+            ids[n++] = rowsByAccount.keyAt(slot);
+         }
+      }
+      Arrays.sort(ids);
+
+      Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+         ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+         buffer.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(ids.length);
+         buffer.putLong(timestamps[0]).putLong(timestamps[rows - 1]);
+         buffer.position(HEADER_SIZE);
+         for (int row = 0; row < rows; row++) {
+            buffer = room(channel, buffer, 8).putLong(timestamps[row]);
+         }
+         for (int row = 0; row < rows; row++) {
+            buffer = room(channel, buffer, 8).putLong(accountIds[row]);
+         }
+         for (int row = 0; row < rows; row++) {
+            buffer = room(channel, buffer, 8).putDouble(amounts[row]);
+         }
+         for (long id : ids) {
+            buffer = room(channel, buffer, 8).putLong(id);
+         }
+         int first = 0;
+         for (long id : ids) {
+            buffer = room(channel, buffer, 4).putInt(first);
+            first += rowsByAccount.get(id).size;
+         }
+         buffer = room(channel, buffer, 4).putInt(first);
+         for (long id : ids) {
+            RowList list = rowsByAccount.get(id);
+            for (int k = 0; k < list.size; k++) {
+               buffer = room(channel, buffer, 4).putInt(list.rows[k]);
+            }
+         }
+         for (int row = 0; row < rows; row++) {
+            buffer = room(channel, buffer, 1).put(types[row]);
+         }
+         drain(channel, buffer);
+         channel.force(true);
+      }
+      Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+   }
+
+   private static ByteBuffer room(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+         drain(channel, buffer);
+      }
+      return buffer;
+   }
+
+   private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+         channel.write(buffer);
+      }
+      buffer.clear();
+   }
+
+   /**
+    * Returns the first position in a row list whose timestamp is at or after a time.
+    * Called with the lock held.
+    */
+   private int firstAtOrAfter(RowList list, long from) {
+      int low = 0;
+      int high = list.size;
+      while (low < high) {
+         int mid = (low + high) >>> 1;
+         if (timestamps[list.rows[mid]] < from) {
+            low = mid + 1;
+         } else {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+   /**
+    * A visitor that receives the entries of a statement.
+    */
+   public interface Visitor {
+      void entry(long timestamp, byte type, double amount) throws IOException;
+   }
+
+   /**
+    * The rows of one account in the in-memory segment, in append order.
+    */
+   private static final class RowList {
+      int[] rows = new int[4];
+      int size;
+
+      void add(int row) {
+         if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+         }
+         rows[size++] = row;
+      }
+   }
+
+   /**
+    * A sealed, memory-mapped segment file.
+    */
+   private static final class Segment {
+      final int rows;
+      final int accounts;
+      final long minTimestamp;
+      final long maxTimestamp;
+      private final MappedByteBuffer map;
+      private final int timestampAt;
+      private final int amountAt;
+      private final int idAt;
+      private final int firstAt;
+      private final int rowAt;
+      private final int typeAt;
+
+      private Segment(MappedByteBuffer map) {
+         this.map = map;
+         rows = map.getInt(8);
+         accounts = map.getInt(12);
+         minTimestamp = map.getLong(16);
+         maxTimestamp = map.getLong(24);
+         timestampAt = HEADER_SIZE;
+         amountAt = timestampAt + 16 * rows;
+         idAt = amountAt + 8 * rows;
+         firstAt = idAt + 8 * accounts;
+         rowAt = firstAt + 4 * (accounts + 1);
+         typeAt = rowAt + 4 * rows;
+      }
+
+      static Segment map(Path path) throws IOException {
+         try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (map.limit() < HEADER_SIZE || map.getInt(0) != MAGIC) {
+               throw new IOException(path + " is not a history segment.");
+            }
+            if (map.getInt(4) != VERSION) {
+               throw new IOException(path + " has unsupported version " + map.getInt(4) + ".");
+            }
+            Segment segment = new Segment(map);
+            if (segment.typeAt + segment.rows != map.limit()) {
+               throw new IOException(path + " is damaged: wrong length.");
+            }
+            return segment;
+         }
+      }
+
+      long statement(long accountId, long from, long to, Visitor visitor) throws IOException {
+         int index = findAccount(accountId);
+         if (index < 0) {
+            return 0;
+         }
+         int low = map.getInt(firstAt + 4 * index);
+         int end = map.getInt(firstAt + 4 * (index + 1));
+         int high = end;
+         while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamp(row(mid)) < from) {
+               low = mid + 1;
+            } else {
+               high = mid;
+            }
+         }
+         long count = 0;
+         for (int k = low; k < end; k++) {
+            int row = row(k);
+            long timestamp = timestamp(row);
+            if (timestamp > to) {
+               break;
+            }
+            visitor.entry(timestamp, map.get(typeAt + row), map.getDouble(amountAt + 8 * row));
+            count++;
+         }
+         return count;
+      }
+
+      private int findAccount(long accountId) {
+         int low = 0;
+         int high = accounts - 1;
+         while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = map.getLong(idAt + 8 * mid);
+            if (id < accountId) {
+               low = mid + 1;
+            } else if (id > accountId) {
+               high = mid - 1;
+            } else {
+               return mid;
+            }
+         }
+         return -1;
+      }
+
+      private int row(int k) {
+         return map.getInt(rowAt + 4 * k);
+      }
+
+      private long timestamp(int row) {
+         return map.getLong(timestampAt + 8 * row);
+      }
+   }
+}
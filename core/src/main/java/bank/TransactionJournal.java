@@ -0,0 +1,493 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * The TransactionJournal class is an append-only write-ahead log of account operations.
+ * Every record is a small fixed-layout binary entry followed by a CRC32, written through a
+ * {@link FileChannel}. Appends go into an in-memory buffer; a background committer thread
+ * writes the buffer out and forces it to disk, so many appends share one {@code force()}
+ * (group commit). Appends only buffer the record; {@link #commit(long)} then waits for it
+ * to be durable, for as long as the {@link JournalConfig} asks. Callers that append
+ * under their own lock should commit after releasing it, so that their records can
+ * share a force with those of other threads.
+ *
+ * File layout:
+ * header:  int magic "SJNL", int version
+ * record:  byte op, long accountId, double amount, [double rate, double charges if OPEN], int crc32
+ *
+ * The log sequence number (LSN) of a record is the file offset just past its end, so
+ * LSNs grow with every append. On open, a torn or corrupt tail left by a crash is cut off.
+ */
+public class TransactionJournal implements Closeable {
+   public static final byte OPEN = 1;
+   public static final byte DEPOSIT = 2;
+   public static final byte WITHDRAW = 3;
+   public static final byte MONTHLY_PROCESS = 4;
+   public static final byte MONTH_END = 5;
+
+   static final int MAGIC = 0x534a4e4c; // "SJNL"
+   static final int VERSION = 1;
+   static final int HEADER_SIZE = 8;
+   static final int MAX_RECORD_SIZE = 37;
+   private static final int RECORD_SIZE = 21;
+
+   private final FileChannel channel;
+   private final JournalConfig config;
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition work = lock.newCondition();
+   private final Condition durable = lock.newCondition();
+   private final byte[] scratch = new byte[MAX_RECORD_SIZE];
+   private final ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+   private final CRC32 crc = new CRC32();
+   private final Thread committer;
+
+   private ByteBuffer active;
+   private ByteBuffer standby;
+   private int pending;
+   private long firstPendingNanos;
+   private long appendedLsn;
+   private long durableLsn;
+   private long forces;
+   private long records;
+   private boolean closed;
+   private IOException failure;
+
+   /**
+    * Opens a journal for appending, creating the file if it does not exist. Any torn
+    * record at the end of an existing file is truncated.
+    *
+    * @param path   The journal file.
+    * @param config The durability settings.
+    * @throws IOException If the file cannot be opened or is not a journal.
+    */
+   public TransactionJournal(Path path, JournalConfig config) throws IOException {
+      this.config = config;
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+         long end;
+         if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            while (header.hasRemaining()) {
+               channel.write(header, HEADER_SIZE - header.remaining());
+            }
+            channel.force(true);
+            end = HEADER_SIZE;
+         } else {
+            end = scan(channel, null);
+            if (end < channel.size()) {
+               channel.truncate(end);
+               channel.force(true);
+            }
+         }
+         channel.position(end);
+         appendedLsn = end;
+         durableLsn = end;
+      } catch (IOException e) {
+         channel.close();
+         throw e;
+      }
+      active = ByteBuffer.allocateDirect(config.bufferSize());
+      standby = ByteBuffer.allocateDirect(config.bufferSize());
+      committer = new Thread(this::commitLoop, "journal-committer");
+      committer.setDaemon(true);
+      committer.start();
+   }
+
+   /**
+    * Appends an OPEN record for a new account.
+    *
+    * @param accountId             The ID of the new account.
+    * @param balance               The initial balance.
+    * @param annualInterestRate    The annual interest rate.
+    * @param monthlyServiceCharges The monthly service charges.
+    * @return The LSN of the record.
+    * @throws IOException If the journal cannot be written.
+    */
+   public long appendOpen(long accountId, double balance, double annualInterestRate, double monthlyServiceCharges) throws IOException {
+      return append(OPEN, accountId, balance, annualInterestRate, monthlyServiceCharges);
+   }
+
+   /**
+    * Appends a DEPOSIT, WITHDRAW, MONTHLY_PROCESS or MONTH_END record. The amount is
+    * ignored for the last two.
+    *
+    * @param op        The operation.
+    * @param accountId The ID of the account, or -1 for MONTH_END.
+    * @param amount    The amount of the operation.
+    * @return The LSN of the record.
+    * @throws IOException If the journal cannot be written.
+    */
+   public long append(byte op, long accountId, double amount) throws IOException {
+      if (op == OPEN || op < OPEN || op > MONTH_END) {
+         throw new IllegalArgumentException("unknown journal operation " + op + ".");
+      }
+      return append(op, accountId, amount, 0, 0);
+   }
+
+   private long append(byte op, long accountId, double amount, double rate, double charges) throws IOException {
+      long lsn;
+      lock.lock();
+      try {
+         checkUsable();
+         int size = op == OPEN ? MAX_RECORD_SIZE : RECORD_SIZE;
+         while (active.remaining() < size) {
+            // The buffer is full: hand it to the committer and wait for it to be swapped.
+            work.signal();
+            durable.awaitUninterruptibly();
+            checkUsable();
+         }
+         encode(op, accountId, amount, rate, charges);
+         active.put(scratchBuffer.flip());
+         appendedLsn += size;
+         lsn = appendedLsn;
+         records++;
+         if (pending++ == 0) {
+            // Wake the committer so it starts the batch's delay timer.
+            firstPendingNanos = System.nanoTime();
+            work.signal();
+         } else if (pending >= config.maxBatch()) {
+            work.signal();
+         }
+      } finally {
+         lock.unlock();
+      }
+      return lsn;
+   }
+
+   /**
+    * Waits until the record with the given LSN is on disk, if the configuration asks
+    * callers to wait for durability. With {@link JournalConfig#async(long)} this returns at once.
+    * A record appended before the journal was closed is still waited for, since closing
+    * writes it out.
+    *
+    * @param lsn The LSN returned by an append.
+    * @throws IOException If the journal cannot be written.
+    */
+   public void commit(long lsn) throws IOException {
+      if (!config.waitForDurability()) {
+         return;
+      }
+      lock.lock();
+      try {
+         awaitDurable(lsn);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   // Encodes one record into the scratch buffer. Must be called with the lock held.
+   private void encode(byte op, long accountId, double amount, double rate, double charges) {
+      ByteBuffer b = scratchBuffer.clear();
+      b.put(op).putLong(accountId).putDouble(amount);
+      if (op == OPEN) {
+         b.putDouble(rate).putDouble(charges);
+      }
+      crc.reset();
+      crc.update(scratch, 0, b.position());
+      b.putInt((int) crc.getValue());
+   }
+
+   /**
+    * Blocks until every record appended so far is on disk.
+    *
+    * @throws IOException If the journal cannot be written.
+    */
+   public void sync() throws IOException {
+      lock.lock();
+      try {
+         long target = appendedLsn;
+         if (durableLsn < target) {
+            firstPendingNanos = System.nanoTime() - config.maxDelayNanos();
+            work.signal();
+         }
+         awaitDurable(target);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Returns the LSN just past the last appended record.
+    *
+    * @return The current end of the journal.
+    */
+   public long appendedLsn() {
+      lock.lock();
+      try {
+         return appendedLsn;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Returns the LSN up to which every record is known to be on disk.
+    *
+    * @return The durable end of the journal.
+    */
+   public long durableLsn() {
+      lock.lock();
+      try {
+         return durableLsn;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Returns how many times the journal has been forced to disk.
+    *
+    * @return The number of forces.
+    */
+   public long forceCount() {
+      lock.lock();
+      try {
+         return forces;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Returns how many records have been appended since the journal was opened.
+    *
+    * @return The number of records.
+    */
+   public long recordCount() {
+      lock.lock();
+      try {
+         return records;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Forces every pending record to disk, stops the committer and closes the file.
+    *
+    * @throws IOException If the last records cannot be written.
+    */
+   @Override
+   public void close() throws IOException {
+      lock.lock();
+      try {
+         if (closed) {
+            return;
+         }
+         closed = true;
+         work.signal();
+      } finally {
+         lock.unlock();
+      }
+      try {
+         committer.join();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      channel.close();
+      if (failure != null) {
+         throw failure;
+      }
+   }
+
+   // Waits for the records up to lsn to be forced. The committer writes out every appended
+   // record before it stops, so after close this only fails if a write failed. Must be
+   // called with the lock held.
+   private void awaitDurable(long lsn) throws IOException {
+      while (durableLsn < lsn) {
+         if (failure != null) {
+            throw new IOException("journal write failed", failure);
+         }
+         if (closed && lsn > appendedLsn) {
+            throw new IOException("journal is closed");
+         }
+         durable.awaitUninterruptibly();
+      }
+   }
+
+   private void checkUsable() throws IOException {
+      if (failure != null) {
+         throw new IOException("journal write failed", failure);
+      }
+      if (closed) {
+         throw new IOException("journal is closed");
+      }
+   }
+
+   private void commitLoop() {
+      lock.lock();
+      try {
+         while (true) {
+            if (pending == 0) {
+               if (closed) {
+                  return;
+               }
+               work.awaitUninterruptibly();
+               continue;
+            }
+            boolean bufferFull = active.remaining() < MAX_RECORD_SIZE;
+            if (pending < config.maxBatch() && !bufferFull && !closed) {
+               long wait = firstPendingNanos + config.maxDelayNanos() - System.nanoTime();
+               if (wait > 0) {
+                  try {
+                     work.await(wait, TimeUnit.NANOSECONDS);
+                  } catch (InterruptedException e) {
+                     // The committer only stops through close().
+                  }
+                  continue;
+               }
+            }
+         
+            ByteBuffer full = active;
+            active = standby;
+            standby = full;
+            long end = appendedLsn;
+            pending = 0;
+            lock.unlock();
+            IOException error = null;
+            try {
+               full.flip();
+               while (full.hasRemaining()) {
+                  channel.write(full);
+               }
+               channel.force(false);
+            } catch (IOException e) {
+               error = e;
+            } finally {
+               full.clear();
+               lock.lock();
+            }
+            if (error != null) {
+               failure = error;
+               durable.signalAll();
+               return;
+            }
+            forces++;
+            durableLsn = end;
+            durable.signalAll();
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Reads every intact record of a journal file in order. Reading stops at the end of
+    * the file or at the first torn or corrupt record.
+    *
+    * @param path    The journal file.
+    * @param visitor The visitor to call for each record.
+    * @return The LSN just past the last intact record.
+    * @throws IOException If the file cannot be read or is not a journal.
+    */
+   public static long replay(Path path, Visitor visitor) throws IOException {
+      try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+         return scan(in, visitor);
+      }
+   }
+
+   private static long scan(FileChannel in, Visitor visitor) throws IOException {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      while (header.hasRemaining()) {
+         if (in.read(header, header.position()) < 0) {
+            throw new EOFException("journal header is truncated");
+         }
+      }
+      header.flip();
+      if (header.getInt() != MAGIC) {
+         throw new IOException("not a transaction journal");
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+         throw new IOException("unsupported journal version " + version);
+      }
+   
+      ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+      CRC32 check = new CRC32();
+      long offset = HEADER_SIZE;
+      long fileOffset = HEADER_SIZE;
+      boolean eof = false;
+      while (true) {
+         if (!eof && buffer.remaining() > 0) {
+            int read = in.read(buffer, fileOffset);
+            if (read < 0) {
+               eof = true;
+            } else {
+               fileOffset += read;
+            }
+         }
+         buffer.flip();
+         while (buffer.remaining() >= RECORD_SIZE) {
+            int start = buffer.position();
+            byte op = buffer.get(start);
+            if (op < OPEN || op > MONTH_END) {
+               return offset;
+            }
+            int size = op == OPEN ? MAX_RECORD_SIZE : RECORD_SIZE;
+            if (buffer.remaining() < size) {
+               break;
+            }
+            check.reset();
+            check.update(buffer.array(), start, size - 4);
+            if (buffer.getInt(start + size - 4) != (int) check.getValue()) {
+               return offset;
+            }
+            buffer.get();
+            long accountId = buffer.getLong();
+            double amount = buffer.getDouble();
+            double rate = 0;
+            double charges = 0;
+            if (op == OPEN) {
+               rate = buffer.getDouble();
+               charges = buffer.getDouble();
+            }
+            buffer.getInt();
+            offset += size;
+            if (visitor != null) {
+               visitor.record(op, accountId, amount, rate, charges, offset);
+            }
+         }
+         buffer.compact();
+         if (eof) {
+            // Anything still in the buffer is a torn record at the end of the file.
+            return offset;
+         }
+      }
+   }
+
+   /**
+    * Callback used by {@link #replay(Path, Visitor)}.
+    */
+   public interface Visitor {
+      /**
+       * Called once for each intact record, in journal order.
+       *
+       * @param op        The operation.
+       * @param accountId The ID of the account, or -1 for MONTH_END.
+       * @param amount    The amount, or the initial balance for OPEN.
+       * @param rate      The annual interest rate for OPEN, otherwise 0.
+       * @param charges   The monthly service charges for OPEN, otherwise 0.
+       * @param lsn       The LSN of the record.
+       * @throws IOException If the visitor cannot apply the record.
+       */
+      void record(byte op, long accountId, double amount, double rate, double charges, long lsn) throws IOException;
+   }
+}
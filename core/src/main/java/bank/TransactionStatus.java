@@ -0,0 +1,24 @@
+//*****************************************
+//   Programmer: Surachhya Adhikari
+//   CTP 150 Section#: 400
+//   Final Project
+//*****************************************
+
+package bank;
+
+/**
+ * The outcome of a deposit or withdrawal made through the non-throwing API
+ * ({@link BankAccount#tryDeposit(double)}, {@link BankAccount#tryWithdraw(double)}).
+ * Bulk jobs can check the result instead of catching an exception, which is much
+ * cheaper when many transactions are rejected.
+ */
+public enum TransactionStatus {
+   /** The transaction was applied. */
+   OK,
+   /** The amount is not &gt; 0 and &lt;= 10,000. */
+   OUT_OF_RANGE,
+   /** The withdrawal is larger than the balance. */
+   INSUFFICIENT_FUNDS,
+   /** The account is inactive and refuses withdrawals. */
+   INACTIVE
+}